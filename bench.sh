@@ -0,0 +1,38 @@
+#!/bin/bash
+
+# Offline throughput harness
+# Compiles src against the stand-in API in bench/api and runs bench/src headlessly.
+# Arguments are passed to the main class, e.g.:
+#   ./bench.sh --scenario dyemaker --hours 2 --seed 7 --latency bank_open=1200:400
+# Set BENCH_MAIN to run another main class from bench/src, e.g.
+#   BENCH_MAIN=com.druscripts.bench.Microbenchmarks ./bench.sh --filter stats
+#   BENCH_MAIN=com.druscripts.bench.StatsLoadTest ./bench.sh --latency 2000:500 --errors 0.3
+#   BENCH_MAIN=com.druscripts.bench.SpriteBench ./bench.sh --filter inventory
+# JavaFX is taken from JAVAFX_CP (jar paths separated by ':'), or from API.jar.
+
+set -e  # Exit on error
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+OUT_DIR="$SCRIPT_DIR/build/bench"
+MAIN_CLASS="${BENCH_MAIN:-com.druscripts.sim.Throughput}"
+FX_CP="${JAVAFX_CP:-$SCRIPT_DIR/API.jar}"
+
+rm -rf "$OUT_DIR"
+mkdir -p "$OUT_DIR/api" "$OUT_DIR/classes"
+
+echo "=== Compiling stand-in API ===" >&2
+javac -nowarn --release 17 -cp "$FX_CP" -d "$OUT_DIR/api" $(find "$SCRIPT_DIR/bench/api" -name "*.java")
+
+echo "=== Compiling scripts and harness ===" >&2
+javac -nowarn --release 17 -encoding UTF-8 -cp "$OUT_DIR/api:$FX_CP" -d "$OUT_DIR/classes" \
+    $(find "$SCRIPT_DIR/src" "$SCRIPT_DIR/bench/src" -name "*.java")
+
+# Sprites are read from the classpath
+for resources in "$SCRIPT_DIR"/src/com/druscripts/*/resources; do
+    script=$(basename "$(dirname "$resources")")
+    mkdir -p "$OUT_DIR/classes/com/druscripts/$script"
+    cp -r "$resources" "$OUT_DIR/classes/com/druscripts/$script/"
+done
+
+echo >&2
+java -cp "$OUT_DIR/classes:$OUT_DIR/api:$FX_CP" "$MAIN_CLASS" "$@"
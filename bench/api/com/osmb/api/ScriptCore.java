@@ -0,0 +1,59 @@
+package com.osmb.api;
+
+import com.osmb.api.input.Finger;
+import com.osmb.api.location.position.types.WorldPosition;
+import com.osmb.api.scene.ObjectManager;
+import com.osmb.api.scene.SceneManager;
+import com.osmb.api.screen.Screen;
+import com.osmb.api.trackers.experience.XPTracker;
+import com.osmb.api.ui.WidgetManager;
+import com.osmb.api.ui.component.tabs.skill.SkillType;
+import com.osmb.api.utils.StageController;
+import com.osmb.api.utils.Utils;
+import com.osmb.api.visual.ImageAnalyzer;
+import com.osmb.api.walker.Walker;
+
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Everything a Script asks the client for. Script delegates each call to the core
+ * it was constructed with, so a simulator can stand in for the client.
+ */
+public interface ScriptCore {
+
+    Screen getScreen();
+
+    ImageAnalyzer getImageAnalyzer();
+
+    ObjectManager getObjectManager();
+
+    SceneManager getSceneManager();
+
+    Utils getUtils();
+
+    Walker getWalker();
+
+    WidgetManager getWidgetManager();
+
+    WorldPosition getWorldPosition();
+
+    Finger getFinger();
+
+    StageController getStageController();
+
+    Map<SkillType, XPTracker> getXPTrackers();
+
+    void log(String tag, String message);
+
+    boolean pollFramesHuman(BooleanSupplier condition, int timeout, boolean ignoreTasks);
+
+    boolean pollFramesUntil(BooleanSupplier condition, int timeout, boolean ignoreTasks);
+
+    /**
+     * @return a random int from low (inclusive) to high (exclusive)
+     */
+    int random(int low, int high);
+
+    void stop();
+}
@@ -0,0 +1,10 @@
+package com.osmb.api.input;
+
+import com.osmb.api.shape.Shape;
+
+public interface Finger {
+
+    boolean tap(Shape shape);
+
+    boolean tap(Shape shape, MenuHook menuHook);
+}
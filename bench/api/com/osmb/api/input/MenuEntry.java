@@ -0,0 +1,25 @@
+package com.osmb.api.input;
+
+public class MenuEntry {
+
+    private final String action;
+    private final String rawText;
+
+    public MenuEntry(String action, String rawText) {
+        this.action = action;
+        this.rawText = rawText;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getRawText() {
+        return rawText;
+    }
+
+    @Override
+    public String toString() {
+        return rawText;
+    }
+}
@@ -0,0 +1,12 @@
+package com.osmb.api.input;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface MenuHook {
+
+    /**
+     * @return the entry to select, or null to close the menu
+     */
+    MenuEntry find(List<MenuEntry> menuEntries);
+}
@@ -0,0 +1,78 @@
+package com.osmb.api.item;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ItemGroupResult {
+
+    private final int groupSize;
+    private final int freeSlots;
+    private final Integer selectedSlot;
+    private final List<ItemSearchResult> items;
+
+    /**
+     * @param items Recognised items, one per occupied slot
+     */
+    public ItemGroupResult(int groupSize, int freeSlots, Integer selectedSlot, List<ItemSearchResult> items) {
+        this.groupSize = groupSize;
+        this.freeSlots = freeSlots;
+        this.selectedSlot = selectedSlot;
+        this.items = List.copyOf(items);
+    }
+
+    public boolean contains(int itemId) {
+        return getItem(itemId) != null;
+    }
+
+    public List<ItemSearchResult> getAllOfItem(int itemId) {
+        List<ItemSearchResult> found = new ArrayList<>();
+        for (ItemSearchResult item : items) {
+            if (item.getId() == itemId) {
+                found.add(item);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return total stack amount of the given items
+     */
+    public int getAmount(int... itemIds) {
+        int amount = 0;
+        for (ItemSearchResult item : items) {
+            for (int id : itemIds) {
+                if (item.getId() == id) {
+                    amount += item.getStackAmount();
+                }
+            }
+        }
+        return amount;
+    }
+
+    public int getFreeSlots() {
+        return freeSlots;
+    }
+
+    public int getOccupiedSlotCount() {
+        return groupSize - freeSlots;
+    }
+
+    public ItemSearchResult getItem(int... itemIds) {
+        for (ItemSearchResult item : items) {
+            for (int id : itemIds) {
+                if (item.getId() == id) {
+                    return item;
+                }
+            }
+        }
+        return null;
+    }
+
+    public Integer getSelectedSlot() {
+        return selectedSlot;
+    }
+
+    public boolean isFull() {
+        return freeSlots == 0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.osmb.api.item;
+
+import com.osmb.api.input.MenuHook;
+import com.osmb.api.shape.Rectangle;
+
+public class ItemSearchResult {
+
+    private final int id;
+    private final int slot;
+    private final int stackAmount;
+    private final Rectangle bounds;
+
+    public ItemSearchResult(int id, int slot, int stackAmount, Rectangle bounds) {
+        this.id = id;
+        this.slot = slot;
+        this.stackAmount = stackAmount;
+        this.bounds = bounds;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public int getStackAmount() {
+        return stackAmount;
+    }
+
+    public Rectangle getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Taps the item with its default action.
+     */
+    public boolean interact() {
+        return false;
+    }
+
+    public boolean interact(MenuHook menuHook) {
+        return false;
+    }
+}
@@ -0,0 +1,4 @@
+package com.osmb.api.location;
+
+public interface Location3D {
+}
@@ -0,0 +1,47 @@
+package com.osmb.api.location.area.impl;
+
+import com.osmb.api.location.position.types.WorldPosition;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+public class RectangleArea {
+
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+    private final int plane;
+
+    public RectangleArea(int x, int y, int width, int height, int plane) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.plane = plane;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getPlane() {
+        return plane;
+    }
+
+    public WorldPosition getRandomPosition() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new WorldPosition(x + random.nextInt(width), y + random.nextInt(height), plane);
+    }
+}
@@ -0,0 +1,46 @@
+package com.osmb.api.location.position;
+
+import java.util.Objects;
+
+public class Position {
+
+    private final int x;
+    private final int y;
+    private final int plane;
+
+    public Position(int x, int y, int plane) {
+        this.x = x;
+        this.y = y;
+        this.plane = plane;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getPlane() {
+        return plane;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Position other = (Position) o;
+        return x == other.x && y == other.y && plane == other.plane;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(x, y, plane);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ", " + plane + ")";
+    }
+}
@@ -0,0 +1,14 @@
+package com.osmb.api.location.position.types;
+
+import com.osmb.api.location.position.Position;
+
+public class WorldPosition extends Position {
+
+    public WorldPosition(int x, int y, int plane) {
+        super(x, y, plane);
+    }
+
+    public int getRegionID() {
+        return (getX() >> 6) << 8 | getY() >> 6;
+    }
+}
@@ -0,0 +1,9 @@
+package com.osmb.api.scene;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+public interface ObjectManager {
+
+    List<RSObject> getObjects(Predicate<RSObject> filter);
+}
@@ -0,0 +1,23 @@
+package com.osmb.api.scene;
+
+import com.osmb.api.input.MenuHook;
+import com.osmb.api.location.Location3D;
+import com.osmb.api.location.position.types.WorldPosition;
+import com.osmb.api.shape.Polygon;
+
+public interface RSObject extends Location3D {
+
+    boolean canReach();
+
+    double distance(WorldPosition position);
+
+    String[] getActions();
+
+    Polygon getConvexHull();
+
+    String getName();
+
+    boolean interact(MenuHook menuHook);
+
+    boolean interact(String... actions);
+}
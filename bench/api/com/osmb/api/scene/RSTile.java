@@ -0,0 +1,12 @@
+package com.osmb.api.scene;
+
+import com.osmb.api.shape.Polygon;
+
+public interface RSTile {
+
+    Polygon getTileCube(int height);
+
+    boolean interact(String action);
+
+    boolean isOnGameScreen();
+}
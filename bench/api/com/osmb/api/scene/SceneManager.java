@@ -0,0 +1,8 @@
+package com.osmb.api.scene;
+
+import com.osmb.api.location.position.Position;
+
+public interface SceneManager {
+
+    RSTile getTile(Position position);
+}
@@ -0,0 +1,8 @@
+package com.osmb.api.screen;
+
+import com.osmb.api.visual.image.Image;
+
+public interface Screen {
+
+    Image getImage();
+}
@@ -0,0 +1,142 @@
+package com.osmb.api.script;
+
+import com.osmb.api.ScriptCore;
+import com.osmb.api.input.Finger;
+import com.osmb.api.location.position.types.WorldPosition;
+import com.osmb.api.scene.ObjectManager;
+import com.osmb.api.scene.SceneManager;
+import com.osmb.api.screen.Screen;
+import com.osmb.api.trackers.experience.XPTracker;
+import com.osmb.api.ui.WidgetManager;
+import com.osmb.api.ui.component.tabs.skill.SkillType;
+import com.osmb.api.utils.StageController;
+import com.osmb.api.utils.Utils;
+import com.osmb.api.visual.ImageAnalyzer;
+import com.osmb.api.visual.drawing.Canvas;
+import com.osmb.api.walker.Walker;
+
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+public class Script implements ScriptCore {
+
+    private final ScriptCore core;
+
+    public Script(Object core) {
+        this.core = (ScriptCore) core;
+    }
+
+    public void onStart() {}
+
+    public int poll() {
+        return 0;
+    }
+
+    public void onStop() {}
+
+    public void onPaint(Canvas c) {}
+
+    public int[] regionsToPrioritise() {
+        return new int[0];
+    }
+
+    public boolean promptBankTabDialogue() {
+        return false;
+    }
+
+    public boolean trackXP() {
+        return false;
+    }
+
+    @Override
+    public Screen getScreen() {
+        return core.getScreen();
+    }
+
+    @Override
+    public ImageAnalyzer getImageAnalyzer() {
+        return core.getImageAnalyzer();
+    }
+
+    @Override
+    public ObjectManager getObjectManager() {
+        return core.getObjectManager();
+    }
+
+    @Override
+    public SceneManager getSceneManager() {
+        return core.getSceneManager();
+    }
+
+    @Override
+    public Utils getUtils() {
+        return core.getUtils();
+    }
+
+    @Override
+    public Walker getWalker() {
+        return core.getWalker();
+    }
+
+    @Override
+    public WidgetManager getWidgetManager() {
+        return core.getWidgetManager();
+    }
+
+    @Override
+    public WorldPosition getWorldPosition() {
+        return core.getWorldPosition();
+    }
+
+    @Override
+    public Finger getFinger() {
+        return core.getFinger();
+    }
+
+    @Override
+    public StageController getStageController() {
+        return core.getStageController();
+    }
+
+    @Override
+    public Map<SkillType, XPTracker> getXPTrackers() {
+        return core.getXPTrackers();
+    }
+
+    public void log(Class<?> tag, String message) {
+        core.log(tag.getSimpleName(), message);
+    }
+
+    @Override
+    public void log(String tag, String message) {
+        core.log(tag, message);
+    }
+
+    public boolean pollFramesHuman(BooleanSupplier condition, int timeout) {
+        return pollFramesHuman(condition, timeout, false);
+    }
+
+    @Override
+    public boolean pollFramesHuman(BooleanSupplier condition, int timeout, boolean ignoreTasks) {
+        return core.pollFramesHuman(condition, timeout, ignoreTasks);
+    }
+
+    public boolean pollFramesUntil(BooleanSupplier condition, int timeout) {
+        return pollFramesUntil(condition, timeout, false);
+    }
+
+    @Override
+    public boolean pollFramesUntil(BooleanSupplier condition, int timeout, boolean ignoreTasks) {
+        return core.pollFramesUntil(condition, timeout, ignoreTasks);
+    }
+
+    @Override
+    public int random(int low, int high) {
+        return core.random(low, high);
+    }
+
+    @Override
+    public void stop() {
+        core.stop();
+    }
+}
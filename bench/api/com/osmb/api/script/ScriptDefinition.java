@@ -0,0 +1,20 @@
+package com.osmb.api.script;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ScriptDefinition {
+    String name();
+
+    String description() default "";
+
+    SkillCategory skillCategory();
+
+    double version();
+
+    String author() default "";
+}
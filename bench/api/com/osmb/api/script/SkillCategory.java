@@ -0,0 +1,7 @@
+package com.osmb.api.script;
+
+public enum SkillCategory {
+    OTHER,
+    COOKING,
+    MAGIC
+}
@@ -0,0 +1,43 @@
+package com.osmb.api.shape;
+
+public class Polygon implements Shape {
+
+    private final int[] xPoints;
+    private final int[] yPoints;
+
+    public Polygon(int[] xPoints, int[] yPoints) {
+        this.xPoints = xPoints.clone();
+        this.yPoints = yPoints.clone();
+    }
+
+    /**
+     * @return this polygon scaled about its centre
+     */
+    public Polygon getResized(double factor) {
+        Rectangle bounds = getBounds();
+        double cx = bounds.getX() + bounds.getWidth() / 2.0;
+        double cy = bounds.getY() + bounds.getHeight() / 2.0;
+        int[] xs = new int[xPoints.length];
+        int[] ys = new int[yPoints.length];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = (int) Math.round(cx + (xPoints[i] - cx) * factor);
+            ys[i] = (int) Math.round(cy + (yPoints[i] - cy) * factor);
+        }
+        return new Polygon(xs, ys);
+    }
+
+    @Override
+    public Rectangle getBounds() {
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < xPoints.length; i++) {
+            minX = Math.min(minX, xPoints[i]);
+            maxX = Math.max(maxX, xPoints[i]);
+            minY = Math.min(minY, yPoints[i]);
+            maxY = Math.max(maxY, yPoints[i]);
+        }
+        return new Rectangle(minX, minY, maxX - minX, maxY - minY);
+    }
+}
@@ -0,0 +1,6 @@
+package com.osmb.api.shape;
+
+public interface Shape {
+
+    Rectangle getBounds();
+}
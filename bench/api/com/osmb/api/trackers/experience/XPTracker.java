@@ -0,0 +1,14 @@
+package com.osmb.api.trackers.experience;
+
+public class XPTracker {
+
+    private final int level;
+
+    public XPTracker(int level) {
+        this.level = level;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+}
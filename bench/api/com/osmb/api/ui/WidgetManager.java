@@ -0,0 +1,20 @@
+package com.osmb.api.ui;
+
+import com.osmb.api.ui.bank.Bank;
+import com.osmb.api.ui.chatbox.dialogue.Dialogue;
+import com.osmb.api.ui.minimap.Minimap;
+import com.osmb.api.ui.tabs.Inventory;
+import com.osmb.api.ui.tabs.Spellbook;
+
+public interface WidgetManager {
+
+    Bank getBank();
+
+    Dialogue getDialogue();
+
+    Inventory getInventory();
+
+    Minimap getMinimap();
+
+    Spellbook getSpellbook();
+}
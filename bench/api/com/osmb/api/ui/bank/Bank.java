@@ -0,0 +1,27 @@
+package com.osmb.api.ui.bank;
+
+import com.osmb.api.item.ItemGroupResult;
+import com.osmb.api.shape.Rectangle;
+
+import java.util.Set;
+
+public interface Bank {
+
+    boolean close();
+
+    /**
+     * Deposits every inventory item except the given IDs.
+     */
+    boolean depositAll(Set<Integer> keep);
+
+    Rectangle getBounds();
+
+    boolean isVisible();
+
+    /**
+     * @return the given items in the open bank, or null if the bank is not visible
+     */
+    ItemGroupResult search(Set<Integer> itemIds);
+
+    boolean withdraw(int itemId, int amount);
+}
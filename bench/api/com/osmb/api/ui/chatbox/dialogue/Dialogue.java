@@ -0,0 +1,11 @@
+package com.osmb.api.ui.chatbox.dialogue;
+
+public interface Dialogue {
+
+    /**
+     * @return the open dialogue's type, or null if none is open
+     */
+    DialogueType getDialogueType();
+
+    boolean selectItem(int... itemIds);
+}
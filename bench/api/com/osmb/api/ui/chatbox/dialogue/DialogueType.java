@@ -0,0 +1,6 @@
+package com.osmb.api.ui.chatbox.dialogue;
+
+public enum DialogueType {
+    ITEM_OPTION,
+    TAP_HERE_TO_CONTINUE
+}
@@ -0,0 +1,7 @@
+package com.osmb.api.ui.component.tabs.skill;
+
+public enum SkillType {
+    COOKING,
+    CRAFTING,
+    MAGIC
+}
@@ -0,0 +1,9 @@
+package com.osmb.api.ui.minimap;
+
+import com.osmb.api.location.position.types.WorldPosition;
+import com.osmb.api.utils.UIResultList;
+
+public interface Minimap {
+
+    UIResultList<WorldPosition> getNPCPositions();
+}
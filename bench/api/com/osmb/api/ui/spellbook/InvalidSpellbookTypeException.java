@@ -0,0 +1,8 @@
+package com.osmb.api.ui.spellbook;
+
+public class InvalidSpellbookTypeException extends Exception {
+
+    public InvalidSpellbookTypeException(String message) {
+        super(message);
+    }
+}
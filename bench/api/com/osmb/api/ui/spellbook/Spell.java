@@ -0,0 +1,4 @@
+package com.osmb.api.ui.spellbook;
+
+public interface Spell {
+}
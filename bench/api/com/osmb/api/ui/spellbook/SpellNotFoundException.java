@@ -0,0 +1,8 @@
+package com.osmb.api.ui.spellbook;
+
+public class SpellNotFoundException extends Exception {
+
+    public SpellNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,5 @@
+package com.osmb.api.ui.spellbook;
+
+public enum StandardSpellbook implements Spell {
+    JEWELLERY_ENCHANTMENTS
+}
@@ -0,0 +1,23 @@
+package com.osmb.api.ui.tabs;
+
+import com.osmb.api.item.ItemGroupResult;
+import com.osmb.api.shape.Rectangle;
+
+import java.util.Set;
+
+public interface Inventory extends Tab {
+
+    int getGroupSize();
+
+    Rectangle getBounds();
+
+    /**
+     * @return the given items, or null if the inventory is not visible
+     */
+    ItemGroupResult search(Set<Integer> itemIds);
+
+    /**
+     * @return true if no item is selected afterwards
+     */
+    boolean unSelectItemIfSelected();
+}
@@ -0,0 +1,15 @@
+package com.osmb.api.ui.tabs;
+
+import com.osmb.api.ui.spellbook.InvalidSpellbookTypeException;
+import com.osmb.api.ui.spellbook.Spell;
+import com.osmb.api.ui.spellbook.SpellNotFoundException;
+
+public interface Spellbook extends Tab {
+
+    enum ResultType {
+        SPRITE_CHANGE
+    }
+
+    boolean selectSpell(Spell spell, ResultType resultType)
+        throws SpellNotFoundException, InvalidSpellbookTypeException;
+}
@@ -0,0 +1,8 @@
+package com.osmb.api.ui.tabs;
+
+public interface Tab {
+
+    boolean isOpen();
+
+    boolean open();
+}
@@ -0,0 +1,8 @@
+package com.osmb.api.utils;
+
+import javafx.scene.Scene;
+
+public interface StageController {
+
+    void show(Scene scene, String title, boolean resizable);
+}
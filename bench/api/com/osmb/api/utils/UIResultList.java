@@ -0,0 +1,26 @@
+package com.osmb.api.utils;
+
+import java.util.Iterator;
+import java.util.List;
+
+public class UIResultList<T> implements Iterable<T> {
+
+    private final List<T> results;
+
+    public UIResultList(List<T> results) {
+        this.results = List.copyOf(results);
+    }
+
+    public boolean isEmpty() {
+        return results.isEmpty();
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return results.iterator();
+    }
+}
@@ -0,0 +1,36 @@
+package com.osmb.api.utils;
+
+import com.osmb.api.ScriptCore;
+import com.osmb.api.location.Location3D;
+import com.osmb.api.location.position.types.WorldPosition;
+import com.osmb.api.scene.RSObject;
+
+import java.util.List;
+
+public class Utils {
+
+    private final ScriptCore core;
+
+    public Utils(ScriptCore core) {
+        this.core = core;
+    }
+
+    /**
+     * @return the location nearest the player, or null if there are none
+     */
+    public Location3D getClosest(List<? extends Location3D> locations) {
+        WorldPosition player = core.getWorldPosition();
+        Location3D closest = null;
+        double best = Double.MAX_VALUE;
+        for (Location3D location : locations) {
+            double distance = location instanceof RSObject && player != null
+                ? ((RSObject) location).distance(player)
+                : 0;
+            if (closest == null || distance < best) {
+                closest = location;
+                best = distance;
+            }
+        }
+        return closest;
+    }
+}
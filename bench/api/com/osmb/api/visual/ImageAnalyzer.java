@@ -0,0 +1,18 @@
+package com.osmb.api.visual;
+
+import com.osmb.api.shape.Shape;
+import com.osmb.api.visual.image.ImageSearchResult;
+import com.osmb.api.visual.image.SearchableImage;
+
+import java.util.List;
+
+public interface ImageAnalyzer {
+
+    ImageSearchResult findLocation(SearchableImage... images);
+
+    ImageSearchResult findLocation(Shape bounds, SearchableImage... images);
+
+    List<ImageSearchResult> findLocations(SearchableImage... images);
+
+    List<ImageSearchResult> findLocations(Shape bounds, SearchableImage... images);
+}
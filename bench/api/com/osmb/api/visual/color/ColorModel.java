@@ -0,0 +1,6 @@
+package com.osmb.api.visual.color;
+
+public enum ColorModel {
+    RGB,
+    HSL
+}
@@ -0,0 +1,10 @@
+package com.osmb.api.visual.color.tolerance;
+
+import com.osmb.api.visual.color.tolerance.impl.SingleThresholdComparator;
+
+public interface ToleranceComparator {
+
+    SingleThresholdComparator ZERO_TOLERANCE = new SingleThresholdComparator(0);
+
+    boolean isWithinTolerance(int rgb, int otherRgb);
+}
@@ -0,0 +1,19 @@
+package com.osmb.api.visual.color.tolerance.impl;
+
+import com.osmb.api.visual.color.tolerance.ToleranceComparator;
+
+public class SingleThresholdComparator implements ToleranceComparator {
+
+    private final int threshold;
+
+    public SingleThresholdComparator(int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public boolean isWithinTolerance(int rgb, int otherRgb) {
+        return Math.abs((rgb >> 16 & 0xFF) - (otherRgb >> 16 & 0xFF)) <= threshold
+            && Math.abs((rgb >> 8 & 0xFF) - (otherRgb >> 8 & 0xFF)) <= threshold
+            && Math.abs((rgb & 0xFF) - (otherRgb & 0xFF)) <= threshold;
+    }
+}
@@ -0,0 +1,13 @@
+package com.osmb.api.visual.drawing;
+
+import java.awt.Font;
+
+/**
+ * Draws nothing; the harness runs headless.
+ */
+public class Canvas {
+
+    public void drawText(String text, int x, int y, int color, Font font) {}
+
+    public void fillRect(int x, int y, int width, int height, int color, double opacity) {}
+}
@@ -0,0 +1,29 @@
+package com.osmb.api.visual.image;
+
+public class Image {
+
+    private final int[] pixels;
+    private final int width;
+    private final int height;
+
+    /**
+     * @param pixels RGB pixels, row-major
+     */
+    public Image(int[] pixels, int width, int height) {
+        this.pixels = pixels;
+        this.width = width;
+        this.height = height;
+    }
+
+    public int getRGB(int x, int y) {
+        return pixels[y * width + x];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
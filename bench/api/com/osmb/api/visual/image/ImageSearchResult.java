@@ -0,0 +1,16 @@
+package com.osmb.api.visual.image;
+
+import com.osmb.api.shape.Rectangle;
+
+public class ImageSearchResult {
+
+    private final Rectangle bounds;
+
+    public ImageSearchResult(Rectangle bounds) {
+        this.bounds = bounds;
+    }
+
+    public Rectangle getBounds() {
+        return bounds;
+    }
+}
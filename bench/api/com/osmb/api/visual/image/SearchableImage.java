@@ -0,0 +1,51 @@
+package com.osmb.api.visual.image;
+
+import com.osmb.api.ScriptCore;
+import com.osmb.api.visual.color.ColorModel;
+import com.osmb.api.visual.color.tolerance.ToleranceComparator;
+
+import java.awt.image.BufferedImage;
+
+public class SearchableImage {
+
+    private final int spriteId;
+    private final BufferedImage image;
+    private final ToleranceComparator tolerance;
+    private final ColorModel colorModel;
+
+    /**
+     * Loads a game sprite by ID.
+     */
+    public SearchableImage(int spriteId, ScriptCore core, ToleranceComparator tolerance, ColorModel colorModel) {
+        this.spriteId = spriteId;
+        this.image = null;
+        this.tolerance = tolerance;
+        this.colorModel = colorModel;
+    }
+
+    public SearchableImage(BufferedImage image, ToleranceComparator tolerance, ColorModel colorModel) {
+        this.spriteId = -1;
+        this.image = image;
+        this.tolerance = tolerance;
+        this.colorModel = colorModel;
+    }
+
+    /**
+     * @return the sprite ID, or -1 if built from an image
+     */
+    public int getSpriteId() {
+        return spriteId;
+    }
+
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    public ToleranceComparator getTolerance() {
+        return tolerance;
+    }
+
+    public ColorModel getColorModel() {
+        return colorModel;
+    }
+}
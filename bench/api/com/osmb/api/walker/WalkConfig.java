@@ -0,0 +1,52 @@
+package com.osmb.api.walker;
+
+public class WalkConfig {
+
+    private final int breakDistance;
+    private final boolean run;
+    private final int tileRandomisationRadius;
+
+    private WalkConfig(Builder builder) {
+        this.breakDistance = builder.breakDistance;
+        this.run = builder.run;
+        this.tileRandomisationRadius = builder.tileRandomisationRadius;
+    }
+
+    public int getBreakDistance() {
+        return breakDistance;
+    }
+
+    public boolean isRunEnabled() {
+        return run;
+    }
+
+    public int getTileRandomisationRadius() {
+        return tileRandomisationRadius;
+    }
+
+    public static class Builder {
+
+        private int breakDistance = 2;
+        private boolean run = false;
+        private int tileRandomisationRadius = 1;
+
+        public Builder breakDistance(int breakDistance) {
+            this.breakDistance = breakDistance;
+            return this;
+        }
+
+        public Builder enableRun(boolean run) {
+            this.run = run;
+            return this;
+        }
+
+        public Builder tileRandomisationRadius(int radius) {
+            this.tileRandomisationRadius = radius;
+            return this;
+        }
+
+        public WalkConfig build() {
+            return new WalkConfig(this);
+        }
+    }
+}
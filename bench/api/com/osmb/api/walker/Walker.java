@@ -0,0 +1,8 @@
+package com.osmb.api.walker;
+
+import com.osmb.api.location.position.Position;
+
+public interface Walker {
+
+    boolean walkTo(Position position, WalkConfig config);
+}
@@ -0,0 +1,122 @@
+package com.druscripts.bench;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Minimal stand-in for JMH: warms a body up, then times fixed-length iterations and
+ * reads the thread's allocated bytes around each one, like -prof gc's
+ * gc.alloc.rate.norm.
+ *
+ * Bodies take an op count and return a value derived from every op, which is folded
+ * into a volatile sink so the JIT cannot drop the work.
+ */
+public final class Bench {
+
+    public interface Body {
+        long run(long ops);
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final long CALIBRATE_NANOS = 10_000_000L;
+
+    private static volatile long sink;
+
+    private final int warmups;
+    private final int iterations;
+    private final long iterationNanos;
+
+    public Bench(int warmups, int iterations, long iterationMs) {
+        this.warmups = warmups;
+        this.iterations = iterations;
+        this.iterationNanos = iterationMs * 1_000_000L;
+    }
+
+    public Result measure(String name, Body body) {
+        long batch = calibrate(body);
+        for (int i = 0; i < warmups; i++) {
+            iteration(body, batch);
+        }
+
+        double[] opsPerSecond = new double[iterations];
+        double bytesPerOp = 0;
+        long gcCount = gcCount();
+        for (int i = 0; i < iterations; i++) {
+            long[] sample = iteration(body, batch);
+            opsPerSecond[i] = sample[0] * 1e9 / sample[1];
+            bytesPerOp += (double) sample[2] / sample[0];
+        }
+        return new Result(name, opsPerSecond, bytesPerOp / iterations, gcCount() - gcCount);
+    }
+
+    /**
+     * @return ops per call, so that one call takes about CALIBRATE_NANOS
+     */
+    private long calibrate(Body body) {
+        long batch = 1;
+        while (true) {
+            long start = System.nanoTime();
+            sink += body.run(batch);
+            if (System.nanoTime() - start >= CALIBRATE_NANOS || batch >= 1L << 40) return batch;
+            batch *= 2;
+        }
+    }
+
+    /**
+     * @return ops, elapsed nanos and bytes allocated
+     */
+    private long[] iteration(Body body, long batch) {
+        long ops = 0;
+        long allocated = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            sink += body.run(batch);
+            ops += batch;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        allocated = THREADS.getCurrentThreadAllocatedBytes() - allocated;
+        return new long[] { ops, elapsed, allocated };
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    public static final class Result {
+        private final String name;
+        private final double meanOpsPerSecond;
+        private final double errorOpsPerSecond;
+        private final double bytesPerOp;
+        private final long gcCount;
+
+        Result(String name, double[] opsPerSecond, double bytesPerOp, long gcCount) {
+            this.name = name;
+            double mean = 0;
+            for (double v : opsPerSecond) mean += v;
+            mean /= opsPerSecond.length;
+            double variance = 0;
+            for (double v : opsPerSecond) variance += (v - mean) * (v - mean);
+            this.meanOpsPerSecond = mean;
+            this.errorOpsPerSecond = opsPerSecond.length > 1 ? Math.sqrt(variance / (opsPerSecond.length - 1)) : 0;
+            this.bytesPerOp = bytesPerOp;
+            this.gcCount = gcCount;
+        }
+
+        public static String header() {
+            return String.format("%-40s %14s %12s %10s %10s %5s",
+                "benchmark", "ops/s", "error", "ns/op", "B/op", "gc");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-40s %14.0f %12.0f %10.2f %10.1f %5d",
+                name, meanOpsPerSecond, errorOpsPerSecond, 1e9 / meanOpsPerSecond, bytesPerOp, gcCount);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.druscripts.bench;
+
+import com.osmb.api.ScriptCore;
+import com.osmb.api.input.Finger;
+import com.osmb.api.item.ItemGroupResult;
+import com.osmb.api.location.position.types.WorldPosition;
+import com.osmb.api.scene.ObjectManager;
+import com.osmb.api.scene.SceneManager;
+import com.osmb.api.screen.Screen;
+import com.osmb.api.shape.Rectangle;
+import com.osmb.api.shape.Shape;
+import com.osmb.api.trackers.experience.XPTracker;
+import com.osmb.api.ui.WidgetManager;
+import com.osmb.api.ui.bank.Bank;
+import com.osmb.api.ui.chatbox.dialogue.Dialogue;
+import com.osmb.api.ui.component.tabs.skill.SkillType;
+import com.osmb.api.ui.minimap.Minimap;
+import com.osmb.api.ui.tabs.Inventory;
+import com.osmb.api.ui.tabs.Spellbook;
+import com.osmb.api.utils.StageController;
+import com.osmb.api.utils.Utils;
+import com.osmb.api.visual.ImageAnalyzer;
+import com.osmb.api.visual.image.Image;
+import com.osmb.api.visual.image.ImageSearchResult;
+import com.osmb.api.visual.image.SearchableImage;
+import com.osmb.api.walker.Walker;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A client with nothing but a screen: a fixed-size frame with the inventory and bank
+ * open at known bounds, for the pixel searches in enchanter.util.
+ *
+ * The ImageAnalyzer slides the template over the frame and requires every opaque
+ * template pixel to match exactly, like a ZERO_TOLERANCE search. It is a plain
+ * stand-in for the client's analyzer, so its timings show the cost of the approach,
+ * not of the real implementation.
+ */
+final class FrameCore implements ScriptCore {
+
+    static final int WIDTH = 765;
+    static final int HEIGHT = 503;
+
+    // Fixed-mode layout
+    static final Rectangle INVENTORY = new Rectangle(548, 205, 190, 261);
+    static final Rectangle BANK = new Rectangle(20, 80, 488, 300);
+
+    private static final int BACKGROUND = 0x3E3529;
+
+    private final int[] pixels = new int[WIDTH * HEIGHT];
+    private final Image screen = new Image(pixels, WIDTH, HEIGHT);
+
+    FrameCore() {
+        clear();
+    }
+
+    void clear() {
+        Arrays.fill(pixels, BACKGROUND);
+    }
+
+    /**
+     * Draws the opaque pixels of a sprite with its top-left corner at (x, y).
+     */
+    void draw(BufferedImage sprite, int x, int y) {
+        for (int sy = 0; sy < sprite.getHeight(); sy++) {
+            for (int sx = 0; sx < sprite.getWidth(); sx++) {
+                int argb = sprite.getRGB(sx, sy);
+                if ((argb >>> 24) == 0xFF) {
+                    pixels[(y + sy) * WIDTH + x + sx] = argb & 0xFFFFFF;
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws a yellow stack count with its shadow, like "10K", at (x, y).
+     */
+    void drawCount(int x, int y) {
+        for (int digit = 0; digit < 3; digit++) {
+            for (int dy = 0; dy < 8; dy++) {
+                for (int dx = 0; dx < 5; dx++) {
+                    if ((dx + dy + digit) % 3 == 0) {
+                        int px = x + digit * 6 + dx;
+                        int py = y + dy;
+                        pixels[(py + 1) * WIDTH + px + 1] = 0x000000;
+                        pixels[py * WIDTH + px] = 0xFFFF00;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public Screen getScreen() {
+        return () -> screen;
+    }
+
+    @Override
+    public ImageAnalyzer getImageAnalyzer() {
+        return new ImageAnalyzer() {
+            @Override
+            public ImageSearchResult findLocation(SearchableImage... images) {
+                return findLocation(new Rectangle(0, 0, WIDTH, HEIGHT), images);
+            }
+
+            @Override
+            public ImageSearchResult findLocation(Shape bounds, SearchableImage... images) {
+                List<ImageSearchResult> found = search(bounds.getBounds(), images, true);
+                return found.isEmpty() ? null : found.get(0);
+            }
+
+            @Override
+            public List<ImageSearchResult> findLocations(SearchableImage... images) {
+                return findLocations(new Rectangle(0, 0, WIDTH, HEIGHT), images);
+            }
+
+            @Override
+            public List<ImageSearchResult> findLocations(Shape bounds, SearchableImage... images) {
+                return search(bounds.getBounds(), images, false);
+            }
+        };
+    }
+
+    private List<ImageSearchResult> search(Rectangle bounds, SearchableImage[] images, boolean first) {
+        List<ImageSearchResult> found = new ArrayList<>();
+        int left = Math.max(0, bounds.getX());
+        int top = Math.max(0, bounds.getY());
+        int right = Math.min(WIDTH, bounds.getX() + bounds.getWidth());
+        int bottom = Math.min(HEIGHT, bounds.getY() + bounds.getHeight());
+        for (SearchableImage image : images) {
+            BufferedImage template = image.getImage();
+            int w = template.getWidth();
+            int h = template.getHeight();
+            int[] argb = template.getRGB(0, 0, w, h, null, 0, w);
+            for (int y = top; y + h <= bottom; y++) {
+                for (int x = left; x + w <= right; x++) {
+                    if (matches(argb, w, h, x, y)) {
+                        found.add(new ImageSearchResult(new Rectangle(x, y, w, h)));
+                        if (first) return found;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private boolean matches(int[] argb, int w, int h, int x, int y) {
+        for (int ty = 0; ty < h; ty++) {
+            int row = (y + ty) * WIDTH + x;
+            for (int tx = 0; tx < w; tx++) {
+                int pixel = argb[ty * w + tx];
+                if ((pixel >>> 24) == 0xFF && (pixel & 0xFFFFFF) != pixels[row + tx]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public WidgetManager getWidgetManager() {
+        return widgets;
+    }
+
+    private final Inventory inventory = new Inventory() {
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public boolean open() {
+            return true;
+        }
+
+        @Override
+        public int getGroupSize() {
+            return 28;
+        }
+
+        @Override
+        public Rectangle getBounds() {
+            return INVENTORY;
+        }
+
+        @Override
+        public ItemGroupResult search(Set<Integer> itemIds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean unSelectItemIfSelected() {
+            return true;
+        }
+    };
+
+    private final Bank bank = new Bank() {
+        @Override
+        public boolean close() {
+            return true;
+        }
+
+        @Override
+        public boolean depositAll(Set<Integer> keep) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Rectangle getBounds() {
+            return BANK;
+        }
+
+        @Override
+        public boolean isVisible() {
+            return true;
+        }
+
+        @Override
+        public ItemGroupResult search(Set<Integer> itemIds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean withdraw(int itemId, int amount) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private final WidgetManager widgets = new WidgetManager() {
+        @Override
+        public Bank getBank() {
+            return bank;
+        }
+
+        @Override
+        public Dialogue getDialogue() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Inventory getInventory() {
+            return inventory;
+        }
+
+        @Override
+        public Minimap getMinimap() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Spellbook getSpellbook() {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    @Override
+    public ObjectManager getObjectManager() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SceneManager getSceneManager() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Utils getUtils() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Walker getWalker() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public WorldPosition getWorldPosition() {
+        return null;
+    }
+
+    @Override
+    public Finger getFinger() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public StageController getStageController() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<SkillType, XPTracker> getXPTrackers() {
+        return Map.of();
+    }
+
+    @Override
+    public void log(String tag, String message) {
+    }
+
+    @Override
+    public boolean pollFramesHuman(BooleanSupplier condition, int timeout, boolean ignoreTasks) {
+        return condition.getAsBoolean();
+    }
+
+    @Override
+    public boolean pollFramesUntil(BooleanSupplier condition, int timeout, boolean ignoreTasks) {
+        return condition.getAsBoolean();
+    }
+
+    @Override
+    public int random(int low, int high) {
+        return low;
+    }
+
+    @Override
+    public void stop() {
+    }
+}
@@ -0,0 +1,319 @@
+package com.druscripts.bench;
+
+import com.druscripts.dyemaker.DyeMaker;
+import com.druscripts.enchanter.Enchanter;
+import com.druscripts.enchanter.data.Constants;
+import com.druscripts.enchanter.data.EnchantableItem;
+import com.druscripts.sim.Latencies;
+import com.druscripts.sim.SimCore;
+import com.druscripts.sim.SimWorld;
+import com.druscripts.utils.location.AreaUtils;
+import com.druscripts.utils.scene.ObjectFilters;
+import com.druscripts.utils.stats.StatKey;
+import com.druscripts.utils.stats.StatsClient;
+import com.osmb.api.input.MenuHook;
+import com.osmb.api.location.area.impl.RectangleArea;
+import com.osmb.api.location.position.types.WorldPosition;
+import com.osmb.api.scene.RSObject;
+import com.osmb.api.shape.Polygon;
+import com.osmb.api.visual.drawing.Canvas;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Benchmarks for the code that runs every poll or frame, each against stand-in objects.
+ *
+ * Usage: Microbenchmarks [--filter text] [--warmup n] [--iterations n] [--time ms]
+ *
+ * "baseline" rows run the code these paths replaced, copied here, so the saving can be
+ * read off the same table.
+ */
+public class Microbenchmarks {
+
+    private static final Map<String, Bench.Body> BENCHMARKS = new LinkedHashMap<>();
+
+    public static void main(String[] args) throws IOException {
+        String filter = "";
+        int warmup = 3;
+        int iterations = 5;
+        long timeMs = 500;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--filter":
+                    filter = args[++i];
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(args[++i]);
+                    break;
+                case "--time":
+                    timeMs = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        // StatsClient must not reach the real API or ~/.druscripts
+        System.setProperty("druscripts.api.base", "http://127.0.0.1:9");
+        System.setProperty("user.home", Files.createTempDirectory("druscripts-bench").toString());
+
+        areas();
+        bankQueries();
+        enchantableItems();
+        paint();
+        stats();
+
+        Bench bench = new Bench(warmup, iterations, timeMs);
+        System.out.println(Bench.Result.header());
+        for (Map.Entry<String, Bench.Body> entry : BENCHMARKS.entrySet()) {
+            if (entry.getKey().contains(filter)) {
+                System.out.println(bench.measure(entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+
+    private static void add(String name, Bench.Body body) {
+        BENCHMARKS.put(name, body);
+    }
+
+    // === AreaUtils ===
+
+    private static void areas() {
+        RectangleArea bank = com.druscripts.dyemaker.data.Constants.DRAYNOR_BANK_AREA;
+        RectangleArea[] shop = com.druscripts.dyemaker.data.Constants.AGGIE_SHOP_AREAS;
+        // Varied positions, so the JIT cannot hoist the check out of the loop
+        WorldPosition[] nearBank = positions(3090, 3240, 0, 6);
+        WorldPosition[] otherPlane = positions(3090, 3240, 1, 6);
+        WorldPosition[] nearShop = positions(3082, 3255, 0, 8);
+
+        add("area.isInArea", ops -> {
+            long hits = 0;
+            for (long i = 0; i < ops; i++) {
+                if (AreaUtils.isInArea(nearBank[(int) (i & 63)], bank)) hits++;
+            }
+            return hits;
+        });
+        add("area.isInArea.otherPlane", ops -> {
+            long hits = 0;
+            for (long i = 0; i < ops; i++) {
+                if (AreaUtils.isInArea(otherPlane[(int) (i & 63)], bank)) hits++;
+            }
+            return hits;
+        });
+        add("area.isInAnyArea.aggieShop", ops -> {
+            long hits = 0;
+            for (long i = 0; i < ops; i++) {
+                if (AreaUtils.isInAnyArea(nearShop[(int) (i & 63)], shop)) hits++;
+            }
+            return hits;
+        });
+    }
+
+    /**
+     * @return 64 positions spread over a size x size square
+     */
+    private static WorldPosition[] positions(int x, int y, int plane, int size) {
+        Random random = new Random(42);
+        WorldPosition[] positions = new WorldPosition[64];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = new WorldPosition(x + random.nextInt(size), y + random.nextInt(size), plane);
+        }
+        return positions;
+    }
+
+    // === Bank object queries ===
+
+    private static void bankQueries() {
+        List<RSObject> scene = new ArrayList<>();
+        String[][] scenery = {
+            { "Tree", "Chop down" }, { "Door", "Open" }, { "Bank chest", "Examine" },
+            { "Grand Exchange clerk", "Exchange" }, { "Booth", "Examine" }, { "Bank booth", "Collect" }
+        };
+        for (int i = 0; i < 49; i++) {
+            String[] object = scenery[i % scenery.length];
+            scene.add(new Scenery(object[0], object[1], "Examine"));
+        }
+        scene.add(new Scenery("Grand Exchange booth", "Bank", "Collect"));
+
+        Predicate<RSObject> query = ObjectFilters.withNameAndAction(Constants.BANK_NAMES, Constants.BANK_ACTIONS);
+        add("bankQuery.withNameAndAction.50", ops -> countMatches(scene, query, ops));
+        add("bankQuery.baseline.50", ops -> countMatches(scene, BASELINE_BANK_QUERY, ops));
+    }
+
+    private static long countMatches(List<RSObject> scene, Predicate<RSObject> query, long ops) {
+        long matches = 0;
+        for (long i = 0; i < ops; i++) {
+            for (int j = 0; j < scene.size(); j++) {
+                if (query.test(scene.get(j))) matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static final Predicate<RSObject> BASELINE_BANK_QUERY = obj -> {
+        if (obj.getName() == null || obj.getActions() == null) return false;
+        if (Arrays.stream(Constants.BANK_NAMES).noneMatch(n -> n.equalsIgnoreCase(obj.getName()))) return false;
+        return Arrays.stream(obj.getActions())
+            .anyMatch(a -> Arrays.stream(Constants.BANK_ACTIONS).anyMatch(ba -> ba.equalsIgnoreCase(a)))
+            && obj.canReach();
+    };
+
+    private static final class Scenery implements RSObject {
+        private final String name;
+        private final String[] actions;
+
+        Scenery(String name, String... actions) {
+            this.name = name;
+            this.actions = actions;
+        }
+
+        @Override
+        public boolean canReach() {
+            return true;
+        }
+
+        @Override
+        public double distance(WorldPosition position) {
+            return 0;
+        }
+
+        @Override
+        public String[] getActions() {
+            return actions;
+        }
+
+        @Override
+        public Polygon getConvexHull() {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean interact(MenuHook menuHook) {
+            return false;
+        }
+
+        @Override
+        public boolean interact(String... actions) {
+            return false;
+        }
+    }
+
+    // === EnchantableItem ===
+
+    private static void enchantableItems() {
+        EnchantableItem[] items = EnchantableItem.values();
+
+        add("enchantable.requiresSpriteSearch", ops -> {
+            long found = 0;
+            for (long i = 0; i < ops; i++) {
+                if (items[(int) (i % items.length)].requiresSpriteSearch()) found++;
+            }
+            return found;
+        });
+        add("enchantable.requiresSpriteSearch.baseline", ops -> {
+            long found = 0;
+            for (long i = 0; i < ops; i++) {
+                int enchantedId = items[(int) (i % items.length)].getEnchantedId();
+                if (Arrays.stream(Constants.SPRITE_SEARCH_ITEMS).anyMatch(id -> id == enchantedId)) found++;
+            }
+            return found;
+        });
+        add("enchantable.spriteName", ops -> {
+            long length = 0;
+            for (long i = 0; i < ops; i++) {
+                String name = items[(int) (i % items.length)].getEnchantedSpriteName();
+                if (name != null) length += name.length();
+            }
+            return length;
+        });
+        add("enchantable.spriteName.baseline", ops -> {
+            long length = 0;
+            for (long i = 0; i < ops; i++) {
+                EnchantableItem item = items[(int) (i % items.length)];
+                int enchantedId = item.getEnchantedId();
+                if (Arrays.stream(Constants.SPRITE_SEARCH_ITEMS).anyMatch(id -> id == enchantedId)) {
+                    length += item.getEnchantedName().toLowerCase().replace(" ", "_").replace("'", "").length();
+                }
+            }
+            return length;
+        });
+    }
+
+    // === Paint ===
+
+    private static void paint() {
+        add("paint.formatRuntime", ops -> {
+            long length = 0;
+            for (long i = 0; i < ops; i++) {
+                length += com.druscripts.utils.paint.PaintStyle.formatRuntime(3_725_000L + i * 1000).length();
+            }
+            return length;
+        });
+        add("paint.formatRuntime.baseline", ops -> {
+            long length = 0;
+            for (long i = 0; i < ops; i++) {
+                long seconds = (3_725_000L + i * 1000) / 1000;
+                length += String.format("%02d:%02d:%02d", seconds / 3600, (seconds % 3600) / 60, seconds % 60).length();
+            }
+            return length;
+        });
+
+        Canvas canvas = new Canvas();
+        SimCore core = new SimCore(new SimWorld(new Latencies(new Random(1)), new WorldPosition(3164, 3487, 0)),
+            new Random(1), false);
+        DyeMaker dyeMaker = new DyeMaker(core);
+        Enchanter enchanter = new Enchanter(core);
+        add("paint.onPaint.dyemaker", ops -> {
+            for (long i = 0; i < ops; i++) {
+                dyeMaker.onPaint(canvas);
+            }
+            return dyeMaker.dyesMade;
+        });
+        add("paint.onPaint.enchanter", ops -> {
+            for (long i = 0; i < ops; i++) {
+                enchanter.onPaint(canvas);
+            }
+            return enchanter.itemsEnchanted;
+        });
+    }
+
+    // === StatsClient ===
+
+    private static void stats() {
+        // Drains are dropped, so the queue stays full and every enqueue also evicts
+        StatsClient client = new StatsClient("bench", "1.0", null, task -> {});
+        StatKey event = StatKey.of("bench_event");
+        StatKey counter = StatKey.of("bench_counter");
+        client.declareCounter(counter);
+        client.setAggregationWindow(Long.MAX_VALUE);
+
+        add("stats.sendStat.event", ops -> {
+            for (long i = 0; i < ops; i++) {
+                client.sendStat(event, i);
+            }
+            return client.getEnqueued();
+        });
+        add("stats.sendStat.counter", ops -> {
+            for (long i = 0; i < ops; i++) {
+                client.sendStat(counter, i);
+            }
+            return client.getEnqueued();
+        });
+    }
+}
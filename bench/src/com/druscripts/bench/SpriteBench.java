@@ -0,0 +1,343 @@
+package com.druscripts.bench;
+
+import com.druscripts.enchanter.util.SearchableImageCache;
+import com.druscripts.enchanter.util.SlotGridIdentifier;
+import com.druscripts.enchanter.util.SpriteIndex;
+import com.druscripts.enchanter.util.SpriteLoader;
+import com.druscripts.enchanter.util.SpriteSearch;
+import com.osmb.api.script.Script;
+import com.osmb.api.shape.Rectangle;
+import com.osmb.api.visual.color.ColorModel;
+import com.osmb.api.visual.color.tolerance.ToleranceComparator;
+import com.osmb.api.visual.image.SearchableImage;
+
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks and times the enchanter's missing-ID item searches against the template
+ * search they replace, on a synthetic fixed-mode frame holding every bundled sprite.
+ *
+ * Usage: SpriteBench [--filter text] [--warmup n] [--iterations n] [--time ms]
+ *
+ * Accuracy comes first:
+ * - cross matches: each sprite in three inventory slots, searched for as every sprite.
+ *   "grid" is the SlotGridIdentifier count, "search" is SpriteSearch's.
+ * - colour drift: each sprite with every channel shifted, standing in for a similar
+ *   item. The grid tolerates SpriteFingerprint.TOLERANCE (10); SpriteSearch must
+ *   reject them all.
+ * - bank: two copies of each sprite, one under a stack count. "scan" is the candidates
+ *   from one SpriteSearch.scanBank(), "search" is countInBank() confirming them, and
+ *   "template" is one template search per sprite over the bank; search must equal
+ *   template. Then near misses: every sprite shifted past the tolerance, and every
+ *   sprite with every other pixel blacked out, which countInBank() must not report.
+ * The timings then follow, in the Bench table format.
+ *
+ * Inventory sprites are drawn in SlotGridIdentifier's own slot boxes, so the grid
+ * rows show its cost and how well it tells sprites apart, not that its layout
+ * matches the client's.
+ */
+public class SpriteBench {
+
+    private static final int[] SLOTS = { 0, 13, 27 };
+    private static final int[] SHIFTS = { 5, 10, 11, 20 };
+
+    // Bank item boxes, 8 per row
+    private static final int BANK_COLUMNS = 8;
+    private static final int BANK_PITCH_X = 48;
+    private static final int BANK_PITCH_Y = 36;
+
+    private static final Map<String, Bench.Body> BENCHMARKS = new LinkedHashMap<>();
+
+    public static void main(String[] args) {
+        String filter = "";
+        int warmup = 3;
+        int iterations = 5;
+        long timeMs = 500;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--filter":
+                    filter = args[++i];
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(args[++i]);
+                    break;
+                case "--time":
+                    timeMs = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        List<String> names = SpriteLoader.listSprites();
+        Map<String, BufferedImage> sprites = new LinkedHashMap<>();
+        for (String name : names) {
+            sprites.put(name, SpriteLoader.loadSprite(name));
+        }
+        FrameCore core = new FrameCore();
+        Script script = new Script(core);
+
+        crossMatches(core, script, sprites);
+        colourDrift(core, script, sprites);
+        bank(core, script, sprites);
+
+        inventoryTimings(core, script, sprites);
+        bankTimings(core, script, sprites);
+        Bench bench = new Bench(warmup, iterations, timeMs);
+        System.out.println();
+        System.out.println(Bench.Result.header());
+        for (Map.Entry<String, Bench.Body> entry : BENCHMARKS.entrySet()) {
+            if (entry.getKey().contains(filter)) {
+                System.out.println(bench.measure(entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+
+    // === Accuracy ===
+
+    private static void crossMatches(FrameCore core, Script script, Map<String, BufferedImage> sprites) {
+        System.out.println("Cross matches: each sprite in slots 0, 13, 27, expecting 3 of itself and 0 of the rest");
+        int gridWrong = 0;
+        int searchWrong = 0;
+        for (Map.Entry<String, BufferedImage> placed : sprites.entrySet()) {
+            core.clear();
+            for (int slot : SLOTS) {
+                drawInSlot(core, placed.getValue(), slot);
+            }
+            for (String searched : sprites.keySet()) {
+                int expected = searched.equals(placed.getKey()) ? SLOTS.length : 0;
+                SlotGridIdentifier.invalidate();
+                int grid = SlotGridIdentifier.count(script, searched, FrameCore.INVENTORY);
+                int search = SpriteSearch.countInInventory(script, searched);
+                if (grid != expected || search != expected) {
+                    System.out.printf("  %-20s as %-20s grid %d, search %d, expected %d%n",
+                        placed.getKey(), searched, grid, search, expected);
+                }
+                gridWrong += grid != expected ? 1 : 0;
+                searchWrong += search != expected ? 1 : 0;
+            }
+        }
+        System.out.printf("  %d pairs: grid wrong %d, search wrong %d%n%n",
+            sprites.size() * sprites.size(), gridWrong, searchWrong);
+    }
+
+    private static void colourDrift(FrameCore core, Script script, Map<String, BufferedImage> sprites) {
+        System.out.println("Colour drift: each sprite shifted on every channel, expecting search 0");
+        System.out.printf("  %6s %14s %14s%n", "shift", "grid matched", "search");
+        for (int shift : SHIFTS) {
+            int gridMatched = 0;
+            int searchMatched = 0;
+            for (Map.Entry<String, BufferedImage> entry : sprites.entrySet()) {
+                core.clear();
+                drawInSlot(core, shifted(entry.getValue(), shift), 0);
+                SlotGridIdentifier.invalidate();
+                gridMatched += SlotGridIdentifier.count(script, entry.getKey(), FrameCore.INVENTORY) > 0 ? 1 : 0;
+                searchMatched += SpriteSearch.countInInventory(script, entry.getKey()) > 0 ? 1 : 0;
+            }
+            System.out.printf("  %6d %9d of %d %9d of %d%n",
+                shift, gridMatched, sprites.size(), searchMatched, sprites.size());
+        }
+        System.out.println();
+    }
+
+    private static void bank(FrameCore core, Script script, Map<String, BufferedImage> sprites) {
+        drawBank(core, sprites);
+        Map<String, List<Point>> scan = SpriteSearch.scanBank(script);
+        System.out.println("Bank: two of each sprite, one under a stack count, expecting search = template");
+        System.out.printf("  %-20s %8s %8s %10s%n", "sprite", "scan", "search", "template");
+        for (String name : sprites.keySet()) {
+            List<Point> candidates = scan.get(name);
+            int template = core.getImageAnalyzer().findLocations(FrameCore.BANK, searchable(name)).size();
+            System.out.printf("  %-20s %8d %8d %10d%n", name, candidates != null ? candidates.size() : 0,
+                SpriteSearch.countInBank(script, name, scan), template);
+        }
+
+        Map<String, BufferedImage> shifted = new LinkedHashMap<>();
+        Map<String, BufferedImage> blacked = new LinkedHashMap<>();
+        for (Map.Entry<String, BufferedImage> entry : sprites.entrySet()) {
+            shifted.put(entry.getKey(), shifted(entry.getValue(), 11));
+            blacked.put(entry.getKey(), blackedOut(entry.getValue()));
+        }
+        System.out.println("  near misses found, expecting 0: shifted by 11 " + countBank(core, script, shifted)
+            + ", every other pixel black " + countBank(core, script, blacked));
+        System.out.println();
+    }
+
+    private static int countBank(FrameCore core, Script script, Map<String, BufferedImage> sprites) {
+        drawBank(core, sprites);
+        Map<String, List<Point>> scan = SpriteSearch.scanBank(script);
+        int found = 0;
+        for (String name : sprites.keySet()) {
+            found += SpriteSearch.countInBank(script, name, scan);
+        }
+        return found;
+    }
+
+    // === Timings ===
+
+    private static void inventoryTimings(FrameCore core, Script script, Map<String, BufferedImage> sprites) {
+        String name = "ring_of_dueling";
+        SearchableImage sprite = searchable(name);
+        Rectangle screen = new Rectangle(0, 0, FrameCore.WIDTH, FrameCore.HEIGHT);
+
+        // Drawn when each benchmark starts, since the bank benchmarks draw over it
+        Runnable scene = () -> {
+            core.clear();
+            int slot = 0;
+            for (BufferedImage image : sprites.values()) {
+                drawInSlot(core, image, slot++);
+            }
+            for (int extra = 0; extra < 3; extra++) {
+                drawInSlot(core, sprites.get(name), slot++);
+            }
+        };
+
+        add("inventory.template.screen", scene, ops -> {
+            long found = 0;
+            for (long i = 0; i < ops; i++) {
+                found += core.getImageAnalyzer().findLocations(screen, sprite).size();
+            }
+            return found;
+        });
+        add("inventory.template.bounds", scene, ops -> {
+            long found = 0;
+            for (long i = 0; i < ops; i++) {
+                found += core.getImageAnalyzer().findLocations(FrameCore.INVENTORY, sprite).size();
+            }
+            return found;
+        });
+        add("inventory.slotGrid", scene, ops -> {
+            long found = 0;
+            for (long i = 0; i < ops; i++) {
+                SlotGridIdentifier.invalidate();
+                found += SlotGridIdentifier.count(script, name, FrameCore.INVENTORY);
+            }
+            return found;
+        });
+        add("inventory.spriteSearch.count", scene, ops -> {
+            long found = 0;
+            for (long i = 0; i < ops; i++) {
+                found += SpriteSearch.countInInventory(script, name);
+            }
+            return found;
+        });
+    }
+
+    private static void bankTimings(FrameCore core, Script script, Map<String, BufferedImage> sprites) {
+        SearchableImage[] templates = sprites.keySet().stream()
+            .map(SpriteBench::searchable)
+            .toArray(SearchableImage[]::new);
+        Runnable scene = () -> drawBank(core, sprites);
+
+        add("bank.template.perSprite", scene, ops -> {
+            long found = 0;
+            for (long i = 0; i < ops; i++) {
+                for (SearchableImage template : templates) {
+                    found += core.getImageAnalyzer().findLocations(FrameCore.BANK, template).size();
+                }
+            }
+            return found;
+        });
+        add("bank.spriteIndex", scene, ops -> {
+            long found = 0;
+            for (long i = 0; i < ops; i++) {
+                Map<String, List<Point>> indexed = SpriteIndex.getBundled().find(script, FrameCore.BANK);
+                found += indexed != null ? indexed.size() : 0;
+            }
+            return found;
+        });
+        add("bank.spriteSearch.count", scene, ops -> {
+            long found = 0;
+            for (long i = 0; i < ops; i++) {
+                Map<String, List<Point>> scan = SpriteSearch.scanBank(script);
+                for (String name : sprites.keySet()) {
+                    found += SpriteSearch.countInBank(script, name, scan);
+                }
+            }
+            return found;
+        });
+    }
+
+    /**
+     * Registers a benchmark that draws its scene once, on its first call.
+     */
+    private static void add(String name, Runnable scene, Bench.Body body) {
+        boolean[] drawn = { false };
+        BENCHMARKS.put(name, ops -> {
+            if (!drawn[0]) {
+                scene.run();
+                drawn[0] = true;
+            }
+            return body.run(ops);
+        });
+    }
+
+    // === Frame drawing ===
+
+    /**
+     * Draws a sprite centred in an inventory slot's item box.
+     */
+    private static void drawInSlot(FrameCore core, BufferedImage sprite, int slot) {
+        Rectangle box = SlotGridIdentifier.getSlotBounds(FrameCore.INVENTORY, slot);
+        core.draw(sprite,
+            box.getX() + (box.getWidth() - sprite.getWidth()) / 2,
+            box.getY() + (box.getHeight() - sprite.getHeight()) / 2);
+    }
+
+    private static void drawBank(FrameCore core, Map<String, BufferedImage> sprites) {
+        core.clear();
+        int index = 0;
+        for (BufferedImage sprite : sprites.values()) {
+            for (int copy = 0; copy < 2; copy++) {
+                int x = FrameCore.BANK.getX() + 8 + (index % BANK_COLUMNS) * BANK_PITCH_X;
+                int y = FrameCore.BANK.getY() + 8 + (index / BANK_COLUMNS) * BANK_PITCH_Y;
+                core.draw(sprite, x + 4, y + 4);
+                if (copy == 1) {
+                    core.drawCount(x, y);
+                }
+                index++;
+            }
+        }
+    }
+
+    private static BufferedImage shifted(BufferedImage sprite, int shift) {
+        BufferedImage copy = new BufferedImage(sprite.getWidth(), sprite.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < sprite.getHeight(); y++) {
+            for (int x = 0; x < sprite.getWidth(); x++) {
+                int argb = sprite.getRGB(x, y);
+                int r = shiftChannel(argb >> 16 & 0xFF, shift);
+                int g = shiftChannel(argb >> 8 & 0xFF, shift);
+                int b = shiftChannel(argb & 0xFF, shift);
+                copy.setRGB(x, y, argb & 0xFF000000 | r << 16 | g << 8 | b);
+            }
+        }
+        return copy;
+    }
+
+    private static BufferedImage blackedOut(BufferedImage sprite) {
+        BufferedImage copy = new BufferedImage(sprite.getWidth(), sprite.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < sprite.getHeight(); y++) {
+            for (int x = 0; x < sprite.getWidth(); x++) {
+                int argb = sprite.getRGB(x, y);
+                copy.setRGB(x, y, (x + y) % 2 == 0 ? argb & 0xFF000000 : argb);
+            }
+        }
+        return copy;
+    }
+
+    private static int shiftChannel(int value, int shift) {
+        // Shift down where up would clip, so every channel moves by the full amount
+        return value + shift <= 0xFF ? value + shift : value - shift;
+    }
+
+    private static SearchableImage searchable(String name) {
+        return SearchableImageCache.forSprite(name, ToleranceComparator.ZERO_TOLERANCE, ColorModel.RGB);
+    }
+}
@@ -0,0 +1,169 @@
+package com.druscripts.bench;
+
+import com.druscripts.utils.concurrent.ScriptExecutor;
+import com.druscripts.utils.stats.StatKey;
+import com.druscripts.utils.stats.StatsClient;
+import com.druscripts.utils.version.VersionChecker;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives StatsClient against StubApiServer at fixed event rates and prints what it
+ * costs the calling thread and how much reaches the server.
+ *
+ * Usage: StatsLoadTest [--rate events/s]... [--seconds s] [--latency ms[:jitter]]
+ *        [--errors rate] [--timeouts rate] [--outbox]
+ *
+ * Each rate gets a fresh client on a ScriptExecutor sized like FreeScript's. The
+ * caller thread paces sendStat() calls, a quarter of them to a declared counter, and
+ * flushes once a second like a lap end. Enqueue latency is the client's own
+ * histogram; delivered/s counts events the server accepted, where each counter sends
+ * one summed event per flush rather than one per call; heap growth is the used
+ * heap after a GC at the end of the run minus the same at the start, with the
+ * client still alive.
+ */
+public class StatsLoadTest {
+
+    private static final int EXECUTOR_THREADS = 2;
+    private static final int EXECUTOR_QUEUE = 64;
+    private static final long FLUSH_EVERY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long DRAIN_WAIT_MS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        List<Long> rates = new ArrayList<>();
+        double seconds = 10;
+        long latencyMs = 0;
+        long jitterMs = 0;
+        double errorRate = 0;
+        double timeoutRate = 0;
+        boolean outbox = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rate":
+                    rates.add(Long.parseLong(args[++i]));
+                    break;
+                case "--seconds":
+                    seconds = Double.parseDouble(args[++i]);
+                    break;
+                case "--latency":
+                    String[] parts = args[++i].split(":");
+                    latencyMs = Long.parseLong(parts[0]);
+                    jitterMs = parts.length > 1 ? Long.parseLong(parts[1]) : 0;
+                    break;
+                case "--errors":
+                    errorRate = Double.parseDouble(args[++i]);
+                    break;
+                case "--timeouts":
+                    timeoutRate = Double.parseDouble(args[++i]);
+                    break;
+                case "--outbox":
+                    outbox = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        if (rates.isEmpty()) {
+            rates.add(20L);
+            rates.add(2_000L);
+            rates.add(200_000L);
+        }
+
+        try (StubApiServer server = new StubApiServer(16)) {
+            // Set before StatsClient and VersionChecker read their base URLs
+            System.setProperty("druscripts.api.base", server.getApiBase());
+            System.setProperty("user.home", Files.createTempDirectory("druscripts-load").toString());
+            server.setLatency(latencyMs, jitterMs);
+            server.setErrorRate(errorRate);
+            server.setTimeouts(timeoutRate, 6000);
+
+            System.out.printf("latency %d:%dms, errors %.0f%%, timeouts %.0f%%, %s%n", latencyMs, jitterMs,
+                errorRate * 100, timeoutRate * 100, outbox ? "outbox" : "memory queue");
+            System.out.println("version check: " + checkVersion() + " ms");
+            System.out.printf("%10s %10s %8s %8s %8s %10s %12s %9s %8s %8s %6s %6s %10s%n",
+                "rate/s", "calls", "p50 us", "p99 us", "max us", "delivered", "delivered/s",
+                "dropped", "retried", "requests", "503s", "hung", "heap KB");
+            for (long rate : rates) {
+                server.reset();
+                run(server, rate, (long) (seconds * 1e9), outbox);
+            }
+        }
+        // HttpClient threads are not daemons
+        System.exit(0);
+    }
+
+    /**
+     * @return time until the version check completed, in milliseconds
+     */
+    private static long checkVersion() throws InterruptedException {
+        ScriptExecutor executor = new ScriptExecutor("load-version", EXECUTOR_THREADS, EXECUTOR_QUEUE);
+        VersionChecker checker = new VersionChecker("loadtest", "0.9", null, executor);
+        long start = System.nanoTime();
+        checker.checkVersionAsync();
+        while (!checker.isCheckComplete()) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        executor.shutdown(1000);
+        return elapsed;
+    }
+
+    private static void run(StubApiServer server, long rate, long durationNanos, boolean outbox) throws IOException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ScriptExecutor executor = new ScriptExecutor("load-" + rate, EXECUTOR_THREADS, EXECUTOR_QUEUE);
+        StatsClient client = new StatsClient("loadtest", "1.0", null, executor);
+        if (outbox && !client.openOutbox()) {
+            System.out.println("outbox unavailable, using the memory queue");
+        }
+        StatKey event = StatKey.of("load_event");
+        StatKey counter = StatKey.of("load_counter");
+        client.declareCounter(counter);
+
+        long heapBefore = usedHeap(memory);
+        long start = System.nanoTime();
+        long nextFlush = start + FLUSH_EVERY_NANOS;
+        long calls = 0;
+        while (true) {
+            long now = System.nanoTime();
+            long elapsed = now - start;
+            if (elapsed >= durationNanos) break;
+            long due = (long) (rate * (elapsed / 1e9));
+            if (calls >= due) {
+                LockSupport.parkNanos(Math.min(1_000_000, (long) (1e9 / rate)));
+                continue;
+            }
+            for (; calls < due; calls++) {
+                client.sendStat((calls & 3) == 0 ? counter : event, calls);
+            }
+            if (now >= nextFlush) {
+                client.flush();
+                nextFlush += FLUSH_EVERY_NANOS;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        client.flush();
+        long heapGrowth = usedHeap(memory) - heapBefore;
+
+        // Let the last flush finish so delivered counts what the client would send
+        executor.shutdown(DRAIN_WAIT_MS);
+        client.close();
+
+        System.out.printf("%10d %10d %8d %8d %8d %10d %12.1f %9d %8d %8d %6d %6d %10d%n",
+            rate, calls, client.getEnqueueMicros(50), client.getEnqueueMicros(99), client.getEnqueueMicros(100),
+            server.getEvents(), server.getEvents() * 1e9 / elapsedNanos, client.getDropped(), client.getRetried(),
+            server.getRequests(), server.getErrors(), server.getTimeouts(), heapGrowth / 1024);
+    }
+
+    private static long usedHeap(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,212 @@
+package com.druscripts.bench;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the druscripts.com API on 127.0.0.1.
+ *
+ * Serves POST /api/stats/event, POST /api/stats/events, GET /api/scripts/{slug}/version
+ * and GET /api/scripts/versions. Every request first waits latencyMs plus up to
+ * jitterMs, then fails with a 503 with errorRate probability, or with timeoutRate
+ * probability holds the connection for hangMs without answering, so the client's
+ * request timeout fires.
+ */
+public final class StubApiServer implements AutoCloseable {
+
+    private static final byte[] EVENT_MARKER = "\"stat\"".getBytes(StandardCharsets.US_ASCII);
+
+    private final HttpServer server;
+    private final ExecutorService threads;
+
+    private volatile long latencyMs;
+    private volatile long jitterMs;
+    private volatile double errorRate;
+    private volatile double timeoutRate;
+    private volatile long hangMs = 6000;
+    private volatile String version = "1.0";
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    /**
+     * Starts the server on a free port.
+     *
+     * @param threads Requests handled at once; hung requests hold one each
+     */
+    public StubApiServer(int threads) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.threads = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "stub-api");
+            t.setDaemon(true);
+            return t;
+        });
+        server.createContext("/api/stats/", this::handleStats);
+        server.createContext("/api/scripts/", this::handleScripts);
+        server.setExecutor(this.threads);
+        server.start();
+    }
+
+    /**
+     * @return base URL for -Ddruscripts.api.base, without a trailing slash
+     */
+    public String getApiBase() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/api";
+    }
+
+    public void setLatency(long latencyMs, long jitterMs) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * @param timeoutRate Share of requests held without a response
+     * @param hangMs      How long a held request waits before the connection is closed
+     */
+    public void setTimeouts(double timeoutRate, long hangMs) {
+        this.timeoutRate = timeoutRate;
+        this.hangMs = hangMs;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return stat events in requests that got a 200
+     */
+    public long getEvents() {
+        return events.get();
+    }
+
+    public long getErrors() {
+        return errors.get();
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    /**
+     * Zero the counters between runs.
+     */
+    public void reset() {
+        requests.set(0);
+        events.set(0);
+        errors.set(0);
+        timeouts.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        threads.shutdownNow();
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "");
+                return;
+            }
+            if (!injectFaults(exchange)) return;
+            events.addAndGet(countEvents(body));
+            respond(exchange, 200, "{\"ok\":true}");
+        }
+    }
+
+    private void handleScripts(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            if (!injectFaults(exchange)) return;
+            String path = exchange.getRequestURI().getPath();
+            String query = exchange.getRequestURI().getQuery();
+            if (path.equals("/api/scripts/versions") && query != null && query.startsWith("slugs=")) {
+                StringBuilder json = new StringBuilder("{");
+                for (String slug : query.substring("slugs=".length()).split(",")) {
+                    if (json.length() > 1) json.append(',');
+                    json.append('"').append(slug).append("\":\"").append(version).append('"');
+                }
+                respond(exchange, 200, json.append('}').toString());
+            } else if (path.endsWith("/version")) {
+                respond(exchange, 200, "{\"version\":\"" + version + "\"}");
+            } else {
+                respond(exchange, 404, "");
+            }
+        }
+    }
+
+    /**
+     * Sleep for the configured latency, then maybe fail the request.
+     *
+     * @return false if the request was failed and must not be answered
+     */
+    private boolean injectFaults(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+        try {
+            if (delay > 0) {
+                TimeUnit.MILLISECONDS.sleep(delay);
+            }
+            if (random.nextDouble() < timeoutRate) {
+                timeouts.incrementAndGet();
+                TimeUnit.MILLISECONDS.sleep(hangMs);
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (random.nextDouble() < errorRate) {
+            errors.incrementAndGet();
+            respond(exchange, 503, "{\"error\":\"unavailable\"}");
+            return false;
+        }
+        return true;
+    }
+
+    private static int countEvents(byte[] body) {
+        int count = 0;
+        outer:
+        for (int i = 0; i <= body.length - EVENT_MARKER.length; i++) {
+            for (int j = 0; j < EVENT_MARKER.length; j++) {
+                if (body[i + j] != EVENT_MARKER[j]) continue outer;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.druscripts.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Simulated time and item count of every recordLap() call in a run.
+ *
+ * The first call only marks where the first full lap starts, the same way LapStats
+ * treats it, so rates cover whole laps only.
+ */
+public class LapLog {
+
+    private final SimClock clock;
+    private final List<long[]> laps = new ArrayList<>();
+
+    public LapLog(SimClock clock) {
+        this.clock = clock;
+    }
+
+    public void add(int items) {
+        laps.add(new long[] { clock.now(), items });
+    }
+
+    /**
+     * @return completed laps, not counting the first boundary
+     */
+    public int getLaps() {
+        return Math.max(0, laps.size() - 1);
+    }
+
+    /**
+     * @return items per simulated hour over the completed laps, or 0 if there are none
+     */
+    public double getItemsPerHour() {
+        if (laps.size() < 2) return 0;
+        long items = 0;
+        for (int i = 1; i < laps.size(); i++) {
+            items += laps.get(i)[1];
+        }
+        long elapsed = laps.get(laps.size() - 1)[0] - laps.get(0)[0];
+        return elapsed <= 0 ? 0 : items * 3_600_000.0 / elapsed;
+    }
+
+    /**
+     * @return mean simulated ms per completed lap, or 0 if there are none
+     */
+    public double getMeanLapMs() {
+        if (laps.size() < 2) return 0;
+        return (double) (laps.get(laps.size() - 1)[0] - laps.get(0)[0]) / (laps.size() - 1);
+    }
+}
@@ -0,0 +1,92 @@
+package com.druscripts.sim;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * How long each simulated client action takes: a mean and a uniform jitter, in ms.
+ * Samples come from the run's seeded Random, so a seed always replays the same run.
+ */
+public class Latencies {
+
+    public enum Action {
+        /** One client frame; pollFrames checks its condition once per frame */
+        FRAME(30, 0),
+        /** Reaction delay pollFramesHuman() adds once its condition holds */
+        HUMAN(300, 150),
+        TAP(120, 40),
+        TAB_SWITCH(250, 80),
+        BANK_OPEN(900, 300),
+        BANK_DEPOSIT(600, 150),
+        BANK_WITHDRAW(600, 150),
+        BANK_CLOSE(300, 100),
+        DIALOGUE_OPEN(900, 300),
+        DIALOGUE_SELECT(300, 100),
+        /** One item of a make-all, e.g. pastry dough */
+        CRAFT_ITEM(1200, 0),
+        /** Aggie making a whole inventory of dye */
+        DYE_BATCH(1800, 300),
+        /** From tapping an item with an enchant spell selected to the item changing */
+        CAST(1200, 200),
+        /** Between items the game enchants on its own after the first cast */
+        ENCHANT_ITEM(1800, 0),
+        /** Walking one tile */
+        TILE(600, 0);
+
+        final long mean;
+        final long jitter;
+
+        Action(long mean, long jitter) {
+            this.mean = mean;
+            this.jitter = jitter;
+        }
+    }
+
+    private final Map<Action, long[]> values = new EnumMap<>(Action.class);
+    private final Random random;
+
+    public Latencies(Random random) {
+        this.random = random;
+        for (Action action : Action.values()) {
+            values.put(action, new long[] { action.mean, action.jitter });
+        }
+    }
+
+    public void set(Action action, long mean, long jitter) {
+        values.put(action, new long[] { mean, jitter });
+    }
+
+    /**
+     * Applies an override such as "bank_withdraw=800" or "cast=1200:300".
+     *
+     * @throws IllegalArgumentException if the action or numbers cannot be parsed
+     */
+    public void parse(String override) {
+        int eq = override.indexOf('=');
+        if (eq < 0) {
+            throw new IllegalArgumentException("Expected action=mean[:jitter], got " + override);
+        }
+        Action action = Action.valueOf(override.substring(0, eq).trim().toUpperCase(Locale.ROOT));
+        String[] parts = override.substring(eq + 1).split(":");
+        long mean = Long.parseLong(parts[0].trim());
+        long jitter = parts.length > 1 ? Long.parseLong(parts[1].trim()) : 0;
+        set(action, mean, jitter);
+    }
+
+    /**
+     * @return a duration in ms, never negative
+     */
+    public long sample(Action action) {
+        long[] v = values.get(action);
+        if (v[1] == 0) {
+            return v[0];
+        }
+        return Math.max(0, v[0] - v[1] + (long) (random.nextDouble() * (2 * v[1] + 1)));
+    }
+
+    public long mean(Action action) {
+        return values.get(action)[0];
+    }
+}
@@ -0,0 +1,311 @@
+package com.druscripts.sim;
+
+import com.druscripts.dyemaker.DyeMaker;
+import com.druscripts.dyemaker.data.DyeType;
+import com.druscripts.dyemaker.tasks.SetupTask;
+import com.druscripts.enchanter.Enchanter;
+import com.druscripts.enchanter.data.EnchantLevel;
+import com.druscripts.enchanter.data.EnchantableItem;
+import com.druscripts.piemaker.PieMaker;
+import com.druscripts.piemaker.data.Constants;
+import com.druscripts.piemaker.data.PieType;
+import com.druscripts.piemaker.data.Stage;
+import com.druscripts.sim.Latencies.Action;
+import com.druscripts.utils.script.FreeScript;
+import com.osmb.api.input.MenuEntry;
+import com.osmb.api.location.position.types.WorldPosition;
+import com.osmb.api.script.ScriptDefinition;
+import com.osmb.api.script.SkillCategory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The runs Throughput knows. Each sets up a world with plenty of materials in the bank
+ * and starts a script already configured, skipping its setup dialog.
+ */
+public final class Scenarios {
+
+    private static final int COINS = 995;
+    private static final int STOCK = 1_000_000;
+    private static final int EMPTY_JUG = 1935;
+
+    private static final WorldPosition GE_START = new WorldPosition(3164, 3487, 0);
+    private static final WorldPosition GE_BOOTH = new WorldPosition(3165, 3489, 0);
+
+    private Scenarios() {}
+
+    public interface Scenario {
+        String getName();
+
+        SimWorld createWorld(Latencies latencies);
+
+        FreeScript createScript(SimCore core, LapLog laps);
+    }
+
+    /**
+     * @return every scenario, in the order Throughput runs them for "all"
+     */
+    public static List<Scenario> all() {
+        return List.of(
+            new DyeScenario(),
+            new PieScenario(Stage.MAKE_DOUGH),
+            new PieScenario(Stage.MAKE_SHELL),
+            new PieScenario(Stage.MAKE_UNCOOKED),
+            new EnchantScenario(false),
+            new EnchantScenario(true)
+        );
+    }
+
+    /**
+     * @throws IllegalArgumentException if no scenario has that name
+     */
+    public static Scenario byName(String name) {
+        for (Scenario scenario : all()) {
+            if (scenario.getName().equalsIgnoreCase(name)) return scenario;
+        }
+        throw new IllegalArgumentException("Unknown scenario: " + name);
+    }
+
+    private static void addBankBooth(SimWorld world, String name, WorldPosition booth) {
+        world.addObject(new SimObject(world, name, booth,
+            () -> new String[] { "Bank", "Collect" },
+            action -> {
+                if ("Bank".equals(action)) world.openBankFrom(booth);
+            }));
+    }
+
+    // === DyeMaker ===
+
+    private static final class DyeScenario implements Scenario {
+
+        private static final WorldPosition BANK_START = new WorldPosition(3092, 3243, 0);
+        private static final WorldPosition BANK_BOOTH = new WorldPosition(3091, 3243, 0);
+        private static final WorldPosition AGGIE = new WorldPosition(3086, 3259, 0);
+        private static final WorldPosition SHOP_OUTSIDE = new WorldPosition(3089, 3258, 0);
+        private static final WorldPosition DOOR = new WorldPosition(3088, 3258, 0);
+
+        private boolean doorOpen = false;
+
+        @Override
+        public String getName() {
+            return "dyemaker";
+        }
+
+        @Override
+        public SimWorld createWorld(Latencies latencies) {
+            DyeType dye = DyeType.RED;
+            SimWorld world = new SimWorld(latencies, BANK_START);
+            world.setStackable(COINS);
+            world.putInBank(COINS, STOCK);
+            world.putInBank(dye.getIngredientId(), STOCK);
+            addBankBooth(world, "Bank booth", BANK_BOOTH);
+
+            world.addObject(new SimObject(world, "Door", DOOR,
+                () -> new String[] { doorOpen ? "Close" : "Open" },
+                action -> doorOpen = "Open".equals(action)));
+            world.setTileMenu(SHOP_OUTSIDE,
+                () -> List.of(new MenuEntry(doorOpen ? "Close" : "Open", (doorOpen ? "Close" : "Open") + " Door"),
+                    new MenuEntry("Walk here", "Walk here")),
+                entry -> {
+                    if ("Walk here".equals(entry.getAction())) {
+                        world.walkTo(SHOP_OUTSIDE);
+                    } else {
+                        doorOpen = "Open".equals(entry.getAction());
+                    }
+                });
+
+            world.addNpc(AGGIE);
+            world.setTileMenu(AGGIE,
+                () -> isSelected(world, dye.getIngredientId())
+                    ? List.of(new MenuEntry("Use", "Use " + dye.getIngredientName() + " -> Aggie"))
+                    : List.of(new MenuEntry("Talk-to", "Talk-to Aggie")),
+                entry -> {
+                    if (!"Use".equals(entry.getAction())) return;
+                    world.clearSelection();
+                    world.openItemDialogue(new int[] { dye.getDyeId() }, id ->
+                        world.schedule(world.sample(Action.DYE_BATCH), () -> world.makeBatches(
+                            dye.getIngredientId(), dye.getIngredientCount(), COINS, 5, dye.getDyeId())));
+                });
+            return world;
+        }
+
+        private static boolean isSelected(SimWorld world, int itemId) {
+            Integer slot = world.getSelectedSlot();
+            return slot != null && world.getSlotId(slot) == itemId;
+        }
+
+        @Override
+        public FreeScript createScript(SimCore core, LapLog laps) {
+            return new SimDyeMaker(core, laps);
+        }
+    }
+
+    @ScriptDefinition(name = "DyeMaker.druscripts.com", skillCategory = SkillCategory.OTHER, version = 1.3)
+    static class SimDyeMaker extends DyeMaker {
+        private final LapLog laps;
+
+        SimDyeMaker(SimCore core, LapLog laps) {
+            super(core);
+            this.laps = laps;
+        }
+
+        @Override
+        public void onStart() {
+            super.onStart();
+            tasks.removeIf(t -> t instanceof SetupTask);
+            selectedDyeType = DyeType.RED;
+        }
+
+        @Override
+        public void recordLap(int items) {
+            super.recordLap(items);
+            laps.add(items);
+        }
+    }
+
+    // === PieMaker ===
+
+    private static final class PieScenario implements Scenario {
+
+        private final Stage stage;
+
+        PieScenario(Stage stage) {
+            this.stage = stage;
+        }
+
+        @Override
+        public String getName() {
+            return "piemaker-" + stage.name().toLowerCase().replace('_', '-');
+        }
+
+        @Override
+        public SimWorld createWorld(Latencies latencies) {
+            SimWorld world = new SimWorld(latencies, GE_START);
+            addBankBooth(world, "Grand Exchange booth", GE_BOOTH);
+            world.addRecipe(Constants.JUG_OF_WATER, Constants.FLOUR, Constants.PASTRY_DOUGH, EMPTY_JUG);
+            world.addRecipe(Constants.PASTRY_DOUGH, Constants.PIE_DISH, Constants.PIE_SHELL, -1);
+            world.addRecipe(Constants.PIE_SHELL, PieType.REDBERRY.getIngredientId(), PieType.REDBERRY.getUncookedId(), -1);
+
+            switch (stage) {
+                case MAKE_DOUGH:
+                    world.putInBank(Constants.FLOUR, STOCK);
+                    world.putInBank(Constants.JUG_OF_WATER, STOCK);
+                    break;
+                case MAKE_SHELL:
+                    world.putInBank(Constants.PASTRY_DOUGH, STOCK);
+                    world.putInBank(Constants.PIE_DISH, STOCK);
+                    break;
+                default:
+                    world.putInBank(Constants.PIE_SHELL, STOCK);
+                    world.putInBank(PieType.REDBERRY.getIngredientId(), STOCK);
+                    break;
+            }
+            return world;
+        }
+
+        @Override
+        public FreeScript createScript(SimCore core, LapLog laps) {
+            return new SimPieMaker(core, laps, stage);
+        }
+    }
+
+    @ScriptDefinition(name = "PieMaker.druscripts.com", skillCategory = SkillCategory.COOKING, version = 1.1)
+    static class SimPieMaker extends PieMaker {
+        private final LapLog laps;
+        private final Stage startStage;
+
+        SimPieMaker(SimCore core, LapLog laps, Stage startStage) {
+            super(core);
+            this.laps = laps;
+            this.startStage = startStage;
+        }
+
+        @Override
+        public void onStart() {
+            super.onStart();
+            detectedRegion = Constants.GRAND_EXCHANGE_REGION;
+            allInOne = false;
+            stage = startStage;
+            waterSourceId = Constants.JUG_OF_WATER;
+            pieType = PieType.REDBERRY;
+            initializeProductionTasks();
+        }
+
+        @Override
+        public void recordLap(int items) {
+            super.recordLap(items);
+            laps.add(items);
+        }
+    }
+
+    // === Enchanter ===
+
+    private static final class EnchantScenario implements Scenario {
+
+        private final boolean hyper;
+
+        EnchantScenario(boolean hyper) {
+            this.hyper = hyper;
+        }
+
+        @Override
+        public String getName() {
+            return hyper ? "enchanter-hyper" : "enchanter";
+        }
+
+        @Override
+        public SimWorld createWorld(Latencies latencies) {
+            EnchantableItem item = EnchantableItem.SAPPHIRE_RING_ITEM;
+            EnchantLevel level = EnchantLevel.LEVEL_1;
+            SimWorld world = new SimWorld(latencies, GE_START);
+            addBankBooth(world, "Grand Exchange booth", GE_BOOTH);
+            world.putInBank(item.getUnenchantedId(), STOCK);
+
+            Map<Integer, Integer> runes = new LinkedHashMap<>();
+            for (EnchantLevel.RuneRequirement rune : level.getRunes()) {
+                world.setStackable(rune.getRuneId());
+                world.putInBank(rune.getRuneId(), STOCK);
+                runes.put(rune.getRuneId(), rune.getAmount());
+            }
+            world.setEnchantSpell(level.getSpriteId(), Map.of(item.getUnenchantedId(), item.getEnchantedId()), runes);
+            return world;
+        }
+
+        @Override
+        public FreeScript createScript(SimCore core, LapLog laps) {
+            return new SimEnchanter(core, laps, hyper);
+        }
+    }
+
+    @ScriptDefinition(name = "Enchanter.druscripts.com", skillCategory = SkillCategory.MAGIC, version = 1.1)
+    static class SimEnchanter extends Enchanter {
+        private final LapLog laps;
+        private final boolean hyper;
+
+        SimEnchanter(SimCore core, LapLog laps, boolean hyper) {
+            super(core);
+            this.laps = laps;
+            this.hyper = hyper;
+        }
+
+        @Override
+        public void onStart() {
+            super.onStart();
+            enchantLevel = EnchantLevel.LEVEL_1;
+            enchantableItem = EnchantableItem.SAPPHIRE_RING_ITEM;
+            hyperEfficientMode = hyper;
+            initStatKeys();
+            runeSlots = enchantLevel.getRunes().length;
+            maxBatchSize = 28 - runeSlots;
+            initializeTasks();
+        }
+
+        @Override
+        public void recordLap(int items) {
+            super.recordLap(items);
+            laps.add(items);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.druscripts.sim;
+
+import com.druscripts.sim.Latencies.Action;
+import com.osmb.api.item.ItemGroupResult;
+import com.osmb.api.item.ItemSearchResult;
+import com.osmb.api.shape.Rectangle;
+import com.osmb.api.ui.bank.Bank;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The bank interface. Everything but isVisible() fails while it is closed.
+ */
+public class SimBank implements Bank {
+
+    private static final Rectangle BOUNDS = new Rectangle(20, 40, 480, 300);
+
+    private final SimWorld world;
+    private int searches = 0;
+
+    SimBank(SimWorld world) {
+        this.world = world;
+    }
+
+    /**
+     * @return how many times search() was called
+     */
+    public int getSearches() {
+        return searches;
+    }
+
+    @Override
+    public boolean isVisible() {
+        return world.isBankVisible();
+    }
+
+    @Override
+    public boolean close() {
+        if (!world.isBankVisible()) return false;
+        world.spend(Action.BANK_CLOSE);
+        world.setBankVisible(false);
+        return true;
+    }
+
+    @Override
+    public boolean depositAll(Set<Integer> keep) {
+        if (!world.isBankVisible()) return false;
+        world.spend(Action.BANK_DEPOSIT);
+        world.depositAllExcept(keep);
+        return true;
+    }
+
+    @Override
+    public boolean withdraw(int itemId, int amount) {
+        if (!world.isBankVisible()) return false;
+        world.spend(Action.BANK_WITHDRAW);
+        return world.withdraw(itemId, amount) > 0;
+    }
+
+    @Override
+    public Rectangle getBounds() {
+        return BOUNDS;
+    }
+
+    @Override
+    public ItemGroupResult search(Set<Integer> itemIds) {
+        searches++;
+        if (!world.isBankVisible()) return null;
+        List<ItemSearchResult> items = new ArrayList<>();
+        int slot = 0;
+        for (Map.Entry<Integer, Integer> entry : world.getBankContents().entrySet()) {
+            if (itemIds.contains(entry.getKey())) {
+                items.add(new ItemSearchResult(entry.getKey(), slot, entry.getValue(),
+                    new Rectangle(BOUNDS.getX() + 48 * (slot % 8), BOUNDS.getY() + 36 * (slot / 8), 36, 32)));
+            }
+            slot++;
+        }
+        int size = world.getBankContents().size();
+        return new ItemGroupResult(size, 0, null, items);
+    }
+}
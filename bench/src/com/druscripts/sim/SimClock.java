@@ -0,0 +1,19 @@
+package com.druscripts.sim;
+
+/**
+ * Simulated time in ms since the start of a run. Only the simulator advances it.
+ */
+public class SimClock {
+
+    private long now = 0;
+
+    public long now() {
+        return now;
+    }
+
+    public void advance(long ms) {
+        if (ms > 0) {
+            now += ms;
+        }
+    }
+}
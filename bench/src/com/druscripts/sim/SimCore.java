@@ -0,0 +1,220 @@
+package com.druscripts.sim;
+
+import com.druscripts.sim.Latencies.Action;
+import com.osmb.api.ScriptCore;
+import com.osmb.api.input.Finger;
+import com.osmb.api.input.MenuEntry;
+import com.osmb.api.input.MenuHook;
+import com.osmb.api.location.position.types.WorldPosition;
+import com.osmb.api.scene.ObjectManager;
+import com.osmb.api.scene.SceneManager;
+import com.osmb.api.screen.Screen;
+import com.osmb.api.shape.Shape;
+import com.osmb.api.trackers.experience.XPTracker;
+import com.osmb.api.ui.WidgetManager;
+import com.osmb.api.ui.component.tabs.skill.SkillType;
+import com.osmb.api.utils.StageController;
+import com.osmb.api.utils.Utils;
+import com.osmb.api.visual.ImageAnalyzer;
+import com.osmb.api.visual.image.ImageSearchResult;
+import com.osmb.api.visual.image.SearchableImage;
+import com.osmb.api.walker.Walker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The client a script under test talks to. Frames are Action.FRAME of simulated time;
+ * pollFrames* advance the world one frame at a time until the condition holds or the
+ * timeout passes.
+ *
+ * The walker only starts the walk and returns, like the real one with a break distance,
+ * so scripts must poll for arrival. The screen has no image, so pixel scans such as
+ * SpriteIndex find nothing; scenarios use items that have IDs.
+ */
+public class SimCore implements ScriptCore {
+
+    private final SimWorld world;
+    private final Random random;
+    private final boolean verbose;
+    private final SimWidgets widgets;
+    private final SimScene scene;
+    private final Utils utils = new Utils(this);
+    private final Taps.Rect spellTarget;
+
+    private boolean stopped = false;
+    private int logLines = 0;
+
+    public SimCore(SimWorld world, Random random, boolean verbose) {
+        this.world = world;
+        this.random = random;
+        this.verbose = verbose;
+        this.widgets = new SimWidgets(world);
+        this.scene = new SimScene(world);
+        this.spellTarget = Taps.rectangle(world, 600, 300, 24, 24,
+            () -> List.of(new MenuEntry("Cast", "Cast Enchant")), e -> world.selectSpell());
+    }
+
+    public SimWorld getWorld() {
+        return world;
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * @return Inventory and Bank search() calls so far
+     */
+    public int getSearches() {
+        return widgets.getSearches();
+    }
+
+    public int getLogLines() {
+        return logLines;
+    }
+
+    @Override
+    public Screen getScreen() {
+        return () -> null;
+    }
+
+    @Override
+    public ImageAnalyzer getImageAnalyzer() {
+        return new ImageAnalyzer() {
+            @Override
+            public ImageSearchResult findLocation(SearchableImage... images) {
+                for (SearchableImage image : images) {
+                    if (isSpellShown(image)) return new ImageSearchResult(spellTarget);
+                }
+                return null;
+            }
+
+            @Override
+            public ImageSearchResult findLocation(Shape bounds, SearchableImage... images) {
+                return findLocation(images);
+            }
+
+            @Override
+            public List<ImageSearchResult> findLocations(SearchableImage... images) {
+                List<ImageSearchResult> found = new ArrayList<>();
+                ImageSearchResult result = findLocation(images);
+                if (result != null) found.add(result);
+                return found;
+            }
+
+            @Override
+            public List<ImageSearchResult> findLocations(Shape bounds, SearchableImage... images) {
+                return findLocations(images);
+            }
+        };
+    }
+
+    private boolean isSpellShown(SearchableImage image) {
+        return image.getSpriteId() == world.getSpellSpriteId()
+            && widgets.getSpellbook().isOpen()
+            && world.isEnchantSubmenuOpen();
+    }
+
+    @Override
+    public ObjectManager getObjectManager() {
+        return scene;
+    }
+
+    @Override
+    public SceneManager getSceneManager() {
+        return scene;
+    }
+
+    @Override
+    public Utils getUtils() {
+        return utils;
+    }
+
+    @Override
+    public Walker getWalker() {
+        return (position, config) -> {
+            world.spend(Action.TAP);
+            world.walkTo(new WorldPosition(position.getX(), position.getY(), position.getPlane()));
+            return true;
+        };
+    }
+
+    @Override
+    public WidgetManager getWidgetManager() {
+        return widgets;
+    }
+
+    @Override
+    public WorldPosition getWorldPosition() {
+        return world.getPosition();
+    }
+
+    @Override
+    public Finger getFinger() {
+        return new Finger() {
+            @Override
+            public boolean tap(Shape shape) {
+                return tap(shape, null);
+            }
+
+            @Override
+            public boolean tap(Shape shape, MenuHook menuHook) {
+                if (shape instanceof Taps.Target) {
+                    return ((Taps.Target) shape).tap(menuHook);
+                }
+                world.spend(Action.TAP);
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public StageController getStageController() {
+        return (scene, title, resizable) -> log("StageController", "show: " + title);
+    }
+
+    @Override
+    public Map<SkillType, XPTracker> getXPTrackers() {
+        return Map.of();
+    }
+
+    @Override
+    public void log(String tag, String message) {
+        logLines++;
+        if (verbose) {
+            System.out.printf("[%9.1fs] %s: %s%n", world.now() / 1000.0, tag, message);
+        }
+    }
+
+    @Override
+    public boolean pollFramesHuman(BooleanSupplier condition, int timeout, boolean ignoreTasks) {
+        if (!pollFramesUntil(condition, timeout, ignoreTasks)) return false;
+        world.spend(Action.HUMAN);
+        return true;
+    }
+
+    @Override
+    public boolean pollFramesUntil(BooleanSupplier condition, int timeout, boolean ignoreTasks) {
+        long deadline = world.now() + timeout;
+        while (!stopped) {
+            world.spend(Action.FRAME);
+            if (condition.getAsBoolean()) return true;
+            if (world.now() >= deadline) return false;
+        }
+        return false;
+    }
+
+    @Override
+    public int random(int low, int high) {
+        return high <= low ? low : low + random.nextInt(high - low);
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+    }
+}
@@ -0,0 +1,79 @@
+package com.druscripts.sim;
+
+import com.druscripts.sim.Latencies.Action;
+import com.osmb.api.item.ItemGroupResult;
+import com.osmb.api.item.ItemSearchResult;
+import com.osmb.api.shape.Rectangle;
+import com.osmb.api.ui.tabs.Inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The inventory tab. It counts as open while the bank is, since the bank shows it too.
+ * search() opens the tab first if needed, as the real one does.
+ */
+public class SimInventory implements Inventory {
+
+    private final SimWorld world;
+    private int searches = 0;
+
+    SimInventory(SimWorld world) {
+        this.world = world;
+    }
+
+    /**
+     * @return how many times search() was called
+     */
+    public int getSearches() {
+        return searches;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return world.isBankVisible() || world.getTab() == SimWorld.Tab.INVENTORY;
+    }
+
+    @Override
+    public boolean open() {
+        if (!isOpen()) {
+            world.spend(Action.TAB_SWITCH);
+            world.setTab(SimWorld.Tab.INVENTORY);
+        }
+        return true;
+    }
+
+    @Override
+    public int getGroupSize() {
+        return SimWorld.INVENTORY_SIZE;
+    }
+
+    @Override
+    public Rectangle getBounds() {
+        return new Rectangle(560, 210, 190, 260);
+    }
+
+    @Override
+    public ItemGroupResult search(Set<Integer> itemIds) {
+        searches++;
+        open();
+        List<ItemSearchResult> items = new ArrayList<>();
+        for (int slot = 0; slot < SimWorld.INVENTORY_SIZE; slot++) {
+            int id = world.getSlotId(slot);
+            if (id >= 0 && itemIds.contains(id)) {
+                items.add(new SimItem(world, slot));
+            }
+        }
+        return new ItemGroupResult(SimWorld.INVENTORY_SIZE, world.getFreeSlots(), world.getSelectedSlot(), items);
+    }
+
+    @Override
+    public boolean unSelectItemIfSelected() {
+        if (world.getSelectedSlot() != null) {
+            world.spend(Action.TAP);
+            world.clearSelection();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package com.druscripts.sim;
+
+import com.druscripts.sim.Latencies.Action;
+import com.osmb.api.input.MenuEntry;
+import com.osmb.api.input.MenuHook;
+import com.osmb.api.item.ItemSearchResult;
+
+import java.util.List;
+
+/**
+ * An inventory item from a SimInventory search. Interacting with it acts on the slot it
+ * was found in, and fails if that slot has changed since.
+ */
+public class SimItem extends ItemSearchResult {
+
+    private final SimWorld world;
+
+    SimItem(SimWorld world, int slot) {
+        super(world.getSlotId(slot), slot, world.getSlotAmount(slot), bounds(world, slot));
+        this.world = world;
+    }
+
+    private static Taps.Rect bounds(SimWorld world, int slot) {
+        int id = world.getSlotId(slot);
+        return Taps.rectangle(world, 563 + 42 * (slot % 4), 213 + 36 * (slot / 4), 36, 32,
+            () -> menu(id), e -> select(world, slot, id, e));
+    }
+
+    private static List<MenuEntry> menu(int id) {
+        return List.of(new MenuEntry("Use", "Use item " + id), new MenuEntry("Drop", "Drop item " + id),
+            new MenuEntry("Examine", "Examine item " + id));
+    }
+
+    private static void select(SimWorld world, int slot, int id, MenuEntry entry) {
+        if ("Use".equals(entry.getAction()) && world.getSlotId(slot) == id) {
+            world.select(slot);
+        }
+    }
+
+    @Override
+    public boolean interact() {
+        return world.useItem(getSlot(), getId());
+    }
+
+    @Override
+    public boolean interact(MenuHook menuHook) {
+        MenuEntry chosen = menuHook.find(menu(getId()));
+        if (chosen == null) {
+            world.spend(Action.TAP);
+            return false;
+        }
+        return world.useItem(getSlot(), getId());
+    }
+}
@@ -0,0 +1,99 @@
+package com.druscripts.sim;
+
+import com.druscripts.sim.Latencies.Action;
+import com.osmb.api.input.MenuEntry;
+import com.osmb.api.input.MenuHook;
+import com.osmb.api.location.position.types.WorldPosition;
+import com.osmb.api.scene.RSObject;
+import com.osmb.api.shape.Polygon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A scene object such as a bank booth or door.
+ */
+public class SimObject implements RSObject {
+
+    private final SimWorld world;
+    private final String name;
+    private final WorldPosition position;
+    private final Supplier<String[]> actions;
+    private final Consumer<String> onAction;
+
+    /**
+     * @param actions  Menu actions, read each time since e.g. a door's changes
+     * @param onAction Runs with the chosen action
+     */
+    public SimObject(SimWorld world, String name, WorldPosition position,
+                     Supplier<String[]> actions, Consumer<String> onAction) {
+        this.world = world;
+        this.name = name;
+        this.position = position;
+        this.actions = actions;
+        this.onAction = onAction;
+    }
+
+    public WorldPosition getPosition() {
+        return position;
+    }
+
+    @Override
+    public boolean canReach() {
+        return true;
+    }
+
+    @Override
+    public double distance(WorldPosition from) {
+        return SimWorld.distance(position, from);
+    }
+
+    @Override
+    public String[] getActions() {
+        return actions.get();
+    }
+
+    @Override
+    public Polygon getConvexHull() {
+        return hull();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean interact(MenuHook menuHook) {
+        return hull().tap(menuHook);
+    }
+
+    @Override
+    public boolean interact(String... wanted) {
+        world.spend(Action.TAP);
+        for (String action : actions.get()) {
+            for (String w : wanted) {
+                if (action.equalsIgnoreCase(w)) {
+                    world.interrupt();
+                    onAction.accept(action);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Taps.Poly hull() {
+        return Taps.polygon(world, this::menu, e -> onAction.accept(e.getAction()));
+    }
+
+    private List<MenuEntry> menu() {
+        List<MenuEntry> entries = new ArrayList<>();
+        for (String action : actions.get()) {
+            entries.add(new MenuEntry(action, action + " " + name));
+        }
+        return entries;
+    }
+}
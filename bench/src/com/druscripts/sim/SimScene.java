@@ -0,0 +1,62 @@
+package com.druscripts.sim;
+
+import com.druscripts.sim.Latencies.Action;
+import com.osmb.api.location.position.Position;
+import com.osmb.api.location.position.types.WorldPosition;
+import com.osmb.api.scene.ObjectManager;
+import com.osmb.api.scene.RSObject;
+import com.osmb.api.scene.RSTile;
+import com.osmb.api.scene.SceneManager;
+import com.osmb.api.shape.Polygon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Scene objects and tiles. A tile is on screen when it is near the player; tapping its
+ * cube shows the menu SimWorld.setTileMenu() gave it, or "Walk here".
+ */
+public class SimScene implements ObjectManager, SceneManager {
+
+    private final SimWorld world;
+
+    SimScene(SimWorld world) {
+        this.world = world;
+    }
+
+    @Override
+    public List<RSObject> getObjects(Predicate<RSObject> filter) {
+        List<RSObject> found = new ArrayList<>();
+        for (SimObject object : world.getObjects()) {
+            if (world.isOnScreen(object.getPosition()) && filter.test(object)) {
+                found.add(object);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public RSTile getTile(Position position) {
+        WorldPosition pos = new WorldPosition(position.getX(), position.getY(), position.getPlane());
+        return new RSTile() {
+            @Override
+            public Polygon getTileCube(int height) {
+                return world.tileTarget(pos);
+            }
+
+            @Override
+            public boolean interact(String action) {
+                world.spend(Action.TAP);
+                if (!"Walk here".equalsIgnoreCase(action) || !isOnGameScreen()) return false;
+                world.walkTo(pos);
+                return true;
+            }
+
+            @Override
+            public boolean isOnGameScreen() {
+                return world.isOnScreen(pos);
+            }
+        };
+    }
+}
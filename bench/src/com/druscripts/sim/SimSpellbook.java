@@ -0,0 +1,41 @@
+package com.druscripts.sim;
+
+import com.druscripts.sim.Latencies.Action;
+import com.osmb.api.ui.spellbook.Spell;
+import com.osmb.api.ui.spellbook.StandardSpellbook;
+import com.osmb.api.ui.tabs.Spellbook;
+
+/**
+ * The spellbook tab. Only the jewellery enchantments submenu is modelled; the enchant
+ * spell is tapped through the sprite SimCore's ImageAnalyzer finds.
+ */
+public class SimSpellbook implements Spellbook {
+
+    private final SimWorld world;
+
+    SimSpellbook(SimWorld world) {
+        this.world = world;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !world.isBankVisible() && world.getTab() == SimWorld.Tab.SPELLBOOK;
+    }
+
+    @Override
+    public boolean open() {
+        if (!isOpen()) {
+            world.spend(Action.TAB_SWITCH);
+            world.setTab(SimWorld.Tab.SPELLBOOK);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean selectSpell(Spell spell, ResultType resultType) {
+        if (!isOpen() || spell != StandardSpellbook.JEWELLERY_ENCHANTMENTS) return false;
+        world.spend(Action.TAP);
+        world.openEnchantSubmenu();
+        return true;
+    }
+}
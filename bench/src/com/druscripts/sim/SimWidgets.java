@@ -0,0 +1,80 @@
+package com.druscripts.sim;
+
+import com.druscripts.sim.Latencies.Action;
+import com.osmb.api.location.position.types.WorldPosition;
+import com.osmb.api.ui.WidgetManager;
+import com.osmb.api.ui.bank.Bank;
+import com.osmb.api.ui.chatbox.dialogue.Dialogue;
+import com.osmb.api.ui.chatbox.dialogue.DialogueType;
+import com.osmb.api.ui.minimap.Minimap;
+import com.osmb.api.ui.tabs.Inventory;
+import com.osmb.api.ui.tabs.Spellbook;
+import com.osmb.api.utils.UIResultList;
+
+/**
+ * Hands out one fake per widget, all backed by the same SimWorld.
+ */
+public class SimWidgets implements WidgetManager {
+
+    private final SimInventory inventory;
+    private final SimBank bank;
+    private final SimSpellbook spellbook;
+    private final Dialogue dialogue;
+    private final Minimap minimap;
+
+    SimWidgets(SimWorld world) {
+        this.inventory = new SimInventory(world);
+        this.bank = new SimBank(world);
+        this.spellbook = new SimSpellbook(world);
+        this.dialogue = new Dialogue() {
+            @Override
+            public DialogueType getDialogueType() {
+                return world.getDialogueType();
+            }
+
+            @Override
+            public boolean selectItem(int... itemIds) {
+                for (int id : itemIds) {
+                    if (world.getDialogueType() == DialogueType.ITEM_OPTION) {
+                        world.spend(Action.DIALOGUE_SELECT);
+                        if (world.selectDialogueItem(id)) return true;
+                    }
+                }
+                return false;
+            }
+        };
+        this.minimap = () -> new UIResultList<WorldPosition>(world.getNpcs());
+    }
+
+    @Override
+    public Bank getBank() {
+        return bank;
+    }
+
+    @Override
+    public Dialogue getDialogue() {
+        return dialogue;
+    }
+
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    @Override
+    public Minimap getMinimap() {
+        return minimap;
+    }
+
+    @Override
+    public Spellbook getSpellbook() {
+        return spellbook;
+    }
+
+    /**
+     * @return Inventory and Bank search() calls so far
+     */
+    public int getSearches() {
+        return inventory.getSearches() + bank.getSearches();
+    }
+}
@@ -0,0 +1,613 @@
+package com.druscripts.sim;
+
+import com.druscripts.sim.Latencies.Action;
+import com.osmb.api.input.MenuEntry;
+import com.osmb.api.location.position.types.WorldPosition;
+import com.osmb.api.ui.chatbox.dialogue.DialogueType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Game state behind the fakes: player position, inventory, bank, dialogue, spellbook
+ * and anything scheduled to happen later, such as a make-all or a walk.
+ *
+ * Time only moves through spend() and advanceTo(). Scheduled events run in order as
+ * the clock passes them. Any tap or walk interrupts the running make-all or auto-enchant,
+ * as it does in game.
+ */
+public class SimWorld {
+
+    public static final int INVENTORY_SIZE = 28;
+    private static final int EMPTY = -1;
+    private static final int ON_SCREEN_TILES = 15;
+
+    public enum Tab {
+        INVENTORY,
+        SPELLBOOK
+    }
+
+    private final SimClock clock = new SimClock();
+    private final Latencies latencies;
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private long eventSeq = 0;
+
+    // Player
+    private WorldPosition position;
+    private long walkGeneration = 0;
+    private long jobGeneration = 0;
+
+    // Inventory
+    private final int[] slotIds = new int[INVENTORY_SIZE];
+    private final int[] slotAmounts = new int[INVENTORY_SIZE];
+    private final Set<Integer> stackable = new HashSet<>();
+    private Integer selectedSlot;
+    private Tab tab = Tab.INVENTORY;
+
+    // Bank
+    private final Map<Integer, Integer> bank = new LinkedHashMap<>();
+    private boolean bankVisible = false;
+
+    // Dialogue
+    private DialogueType dialogueType;
+    private int[] dialogueOptions = new int[0];
+    private Consumer<Integer> dialogueAction;
+
+    // Spellbook
+    private boolean enchantSubmenuOpen = false;
+    private boolean spellSelected = false;
+    private int spellSpriteId = -1;
+    private final Map<Integer, Integer> enchantments = new HashMap<>();
+    private final Map<Integer, Integer> castCost = new LinkedHashMap<>();
+    private boolean autoEnchant = true;
+
+    // Scene
+    private final List<SimObject> objects = new ArrayList<>();
+    private final List<WorldPosition> npcs = new ArrayList<>();
+    private final Map<WorldPosition, TileMenu> tileMenus = new HashMap<>();
+    private final List<Recipe> recipes = new ArrayList<>();
+
+    private long itemsMade = 0;
+
+    public SimWorld(Latencies latencies, WorldPosition start) {
+        this.latencies = latencies;
+        this.position = start;
+        Arrays.fill(slotIds, EMPTY);
+    }
+
+    // === Time ===
+
+    public SimClock getClock() {
+        return clock;
+    }
+
+    public long now() {
+        return clock.now();
+    }
+
+    /**
+     * Lets the time one action takes pass.
+     */
+    public void spend(Action action) {
+        advanceTo(clock.now() + latencies.sample(action));
+    }
+
+    public long sample(Action action) {
+        return latencies.sample(action);
+    }
+
+    /**
+     * Moves the clock to time, running every event scheduled up to then.
+     */
+    public void advanceTo(long time) {
+        while (!events.isEmpty() && events.peek().time <= time) {
+            Event e = events.poll();
+            clock.advance(e.time - clock.now());
+            e.action.run();
+        }
+        clock.advance(time - clock.now());
+    }
+
+    public void schedule(long delayMs, Runnable action) {
+        events.add(new Event(clock.now() + delayMs, eventSeq++, action));
+    }
+
+    /**
+     * Stops the running make-all or auto-enchant.
+     */
+    public void interrupt() {
+        jobGeneration++;
+    }
+
+    // === Player ===
+
+    public WorldPosition getPosition() {
+        return position;
+    }
+
+    public static double distance(WorldPosition a, WorldPosition b) {
+        if (a.getPlane() != b.getPlane()) return Double.MAX_VALUE;
+        return Math.hypot(a.getX() - b.getX(), a.getY() - b.getY());
+    }
+
+    public boolean isOnScreen(WorldPosition pos) {
+        return distance(position, pos) <= ON_SCREEN_TILES;
+    }
+
+    /**
+     * Starts walking to target one tile per Action.TILE, replacing any walk in progress.
+     * Moving closes the bank and any dialogue.
+     */
+    public void walkTo(WorldPosition target) {
+        interrupt();
+        long generation = ++walkGeneration;
+        schedule(latencies.sample(Action.TILE), () -> step(target, generation));
+    }
+
+    private void step(WorldPosition target, long generation) {
+        if (generation != walkGeneration || position.equals(target)) return;
+        int dx = Integer.signum(target.getX() - position.getX());
+        int dy = Integer.signum(target.getY() - position.getY());
+        position = new WorldPosition(position.getX() + dx, position.getY() + dy, target.getPlane());
+        bankVisible = false;
+        closeDialogue();
+        if (!position.equals(target)) {
+            schedule(latencies.sample(Action.TILE), () -> step(target, generation));
+        }
+    }
+
+    public boolean isMoving(WorldPosition target) {
+        return !position.equals(target);
+    }
+
+    // === Inventory ===
+
+    public void setStackable(int... itemIds) {
+        for (int id : itemIds) {
+            stackable.add(id);
+        }
+    }
+
+    public int getSlotId(int slot) {
+        return slotIds[slot];
+    }
+
+    public int getSlotAmount(int slot) {
+        return slotAmounts[slot];
+    }
+
+    public int countInventory(int itemId) {
+        int count = 0;
+        for (int slot = 0; slot < INVENTORY_SIZE; slot++) {
+            if (slotIds[slot] == itemId) count += slotAmounts[slot];
+        }
+        return count;
+    }
+
+    public int getFreeSlots() {
+        int free = 0;
+        for (int id : slotIds) {
+            if (id == EMPTY) free++;
+        }
+        return free;
+    }
+
+    /**
+     * @return how many were added; stackable items take one slot, others one slot each
+     */
+    public int addToInventory(int itemId, int amount) {
+        if (stackable.contains(itemId)) {
+            for (int slot = 0; slot < INVENTORY_SIZE; slot++) {
+                if (slotIds[slot] == itemId) {
+                    slotAmounts[slot] += amount;
+                    return amount;
+                }
+            }
+            int slot = firstFreeSlot();
+            if (slot < 0) return 0;
+            slotIds[slot] = itemId;
+            slotAmounts[slot] = amount;
+            return amount;
+        }
+        int added = 0;
+        while (added < amount) {
+            int slot = firstFreeSlot();
+            if (slot < 0) break;
+            slotIds[slot] = itemId;
+            slotAmounts[slot] = 1;
+            added++;
+        }
+        return added;
+    }
+
+    /**
+     * Removes up to amount of an item, from the first slots holding it.
+     */
+    public void removeFromInventory(int itemId, int amount) {
+        for (int slot = 0; slot < INVENTORY_SIZE && amount > 0; slot++) {
+            if (slotIds[slot] != itemId) continue;
+            int taken = Math.min(amount, slotAmounts[slot]);
+            slotAmounts[slot] -= taken;
+            amount -= taken;
+            if (slotAmounts[slot] == 0) clearSlot(slot);
+        }
+    }
+
+    private void clearSlot(int slot) {
+        slotIds[slot] = EMPTY;
+        slotAmounts[slot] = 0;
+        if (selectedSlot != null && selectedSlot == slot) {
+            selectedSlot = null;
+        }
+    }
+
+    private int firstFreeSlot() {
+        for (int slot = 0; slot < INVENTORY_SIZE; slot++) {
+            if (slotIds[slot] == EMPTY) return slot;
+        }
+        return -1;
+    }
+
+    public Integer getSelectedSlot() {
+        return selectedSlot;
+    }
+
+    public void select(int slot) {
+        selectedSlot = slotIds[slot] == EMPTY ? null : slot;
+    }
+
+    public void clearSelection() {
+        selectedSlot = null;
+        spellSelected = false;
+    }
+
+    public Tab getTab() {
+        return tab;
+    }
+
+    public void setTab(Tab tab) {
+        this.tab = tab;
+    }
+
+    /**
+     * Left-clicks an inventory slot: casts the selected spell on it, uses the selected
+     * item on it, or selects it.
+     *
+     * @return false if the slot no longer holds itemId
+     */
+    public boolean useItem(int slot, int itemId) {
+        spend(Action.TAP);
+        interrupt();
+        if (slotIds[slot] != itemId) return false;
+
+        if (spellSelected) {
+            return cast(slot);
+        }
+        if (selectedSlot != null && selectedSlot != slot) {
+            int other = slotIds[selectedSlot];
+            selectedSlot = null;
+            Recipe recipe = findRecipe(other, itemId);
+            if (recipe != null) {
+                openItemDialogue(new int[] { recipe.result }, chosen -> startMakeAll(recipe));
+            }
+            return true;
+        }
+        selectedSlot = slot;
+        return true;
+    }
+
+    // === Bank ===
+
+    public void putInBank(int itemId, int amount) {
+        bank.merge(itemId, amount, Integer::sum);
+    }
+
+    public int countBank(int itemId) {
+        return bank.getOrDefault(itemId, 0);
+    }
+
+    public Map<Integer, Integer> getBankContents() {
+        return bank;
+    }
+
+    public boolean isBankVisible() {
+        return bankVisible;
+    }
+
+    public void setBankVisible(boolean visible) {
+        this.bankVisible = visible;
+        if (visible) closeDialogue();
+    }
+
+    /**
+     * Opens the bank after the booth is reached and the interface loads.
+     */
+    public void openBankFrom(WorldPosition booth) {
+        long walk = (long) Math.max(0, distance(position, booth) - 1) * latencies.mean(Action.TILE);
+        schedule(walk + latencies.sample(Action.BANK_OPEN), () -> setBankVisible(true));
+    }
+
+    public void depositAllExcept(Set<Integer> keep) {
+        for (int slot = 0; slot < INVENTORY_SIZE; slot++) {
+            int id = slotIds[slot];
+            if (id == EMPTY || keep.contains(id)) continue;
+            putInBank(id, slotAmounts[slot]);
+            clearSlot(slot);
+        }
+        selectedSlot = null;
+    }
+
+    /**
+     * @return how many were withdrawn
+     */
+    public int withdraw(int itemId, int amount) {
+        int available = countBank(itemId);
+        int added = addToInventory(itemId, Math.min(amount, available));
+        if (added > 0) {
+            if (available == added) {
+                bank.remove(itemId);
+            } else {
+                bank.put(itemId, available - added);
+            }
+        }
+        return added;
+    }
+
+    // === Dialogue ===
+
+    public DialogueType getDialogueType() {
+        return dialogueType;
+    }
+
+    public int[] getDialogueOptions() {
+        return dialogueOptions;
+    }
+
+    /**
+     * Opens a make-X style dialogue after Action.DIALOGUE_OPEN.
+     *
+     * @param onSelect Runs with the chosen item ID
+     */
+    public void openItemDialogue(int[] options, Consumer<Integer> onSelect) {
+        schedule(latencies.sample(Action.DIALOGUE_OPEN), () -> {
+            dialogueType = DialogueType.ITEM_OPTION;
+            dialogueOptions = options.clone();
+            dialogueAction = onSelect;
+        });
+    }
+
+    /**
+     * @return false if no open dialogue offers the item
+     */
+    public boolean selectDialogueItem(int itemId) {
+        if (dialogueType != DialogueType.ITEM_OPTION) return false;
+        for (int option : dialogueOptions) {
+            if (option == itemId) {
+                Consumer<Integer> action = dialogueAction;
+                closeDialogue();
+                action.accept(itemId);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void closeDialogue() {
+        dialogueType = null;
+        dialogueOptions = new int[0];
+        dialogueAction = null;
+    }
+
+    // === Production ===
+
+    /**
+     * Using a on b, or b on a, makes result; leftover (e.g. an empty jug) may be -1.
+     */
+    public void addRecipe(int a, int b, int result, int leftover) {
+        recipes.add(new Recipe(a, b, result, leftover));
+    }
+
+    private Recipe findRecipe(int a, int b) {
+        for (Recipe r : recipes) {
+            if ((r.a == a && r.b == b) || (r.a == b && r.b == a)) return r;
+        }
+        return null;
+    }
+
+    private void startMakeAll(Recipe recipe) {
+        long generation = ++jobGeneration;
+        schedule(latencies.sample(Action.CRAFT_ITEM), () -> makeOne(recipe, generation));
+    }
+
+    private void makeOne(Recipe recipe, long generation) {
+        if (generation != jobGeneration) return;
+        if (countInventory(recipe.a) == 0 || countInventory(recipe.b) == 0) return;
+        removeFromInventory(recipe.a, 1);
+        removeFromInventory(recipe.b, 1);
+        addToInventory(recipe.result, 1);
+        if (recipe.leftover != EMPTY) {
+            addToInventory(recipe.leftover, 1);
+        }
+        itemsMade++;
+        schedule(latencies.sample(Action.CRAFT_ITEM), () -> makeOne(recipe, generation));
+    }
+
+    /**
+     * Swaps every full batch of ingredients, paying coinsPerBatch each, for one product.
+     * Used for NPCs that make a whole inventory at once.
+     */
+    public void makeBatches(int ingredientId, int perBatch, int coinsId, int coinsPerBatch, int productId) {
+        int batches = Math.min(countInventory(ingredientId) / perBatch, countInventory(coinsId) / coinsPerBatch);
+        if (batches == 0) return;
+        removeFromInventory(ingredientId, batches * perBatch);
+        removeFromInventory(coinsId, batches * coinsPerBatch);
+        addToInventory(productId, batches);
+        itemsMade += batches;
+    }
+
+    public long getItemsMade() {
+        return itemsMade;
+    }
+
+    // === Spellbook ===
+
+    /**
+     * Sets up one enchant spell: its sprite, what it turns each item into, and its runes.
+     */
+    public void setEnchantSpell(int spriteId, Map<Integer, Integer> enchantments, Map<Integer, Integer> runes) {
+        this.spellSpriteId = spriteId;
+        this.enchantments.putAll(enchantments);
+        this.castCost.putAll(runes);
+    }
+
+    /**
+     * Whether the game keeps enchanting the rest of the items after the first cast.
+     */
+    public void setAutoEnchant(boolean autoEnchant) {
+        this.autoEnchant = autoEnchant;
+    }
+
+    public int getSpellSpriteId() {
+        return spellSpriteId;
+    }
+
+    public boolean isEnchantSubmenuOpen() {
+        return enchantSubmenuOpen;
+    }
+
+    public void openEnchantSubmenu() {
+        enchantSubmenuOpen = true;
+    }
+
+    /**
+     * Selects the enchant spell; the game shows the inventory to pick a target.
+     */
+    public void selectSpell() {
+        interrupt();
+        spellSelected = true;
+        selectedSlot = null;
+        tab = Tab.INVENTORY;
+    }
+
+    private boolean cast(int slot) {
+        spellSelected = false;
+        Integer product = enchantments.get(slotIds[slot]);
+        if (product == null || !hasRunes()) return false;
+        long generation = jobGeneration;
+        int itemId = slotIds[slot];
+        schedule(latencies.sample(Action.CAST), () -> enchant(slot, itemId, generation));
+        return true;
+    }
+
+    private void enchant(int slot, int itemId, long generation) {
+        if (generation != jobGeneration || slotIds[slot] != itemId || !hasRunes()) return;
+        for (Map.Entry<Integer, Integer> rune : castCost.entrySet()) {
+            removeFromInventory(rune.getKey(), rune.getValue());
+        }
+        slotIds[slot] = enchantments.get(itemId);
+        itemsMade++;
+        // The game returns to the spellbook, submenu still open
+        tab = Tab.SPELLBOOK;
+        if (!autoEnchant) return;
+        for (int next = 0; next < INVENTORY_SIZE; next++) {
+            if (slotIds[next] == itemId) {
+                int nextSlot = next;
+                schedule(latencies.sample(Action.ENCHANT_ITEM), () -> enchant(nextSlot, itemId, generation));
+                return;
+            }
+        }
+    }
+
+    private boolean hasRunes() {
+        for (Map.Entry<Integer, Integer> rune : castCost.entrySet()) {
+            if (countInventory(rune.getKey()) < rune.getValue()) return false;
+        }
+        return true;
+    }
+
+    // === Scene ===
+
+    public void addObject(SimObject object) {
+        objects.add(object);
+    }
+
+    public List<SimObject> getObjects() {
+        return objects;
+    }
+
+    public void addNpc(WorldPosition position) {
+        npcs.add(position);
+    }
+
+    public List<WorldPosition> getNpcs() {
+        return npcs;
+    }
+
+    /**
+     * Menu shown when the tile at pos is tapped, instead of just "Walk here".
+     */
+    public void setTileMenu(WorldPosition pos, Supplier<List<MenuEntry>> entries, Consumer<MenuEntry> onSelect) {
+        tileMenus.put(pos, new TileMenu(entries, onSelect));
+    }
+
+    /**
+     * @return the tap target for a tile's cube
+     */
+    public Taps.Poly tileTarget(WorldPosition pos) {
+        TileMenu menu = tileMenus.get(pos);
+        if (menu == null) {
+            return Taps.polygon(this, () -> List.of(new MenuEntry("Walk here", "Walk here")), e -> walkTo(pos));
+        }
+        return Taps.polygon(this, menu.entries, menu.onSelect);
+    }
+
+    private static final class TileMenu {
+        final Supplier<List<MenuEntry>> entries;
+        final Consumer<MenuEntry> onSelect;
+
+        TileMenu(Supplier<List<MenuEntry>> entries, Consumer<MenuEntry> onSelect) {
+            this.entries = entries;
+            this.onSelect = onSelect;
+        }
+    }
+
+    private static final class Recipe {
+        final int a;
+        final int b;
+        final int result;
+        final int leftover;
+
+        Recipe(int a, int b, int result, int leftover) {
+            this.a = a;
+            this.b = b;
+            this.result = result;
+            this.leftover = leftover;
+        }
+    }
+
+    private static final class Event implements Comparable<Event> {
+        final long time;
+        final long seq;
+        final Runnable action;
+
+        Event(long time, long seq, Runnable action) {
+            this.time = time;
+            this.seq = seq;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(Event o) {
+            return time != o.time ? Long.compare(time, o.time) : Long.compare(seq, o.seq);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.druscripts.sim;
+
+import com.druscripts.sim.Latencies.Action;
+import com.osmb.api.input.MenuEntry;
+import com.osmb.api.input.MenuHook;
+import com.osmb.api.shape.Polygon;
+import com.osmb.api.shape.Rectangle;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Shapes the fakes hand out that SimCore's Finger can tap. Each carries the menu the
+ * game would show for it and what happens when an entry is chosen.
+ */
+public final class Taps {
+
+    private Taps() {}
+
+    public interface Target {
+        /**
+         * @param hook Picks the entry, or null to take the first one like a left click
+         * @return false if no entry was chosen
+         */
+        boolean tap(MenuHook hook);
+    }
+
+    public static Rect rectangle(SimWorld world, int x, int y, int width, int height,
+                                 Supplier<List<MenuEntry>> entries, Consumer<MenuEntry> onSelect) {
+        return new Rect(x, y, width, height, new Menu(world, entries, onSelect));
+    }
+
+    public static Poly polygon(SimWorld world, Supplier<List<MenuEntry>> entries, Consumer<MenuEntry> onSelect) {
+        return new Poly(new int[] { 0, 40, 40, 0 }, new int[] { 0, 0, 40, 40 }, new Menu(world, entries, onSelect));
+    }
+
+    public static final class Rect extends Rectangle implements Target {
+        private final Menu menu;
+
+        Rect(int x, int y, int width, int height, Menu menu) {
+            super(x, y, width, height);
+            this.menu = menu;
+        }
+
+        @Override
+        public boolean tap(MenuHook hook) {
+            return menu.tap(hook);
+        }
+    }
+
+    public static final class Poly extends Polygon implements Target {
+        private final int[] xPoints;
+        private final int[] yPoints;
+        private final Menu menu;
+
+        Poly(int[] xPoints, int[] yPoints, Menu menu) {
+            super(xPoints, yPoints);
+            this.xPoints = xPoints;
+            this.yPoints = yPoints;
+            this.menu = menu;
+        }
+
+        /**
+         * Keeps the menu; the size of a target does not matter to the simulator.
+         */
+        @Override
+        public Polygon getResized(double factor) {
+            return new Poly(xPoints, yPoints, menu);
+        }
+
+        @Override
+        public boolean tap(MenuHook hook) {
+            return menu.tap(hook);
+        }
+    }
+
+    private static final class Menu {
+        private final SimWorld world;
+        private final Supplier<List<MenuEntry>> entries;
+        private final Consumer<MenuEntry> onSelect;
+
+        Menu(SimWorld world, Supplier<List<MenuEntry>> entries, Consumer<MenuEntry> onSelect) {
+            this.world = world;
+            this.entries = entries;
+            this.onSelect = onSelect;
+        }
+
+        boolean tap(MenuHook hook) {
+            world.spend(Action.TAP);
+            List<MenuEntry> shown = entries.get();
+            MenuEntry chosen;
+            if (hook == null) {
+                chosen = shown.isEmpty() ? null : shown.get(0);
+            } else {
+                chosen = hook.find(shown);
+            }
+            if (chosen == null) return false;
+            world.interrupt();
+            onSelect.accept(chosen);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.druscripts.sim;
+
+import com.druscripts.utils.metrics.LapStats;
+import com.druscripts.utils.script.FreeScript;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Runs scripts against SimCore for a number of simulated hours and prints their throughput.
+ *
+ * Usage: Throughput [--scenario name|all]... [--hours h] [--seed n] [--latency action=ms[:jitter]]... [--verbose]
+ *
+ * Items/h is measured in simulated time between the first and last lap. Polls/lap and
+ * searches/lap come from the script's own LapStats, so they count what a real session
+ * would report. Stats and version requests go to a dead address and are dropped.
+ */
+public class Throughput {
+
+    private static final String DEAD_API = "http://127.0.0.1:9";
+
+    public static void main(String[] args) throws IOException {
+        List<Scenarios.Scenario> scenarios = new ArrayList<>();
+        List<String> latencyOverrides = new ArrayList<>();
+        double hours = 1;
+        long seed = 1;
+        boolean verbose = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--scenario":
+                    String name = args[++i];
+                    if ("all".equalsIgnoreCase(name)) {
+                        scenarios.addAll(Scenarios.all());
+                    } else {
+                        scenarios.add(Scenarios.byName(name));
+                    }
+                    break;
+                case "--hours":
+                    hours = Double.parseDouble(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--latency":
+                    latencyOverrides.add(args[++i]);
+                    break;
+                case "--verbose":
+                    verbose = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        if (scenarios.isEmpty()) {
+            scenarios.addAll(Scenarios.all());
+        }
+
+        // Keep stats, outbox and profile files away from the real ~/.druscripts
+        System.setProperty("druscripts.api.base", DEAD_API);
+        System.setProperty("user.home", Files.createTempDirectory("druscripts-sim").toString());
+
+        System.out.printf("%-24s %6s %10s %10s %12s %10s %9s %8s%n",
+            "scenario", "laps", "items/h", "polls/lap", "searches/lap", "cache hit", "lap s", "wall ms");
+        for (Scenarios.Scenario scenario : scenarios) {
+            Random random = new Random(seed);
+            Latencies latencies = new Latencies(random);
+            for (String override : latencyOverrides) {
+                latencies.parse(override);
+            }
+            Result result = run(scenario, latencies, random, (long) (hours * 3_600_000), verbose);
+            System.out.printf("%-24s %6d %10.1f %10.1f %12.1f %9.1f%% %9.1f %8d%n",
+                scenario.getName(), result.laps.getLaps(), result.laps.getItemsPerHour(),
+                result.lapStats.getPollsPerLap(), result.lapStats.getSearchesPerLap(),
+                result.cacheHitRate * 100, result.laps.getMeanLapMs() / 1000, result.wallMs);
+        }
+    }
+
+    /**
+     * Polls the script until it stops or durationMs of simulated time has passed, sleeping
+     * for whatever delay poll() returns.
+     */
+    static Result run(Scenarios.Scenario scenario, Latencies latencies, Random random, long durationMs, boolean verbose) {
+        long wallStart = System.nanoTime();
+        SimWorld world = scenario.createWorld(latencies);
+        SimCore core = new SimCore(world, random, verbose);
+        LapLog laps = new LapLog(world.getClock());
+        FreeScript script = scenario.createScript(core, laps);
+
+        script.onStart();
+        while (!core.isStopped() && world.now() < durationMs) {
+            int delay;
+            try {
+                delay = script.poll();
+            } catch (RuntimeException e) {
+                core.log("Throughput", "poll() threw " + e);
+                delay = 0;
+            }
+            world.advanceTo(world.now() + Math.max(delay, world.sample(Latencies.Action.FRAME)));
+        }
+        script.onStop();
+
+        Result result = new Result();
+        result.laps = laps;
+        result.lapStats = script.getLapStats();
+        result.cacheHitRate = script.getInventoryCache().getHitRate();
+        result.wallMs = (System.nanoTime() - wallStart) / 1_000_000;
+        return result;
+    }
+
+    static final class Result {
+        LapLog laps;
+        LapStats lapStats;
+        double cacheHitRate;
+        long wallMs;
+    }
+}
@@ -84,6 +84,12 @@ for script in "${scripts[@]}"; do
         echo "  Copying resources..."
         mkdir -p "$jar_temp/com/druscripts/$script/resources"
         cp -r "$script_resources_dir/"* "$jar_temp/com/druscripts/$script/resources/" 2>/dev/null || true
+
+        # Sprite index, since resources cannot be listed inside a JAR
+        sprites_dir="$jar_temp/com/druscripts/$script/resources/sprites"
+        if [ -d "$sprites_dir" ]; then
+            find "$sprites_dir" -maxdepth 1 -name "*.png" -exec basename {} .png \; | sort > "$sprites_dir/index.txt"
+        fi
     fi
 
     # Create JAR
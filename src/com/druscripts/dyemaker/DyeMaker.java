@@ -69,7 +69,7 @@ public class DyeMaker extends FreeScript {
     @Override
     public void onPaint(Canvas c) {
         long elapsed = System.currentTimeMillis() - startTime;
-        String runtime = formatRuntime(elapsed);
+        String runtime = PaintStyle.formatRuntime(elapsed);
 
         double hours = Math.max(1/3600.0, (double) elapsed / 3600000.0);
         int perHour = (int) Math.floor((double) dyesMade / hours);
@@ -85,14 +85,7 @@ public class DyeMaker extends FreeScript {
         PaintStyle.drawLine(c, "Per hour: " + perHour, y, PaintStyle.TEXT_COLOR_BODY);
 
         paintUpdateNotice(c, WIDTH, NUM_LINES);
-    }
-
-    private String formatRuntime(long millis) {
-        long seconds = millis / 1000L;
-        long hours = seconds / 3600L;
-        long minutes = (seconds % 3600L) / 60L;
-        long secs = seconds % 60L;
-        return String.format("%02d:%02d:%02d", hours, minutes, secs);
+        paintTaskProfiler(c, WIDTH);
     }
 
     @Override
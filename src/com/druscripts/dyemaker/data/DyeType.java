@@ -1,5 +1,6 @@
 package com.druscripts.dyemaker.data;
 import com.druscripts.dyemaker.data.Constants;
+import com.druscripts.utils.stats.StatKey;
 
 public enum DyeType {
     RED(1763, 1951, 3, "Redberries", false, "red_dye_made", "red_lap_time"),
@@ -12,8 +13,8 @@ public enum DyeType {
     private final String ingredientName;
     private final int batchesPerRun;
     private final boolean stackable;
-    private final String statName;
-    private final String lapTimeStatName;
+    private final StatKey statName;
+    private final StatKey lapTimeStatName;
 
     DyeType(
         int dyeId,
@@ -29,8 +30,8 @@ public enum DyeType {
         this.ingredientCount = ingredientCount;
         this.ingredientName = ingredientName;
         this.stackable = stackable;
-        this.statName = statName;
-        this.lapTimeStatName = lapTimeStatName;
+        this.statName = StatKey.of(statName);
+        this.lapTimeStatName = StatKey.of(lapTimeStatName);
 
         // For stackable ingredients, full inventory available. For non-stackable,
         // one slot is reserved for coins so we subtract 1.
@@ -67,11 +68,11 @@ public enum DyeType {
         return name().charAt(0) + name().substring(1).toLowerCase() + " Dye";
     }
 
-    public String getStatName() {
+    public StatKey getStatName() {
         return statName;
     }
 
-    public String getLapTimeStatName() {
+    public StatKey getLapTimeStatName() {
         return lapTimeStatName;
     }
 }
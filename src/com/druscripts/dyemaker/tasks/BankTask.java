@@ -19,6 +19,7 @@ import java.util.Set;
 public class BankTask extends Task {
 
     private final DyeMaker dm;
+    private RSObject preparedBank;
 
     public BankTask(FreeScript script) {
         super(script);
@@ -30,6 +31,12 @@ public class BankTask extends Task {
         return dm.isInBankArea(dm.getWorldPosition()) && (dm.hasDyes() || !dm.hasMaterials());
     }
 
+    @Override
+    public boolean prepare() {
+        preparedBank = findBank();
+        return preparedBank != null;
+    }
+
     @Override
     public void execute() {
         if (!dm.getWidgetManager().getBank().isVisible()) {
@@ -46,6 +53,7 @@ public class BankTask extends Task {
                     dm.log(getClass(), "Deposit failed");
                     return;
                 }
+                InventoryUtils.invalidate(dm);
             }
         } catch (CannotOpenWidgetException e) {
             dm.log(getClass(), e.getMessage());
@@ -74,6 +82,7 @@ public class BankTask extends Task {
     }
 
     private int getBankAmount(int itemId) {
+        FreeScript.countSearch(dm);
         ItemGroupResult result = dm.getWidgetManager().getBank().search(Set.of(itemId));
         if (result == null || !result.contains(itemId)) return 0;
         return result.getAmount(itemId);
@@ -95,6 +104,7 @@ public class BankTask extends Task {
 
     private boolean withdrawItem(int id, int amount) {
         // search should auto switch to inv. null means inv not visible
+        FreeScript.countSearch(dm);
         ItemGroupResult inv = dm.getWidgetManager().getInventory().search(Set.of(id));
         if (inv == null) return false;
         // will always contain correct amount due to deposit at start of task
@@ -103,9 +113,11 @@ public class BankTask extends Task {
         if (!dm.getWidgetManager().getBank().withdraw(id, amount)) {
             return false;
         }
+        InventoryUtils.invalidate(dm);
 
         // sanity check
         boolean withdrawn = dm.pollFramesHuman(() -> {
+            FreeScript.countSearch(dm);
             ItemGroupResult check = dm.getWidgetManager().getInventory().search(Set.of(id));
             return check != null && check.contains(id);
         }, 3000, true);
@@ -114,18 +126,26 @@ public class BankTask extends Task {
     }
 
     private void openBank() {
-        List<RSObject> banks = dm.getObjectManager().getObjects(obj ->
-            Constants.BANK_NAME.equalsIgnoreCase(obj.getName()) && obj.canReach()
-        );
-        if (banks.isEmpty()) return;
+        // The booth was found while still walking; only use it if it still matches
+        RSObject bank = preparedBank != null && isBank(preparedBank) ? preparedBank : findBank();
+        preparedBank = null;
+        if (bank == null) return;
 
-        RSObject bank = (RSObject) dm.getUtils().getClosest(banks);
         if (!bank.interact(Constants.BANK_ACTION)) return;
 
         double dist = bank.distance(dm.getWorldPosition());
         dm.pollFramesHuman(() -> dm.getWidgetManager().getBank().isVisible(), (int)(dist * 1200 + 600), true);
     }
 
+    private RSObject findBank() {
+        List<RSObject> banks = dm.getObjectManager().getObjects(BankTask::isBank);
+        return banks.isEmpty() ? null : (RSObject) dm.getUtils().getClosest(banks);
+    }
+
+    private static boolean isBank(RSObject obj) {
+        return Constants.BANK_NAME.equalsIgnoreCase(obj.getName()) && obj.canReach();
+    }
+
     private void showOutOfMaterialsAlertAndStopScript() {
         Scene errorScene = ErrorDialog.createErrorScene(
             "DyeMaker",
@@ -68,12 +68,14 @@ public class MakeDyeTask extends Task {
                 dm.sendStat(dyeType.getLapTimeStatName(), lapTimeMs);
             }
 
+            dm.recordLap(batches);
             dm.firstRoundComplete = true;
             dm.lapStartTime = System.currentTimeMillis();
         }
     }
 
     private boolean selectIngredient(DyeType dyeType) {
+        FreeScript.countSearch(dm);
         ItemGroupResult inv = dm.getWidgetManager().getInventory().search(Set.of(dyeType.getIngredientId()));
         if (inv == null) return false;
 
@@ -98,6 +100,7 @@ public class MakeDyeTask extends Task {
         if (!clicked) return false;
 
         return dm.pollFramesHuman(() -> {
+            FreeScript.countSearch(dm);
             ItemGroupResult check = dm.getWidgetManager().getInventory().search(Set.of(dyeType.getIngredientId()));
             return check != null && check.getSelectedSlot() != null;
         }, 2000, true);
@@ -46,6 +46,7 @@ public class WalkToBankTask extends Task {
         }
 
         dm.getWalker().walkTo(dm.getRandomBankTile(), dm.walkConfig);
-        dm.pollFramesHuman(() -> dm.isInBankArea(dm.getWorldPosition()), 15000, true);
+        dm.prepareNext(BankTask.class);
+        dm.pollFramesPrepared(() -> dm.isInBankArea(dm.getWorldPosition()), 15000, true);
     }
 }
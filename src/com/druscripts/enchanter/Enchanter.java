@@ -7,8 +7,11 @@ import com.druscripts.enchanter.data.Stage;
 import com.druscripts.enchanter.tasks.BankTask;
 import com.druscripts.enchanter.tasks.EnchantTask;
 import com.druscripts.enchanter.tasks.SetupTask;
+import com.druscripts.enchanter.util.SearchableImageCache;
+import com.druscripts.enchanter.util.SpriteLoader;
 import com.druscripts.utils.paint.PaintStyle;
 import com.druscripts.utils.script.FreeScript;
+import com.druscripts.utils.stats.StatKey;
 
 import com.osmb.api.script.ScriptDefinition;
 import com.osmb.api.script.SkillCategory;
@@ -41,6 +44,12 @@ public class Enchanter extends FreeScript {
     public long lapStartTime = System.currentTimeMillis();
     public int startMagicLevel = 0;
 
+    // Stat keys for the configured level and mode, see initStatKeys()
+    private StatKey statXp;
+    private StatKey statItems;
+    private StatKey statRuntime;
+    private StatKey statLvls;
+
     public int bankUnenchanted = 0;
     public int bankEnchanted = 0;
 
@@ -66,6 +75,15 @@ public class Enchanter extends FreeScript {
         tasks.add(new SetupTask(this));
     }
 
+    @Override
+    public void onStop() {
+        if (enchantableItem.requiresSpriteSearch()) {
+            log(getClass().getSimpleName(), SpriteLoader.getSummary());
+        }
+        SearchableImageCache.clear();
+        super.onStop();
+    }
+
     @Override
     public boolean promptBankTabDialogue() {
         return true;
@@ -83,7 +101,7 @@ public class Enchanter extends FreeScript {
     @Override
     public void onPaint(com.osmb.api.visual.drawing.Canvas c) {
         long elapsed = System.currentTimeMillis() - startTime;
-        String runtime = formatRuntime(elapsed);
+        String runtime = PaintStyle.formatRuntime(elapsed);
 
         // Get XP tracker for magic level
         XPTracker magicTracker = getXPTrackers().get(SkillType.MAGIC);
@@ -114,6 +132,7 @@ public class Enchanter extends FreeScript {
         PaintStyle.drawLine(c, "  Enchanted: " + FORMAT.format(bankEnchanted), y, PaintStyle.TEXT_COLOR_MUTED);
 
         paintUpdateNotice(c, WIDTH, NUM_LINES);
+        paintTaskProfiler(c, WIDTH);
     }
 
     public void initializeTasks() {
@@ -123,14 +142,6 @@ public class Enchanter extends FreeScript {
         log(getClass().getSimpleName(), "Tasks initialized");
     }
 
-    private String formatRuntime(long millis) {
-        long seconds = millis / 1000L;
-        long hours = seconds / 3600L;
-        long minutes = seconds % 3600L / 60L;
-        long secs = seconds % 60L;
-        return String.format("%02d:%02d:%02d", hours, minutes, secs);
-    }
-
     // Track XP and items for the current lap (to send when completing lap)
     private int lapItemsEnchanted = 0;
     private int lapXpGained = 0;
@@ -155,6 +166,22 @@ public class Enchanter extends FreeScript {
         return 0;
     }
 
+    /**
+     * Build the lap stat keys once the level and mode are configured.
+     * Keys are in format: lvl_{level}_{mode}_{stat}
+     */
+    public void initStatKeys() {
+        int level = enchantLevel.getLevel();
+        String prefix = hyperEfficientMode
+            ? "lvl_" + level + "_hyper_"
+            : "lvl_" + level + "_";
+
+        statXp = StatKey.of(prefix + "xp");
+        statItems = StatKey.of(prefix + "items");
+        statRuntime = StatKey.of(prefix + "runtime_ms");
+        statLvls = StatKey.of(prefix + "lvls");
+    }
+
     /**
      * Called when banking completes - sends stats for the lap.
      * Stats are sent in format: lvl_{level}_{mode}_{stat}
@@ -175,28 +202,28 @@ public class Enchanter extends FreeScript {
         }
 
         if (firstRoundComplete && lapItemsEnchanted > 0) {
-            // Build stat keys based on level and mode
-            int level = enchantLevel.getLevel();
-            String prefix = hyperEfficientMode
-                ? "lvl_" + level + "_hyper_"
-                : "lvl_" + level + "_";
+            if (statXp == null) {
+                initStatKeys();
+            }
 
             // Send XP
-            sendStat(prefix + "xp", lapXpGained);
+            sendStat(statXp, lapXpGained);
 
             // Send items enchanted
-            sendStat(prefix + "items", lapItemsEnchanted);
+            sendStat(statItems, lapItemsEnchanted);
 
             // Send lap time (runtime for this lap)
             long lapTimeMs = System.currentTimeMillis() - lapStartTime;
-            sendStat(prefix + "runtime_ms", lapTimeMs);
+            sendStat(statRuntime, lapTimeMs);
 
             // Send levels gained (if any)
             if (levelsGainedThisLap > 0) {
-                sendStat(prefix + "lvls", levelsGainedThisLap);
+                sendStat(statLvls, levelsGainedThisLap);
             }
         }
 
+        recordLap(lapItemsEnchanted);
+
         firstRoundComplete = true;
         lapStartTime = System.currentTimeMillis();
         lapItemsEnchanted = 0;
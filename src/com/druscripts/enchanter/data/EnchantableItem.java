@@ -68,6 +68,8 @@ public enum EnchantableItem {
     private final int enchantedId;
     private final String unenchantedName;
     private final String enchantedName;
+    private final boolean spriteSearch;
+    private final String enchantedSpriteName;
 
     EnchantableItem(EnchantLevel level, int unenchantedId, int enchantedId,
                     String unenchantedName, String enchantedName) {
@@ -76,6 +78,17 @@ public enum EnchantableItem {
         this.enchantedId = enchantedId;
         this.unenchantedName = unenchantedName;
         this.enchantedName = enchantedName;
+        this.spriteSearch = isSpriteSearchItem(enchantedId);
+        this.enchantedSpriteName = spriteSearch
+            ? enchantedName.toLowerCase().replace(" ", "_").replace("'", "")
+            : null;
+    }
+
+    private static boolean isSpriteSearchItem(int itemId) {
+        for (int id : Constants.SPRITE_SEARCH_ITEMS) {
+            if (id == itemId) return true;
+        }
+        return false;
     }
 
     public EnchantLevel getLevel() {
@@ -107,8 +120,7 @@ public enum EnchantableItem {
      * Checks against Constants.SPRITE_SEARCH_ITEMS array.
      */
     public boolean requiresSpriteSearch() {
-        return Arrays.stream(Constants.SPRITE_SEARCH_ITEMS)
-            .anyMatch(id -> id == enchantedId);
+        return spriteSearch;
     }
 
     /**
@@ -117,10 +129,7 @@ public enum EnchantableItem {
      * @return The sprite name (without .png extension), or null if ID lookup works
      */
     public String getEnchantedSpriteName() {
-        if (!requiresSpriteSearch()) {
-            return null;
-        }
-        return enchantedName.toLowerCase().replace(" ", "_").replace("'", "");
+        return enchantedSpriteName;
     }
 
     public static EnchantableItem[] getItemsForLevel(EnchantLevel level) {
@@ -5,6 +5,8 @@ import com.druscripts.enchanter.data.Constants;
 import com.druscripts.enchanter.data.EnchantLevel;
 import com.druscripts.enchanter.data.Stage;
 import com.druscripts.enchanter.util.SpriteSearch;
+import com.druscripts.utils.scene.ObjectFilters;
+import com.druscripts.utils.script.FreeScript;
 import com.druscripts.utils.script.Task;
 import com.druscripts.utils.widget.InventoryUtils;
 import com.druscripts.utils.widget.exception.CannotOpenWidgetException;
@@ -14,23 +16,20 @@ import com.osmb.api.scene.RSObject;
 import javafx.application.Platform;
 import javafx.scene.control.Alert;
 
-import java.util.Arrays;
+import java.awt.Point;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 
 public class BankTask extends Task {
 
-    private static final Predicate<RSObject> BANK_QUERY = obj -> {
-        if (obj.getName() == null || obj.getActions() == null) return false;
-        if (Arrays.stream(Constants.BANK_NAMES).noneMatch(n -> n.equalsIgnoreCase(obj.getName()))) return false;
-        return Arrays.stream(obj.getActions())
-            .anyMatch(a -> Arrays.stream(Constants.BANK_ACTIONS).anyMatch(ba -> ba.equalsIgnoreCase((String) a)))
-            && obj.canReach();
-    };
+    private static final Predicate<RSObject> BANK_QUERY =
+        ObjectFilters.withNameAndAction(Constants.BANK_NAMES, Constants.BANK_ACTIONS);
 
     private final Enchanter enchanter;
+    private RSObject preparedBank;
 
     public BankTask(Enchanter script) {
         super(script);
@@ -60,6 +59,12 @@ public class BankTask extends Task {
         }
     }
 
+    @Override
+    public boolean prepare() {
+        preparedBank = findBank();
+        return preparedBank != null;
+    }
+
     /**
      * Checks if inventory contains enchanted items.
      * Uses sprite search for items with missing IDs.
@@ -94,6 +99,7 @@ public class BankTask extends Task {
                     enchanter.log(getClass(), "Deposit failed");
                     return;
                 }
+                InventoryUtils.invalidate(enchanter);
             }
         } catch (CannotOpenWidgetException e) {
             enchanter.log(getClass(), e.getMessage());
@@ -119,13 +125,14 @@ public class BankTask extends Task {
     }
 
     private void openBank() {
-        List<RSObject> banks = enchanter.getObjectManager().getObjects(BANK_QUERY);
-        if (banks.isEmpty()) {
+        // The booth was found while still walking; only use it if it still matches
+        RSObject bank = preparedBank != null && BANK_QUERY.test(preparedBank) ? preparedBank : findBank();
+        preparedBank = null;
+        if (bank == null) {
             enchanter.log(getClass(), "No bank found.");
             return;
         }
 
-        RSObject bank = (RSObject) enchanter.getUtils().getClosest(banks);
         if (!bank.interact(Constants.BANK_ACTIONS)) {
             enchanter.log(getClass(), "Failed to interact with bank.");
             return;
@@ -135,12 +142,18 @@ public class BankTask extends Task {
         enchanter.pollFramesHuman(() -> enchanter.getWidgetManager().getBank().isVisible(), (int)(dist * 1000 + 500), true);
     }
 
+    private RSObject findBank() {
+        List<RSObject> banks = enchanter.getObjectManager().getObjects(BANK_QUERY);
+        return banks.isEmpty() ? null : (RSObject) enchanter.getUtils().getClosest(banks);
+    }
+
     private void updateBankCounts() {
         enchanter.bankUnenchanted = getBankAmount(enchanter.enchantableItem.getUnenchantedId());
-        // Use sprite search for enchanted items with missing IDs
+        // Use sprite search for enchanted items with missing IDs, one scan for this bank view
         if (enchanter.enchantableItem.requiresSpriteSearch()) {
             String spriteName = enchanter.enchantableItem.getEnchantedSpriteName();
-            enchanter.bankEnchanted = SpriteSearch.hasItemInBank(enchanter, spriteName) ? 1 : 0;
+            Map<String, List<Point>> scan = SpriteSearch.scanBank(enchanter);
+            enchanter.bankEnchanted = SpriteSearch.hasItemInBank(enchanter, spriteName, scan) ? 1 : 0;
         } else {
             enchanter.bankEnchanted = getBankAmount(enchanter.enchantableItem.getEnchantedId());
         }
@@ -148,6 +161,7 @@ public class BankTask extends Task {
 
     private int getBankAmount(int itemId) {
         try {
+            FreeScript.countSearch(enchanter);
             ItemGroupResult bank = enchanter.getWidgetManager().getBank().search(Set.of(itemId));
             if (bank == null || !bank.contains(itemId)) return 0;
             return bank.getAmount(new int[]{itemId});
@@ -226,6 +240,7 @@ public class BankTask extends Task {
             return false;
         }
 
+        InventoryUtils.invalidate(enchanter);
         return true;
     }
 
@@ -2,7 +2,10 @@ package com.druscripts.enchanter.tasks;
 
 import com.druscripts.enchanter.Enchanter;
 import com.druscripts.enchanter.data.Stage;
+import com.druscripts.enchanter.util.SearchableImageCache;
+import com.druscripts.utils.script.FreeScript;
 import com.druscripts.utils.script.Task;
+import com.druscripts.utils.widget.InventoryWatcher;
 import com.osmb.api.item.ItemGroupResult;
 import com.osmb.api.item.ItemSearchResult;
 import com.osmb.api.ui.spellbook.InvalidSpellbookTypeException;
@@ -10,7 +13,6 @@ import com.osmb.api.ui.spellbook.SpellNotFoundException;
 import com.osmb.api.ui.spellbook.StandardSpellbook;
 import com.osmb.api.ui.tabs.Spellbook;
 import com.osmb.api.visual.image.ImageSearchResult;
-import com.osmb.api.visual.image.SearchableImage;
 import com.osmb.api.visual.color.ColorModel;
 import com.osmb.api.visual.color.tolerance.ToleranceComparator;
 
@@ -22,12 +24,14 @@ import java.util.Set;
 public class EnchantTask extends Task {
 
     private final Enchanter enchanter;
+    private final InventoryWatcher watcher;
     private static final int ENCHANT_TIME_MS = 4200;
     private static final int BUFFER_TIME_MS = 2500;
 
     public EnchantTask(Enchanter script) {
         super(script);
         this.enchanter = script;
+        this.watcher = new InventoryWatcher(script, script.enchantableItem.getUnenchantedId());
     }
 
     @Override
@@ -71,11 +75,20 @@ public class EnchantTask extends Task {
             return;
         }
 
+        int itemId = enchanter.enchantableItem.getUnenchantedId();
         int itemCount = items.size();
         int waitTime = itemCount * ENCHANT_TIME_MS + BUFFER_TIME_MS;
-        enchanter.pollFramesHuman(() -> getItems().isEmpty(), waitTime, true);
-
-        int remaining = getItems().size();
+        watcher.reset();
+        enchanter.prepareNext(BankTask.class);
+        // The game shows the spellbook while it enchants the rest, so the inventory tab is
+        // only opened between waits, never from inside a condition
+        int remaining = itemCount;
+        for (int waited = 0; waited < waitTime && remaining > 0; waited += ENCHANT_TIME_MS) {
+            enchanter.pollFramesPrepared(() -> watcher.updateIfVisible() && watcher.getAmount(itemId) == 0,
+                Math.min(ENCHANT_TIME_MS, waitTime - waited), true);
+            if (!watcher.update()) break;
+            remaining = watcher.getAmount(itemId);
+        }
         int enchanted = itemCount - remaining;
         if (enchanted > 0) {
             enchanter.increaseItemsEnchanted(enchanted);
@@ -125,7 +138,9 @@ public class EnchantTask extends Task {
         }
 
         if (enchanted > 0) {
-            enchanter.pollFramesUntil(() -> getItems().isEmpty(), 1500, true);
+            enchanter.prepareNext(BankTask.class);
+            int itemId = enchanter.enchantableItem.getUnenchantedId();
+            enchanter.pollFramesUntilPrepared(() -> !watcher.updateIfVisible() || watcher.getAmount(itemId) == 0, 1500, true);
             enchanter.increaseItemsEnchanted(enchanted);
         }
     }
@@ -168,6 +183,7 @@ public class EnchantTask extends Task {
     private List<ItemSearchResult> getItems() {
         try {
             int itemId = enchanter.enchantableItem.getUnenchantedId();
+            FreeScript.countSearch(enchanter);
             ItemGroupResult inventory = enchanter.getWidgetManager().getInventory().search(Set.of(itemId));
             if (inventory == null || !inventory.contains(itemId)) {
                 return new ArrayList<>();
@@ -180,9 +196,10 @@ public class EnchantTask extends Task {
     }
 
     private ImageSearchResult findSprite(int spriteId) {
+        FreeScript.countSearch(enchanter);
         try {
             return enchanter.getImageAnalyzer().findLocation(
-                new SearchableImage(spriteId, enchanter, ToleranceComparator.ZERO_TOLERANCE, ColorModel.RGB)
+                SearchableImageCache.forSpriteId(spriteId, enchanter, ToleranceComparator.ZERO_TOLERANCE, ColorModel.RGB)
             );
         } catch (Exception e) {
             return null;
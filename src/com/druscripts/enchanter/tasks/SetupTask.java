@@ -3,6 +3,7 @@ package com.druscripts.enchanter.tasks;
 import com.druscripts.enchanter.Enchanter;
 import com.druscripts.enchanter.data.Stage;
 import com.druscripts.enchanter.ui.EnchanterUI;
+import com.druscripts.enchanter.util.SpriteLoader;
 import com.druscripts.utils.script.Task;
 
 import javafx.scene.Scene;
@@ -44,6 +45,13 @@ public class SetupTask extends Task {
         enchanter.enchantLevel = ui.getSelectedLevel();
         enchanter.enchantableItem = ui.getSelectedItem();
         enchanter.hyperEfficientMode = ui.isHyperEfficientMode();
+        enchanter.initStatKeys();
+
+        // Decode sprites off the game thread so the first bank visit finds them cached.
+        // Bank searches index every bundled sprite, so load them all.
+        if (enchanter.enchantableItem.requiresSpriteSearch()) {
+            SpriteLoader.preload(enchanter.getExecutor(), SpriteLoader.listSprites().toArray(new String[0]));
+        }
 
         enchanter.log(getClass(), "Level: " + enchanter.enchantLevel.getDisplayName());
         enchanter.log(getClass(), "Item: " + enchanter.enchantableItem.getUnenchantedName());
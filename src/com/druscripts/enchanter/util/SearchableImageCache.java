@@ -0,0 +1,140 @@
+package com.druscripts.enchanter.util;
+
+import com.osmb.api.ScriptCore;
+import com.osmb.api.visual.color.ColorModel;
+import com.osmb.api.visual.color.tolerance.ToleranceComparator;
+import com.osmb.api.visual.image.SearchableImage;
+
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prepared SearchableImages shared by the enchanter's sprite and spell searches.
+ *
+ * Building a SearchableImage converts the whole template, and the spell search runs
+ * inside pollFramesUntil() predicates, so rebuilding it per call repeats that work many
+ * times a second. Images are kept per sprite name or sprite ID, tolerance and colour
+ * model, least recently used first out once MAX_ENTRIES is reached. Call clear() when
+ * the script stops, since sprite ID images are built against that script.
+ */
+public class SearchableImageCache {
+
+    private static final int MAX_ENTRIES = 32;
+
+    private static final Map<Key, SearchableImage> cache =
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, SearchableImage> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    private static final class Key {
+        final Object source;
+        final ToleranceComparator tolerance;
+        final ColorModel colorModel;
+
+        Key(Object source, ToleranceComparator tolerance, ColorModel colorModel) {
+            this.source = source;
+            this.tolerance = tolerance;
+            this.colorModel = colorModel;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return source.equals(other.source)
+                && Objects.equals(tolerance, other.tolerance)
+                && colorModel == other.colorModel;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, tolerance, colorModel);
+        }
+    }
+
+    private SearchableImageCache() {}
+
+    /**
+     * Gets a searchable image for a sprite from the JAR resources, see SpriteLoader.
+     *
+     * @param spriteName The name of the sprite file (without extension)
+     * @return The prepared image, or null if the sprite is not found
+     */
+    public static SearchableImage forSprite(String spriteName, ToleranceComparator tolerance, ColorModel colorModel) {
+        Key key = new Key(spriteName, tolerance, colorModel);
+        SearchableImage image = get(key);
+        if (image != null) {
+            return image;
+        }
+        BufferedImage sprite = SpriteLoader.loadSprite(spriteName);
+        if (sprite == null) {
+            return null;
+        }
+        return put(key, new SearchableImage(sprite, tolerance, colorModel));
+    }
+
+    /**
+     * Gets a searchable image for a game sprite, such as a spell icon.
+     *
+     * @param spriteId Game sprite ID
+     * @param core     Script the image is built against
+     */
+    public static SearchableImage forSpriteId(int spriteId, ScriptCore core,
+                                              ToleranceComparator tolerance, ColorModel colorModel) {
+        Key key = new Key(spriteId, tolerance, colorModel);
+        SearchableImage image = get(key);
+        if (image != null) {
+            return image;
+        }
+        return put(key, new SearchableImage(spriteId, core, tolerance, colorModel));
+    }
+
+    /**
+     * Clears the cache.
+     */
+    public static void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public static long getHits() {
+        return hits.get();
+    }
+
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    private static SearchableImage get(Key key) {
+        SearchableImage image;
+        synchronized (cache) {
+            image = cache.get(key);
+        }
+        if (image != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return image;
+    }
+
+    /**
+     * Built outside the lock; if two threads race, the first image stored wins.
+     */
+    private static SearchableImage put(Key key, SearchableImage image) {
+        synchronized (cache) {
+            SearchableImage existing = cache.putIfAbsent(key, image);
+            return existing != null ? existing : image;
+        }
+    }
+}
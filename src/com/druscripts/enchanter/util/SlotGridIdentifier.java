@@ -0,0 +1,179 @@
+package com.druscripts.enchanter.util;
+
+import com.druscripts.utils.script.FreeScript;
+import com.osmb.api.script.Script;
+import com.osmb.api.shape.Rectangle;
+import com.osmb.api.visual.image.Image;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Identifies items with missing IDs by checking the 28 inventory slots directly.
+ *
+ * The inventory is a fixed 4x7 grid, so there is no need to slide a template over
+ * the whole widget. Each slot's pixels are copied out of the screen at most once per
+ * frame and checked against the sprite's SpriteFingerprint at the few offsets the
+ * item can be drawn at within the slot. Stack count text in the slot's top-left
+ * corner is not counted as a mismatch.
+ *
+ * Not used by SpriteSearch yet. The grid is assumed to be centred in the inventory
+ * bounds with the item box and pitch below, none of which has been checked against a
+ * frame captured from the client. SpriteBench draws its frame with the same layout,
+ * so it cannot confirm them either. Until the slot boxes come from the API or are
+ * checked against a real frame, this is only exercised by SpriteBench.
+ */
+public class SlotGridIdentifier {
+
+    public static final int SLOTS = 28;
+
+    private static final int COLUMNS = 4;
+    private static final int ROWS = 7;
+
+    // Item box size and slot pitch of the game's inventory grid
+    private static final int ITEM_WIDTH = 36;
+    private static final int ITEM_HEIGHT = 32;
+    private static final int PITCH_X = 42;
+    private static final int PITCH_Y = 36;
+    private static final int GRID_WIDTH = (COLUMNS - 1) * PITCH_X + ITEM_WIDTH;
+    private static final int GRID_HEIGHT = (ROWS - 1) * PITCH_Y + ITEM_HEIGHT;
+
+    /** Extra pixels copied around each item box, in case the grid is not exactly centred */
+    private static final int SLACK = 3;
+    private static final int BOX_WIDTH = ITEM_WIDTH + 2 * SLACK;
+    private static final int BOX_HEIGHT = ITEM_HEIGHT + 2 * SLACK;
+
+    /** Where a stack count can be drawn, in the item box's top-left corner */
+    private static final int COUNT_WIDTH = SLACK + SpriteFingerprint.COUNT_WIDTH;
+    private static final int COUNT_HEIGHT = SLACK + SpriteFingerprint.COUNT_HEIGHT;
+
+    /** Slot copies are reused for this long. Shorter than a client frame. */
+    private static final long FRAME_MS = 25;
+
+    private static final int[][] slotPixels = new int[SLOTS][BOX_WIDTH * BOX_HEIGHT];
+    private static long frameTime;
+    private static Rectangle frameBounds;
+
+    private SlotGridIdentifier() {}
+
+    /**
+     * Finds the inventory slots holding a sprite.
+     *
+     * @param bounds Inventory widget bounds, see Inventory.getBounds()
+     * @return slot indices (0-27, row by row), or null if the screen cannot be read
+     *         or the sprite has no usable fingerprint
+     */
+    public static List<Integer> findSlots(Script script, String spriteName, Rectangle bounds) {
+        SpriteFingerprint fingerprint = SpriteFingerprint.forSprite(spriteName);
+        if (fingerprint == null || bounds == null) {
+            return null;
+        }
+        synchronized (slotPixels) {
+            if (!capture(script, bounds)) {
+                return null;
+            }
+            List<Integer> slots = new ArrayList<>();
+            for (int slot = 0; slot < SLOTS; slot++) {
+                if (matchesSlot(fingerprint, slotPixels[slot])) {
+                    slots.add(slot);
+                }
+            }
+            return slots;
+        }
+    }
+
+    /**
+     * Counts inventory slots holding a sprite.
+     *
+     * @return the count, or -1 if the slots cannot be checked, see findSlots()
+     */
+    public static int count(Script script, String spriteName, Rectangle bounds) {
+        List<Integer> slots = findSlots(script, spriteName, bounds);
+        return slots != null ? slots.size() : -1;
+    }
+
+    /**
+     * Gets the screen area copied for a slot, including SLACK on every side.
+     *
+     * @param bounds Inventory widget bounds, see Inventory.getBounds()
+     */
+    public static Rectangle getSlotBounds(Rectangle bounds, int slot) {
+        return new Rectangle(
+            originX(bounds) + (slot % COLUMNS) * PITCH_X,
+            originY(bounds) + (slot / COLUMNS) * PITCH_Y,
+            BOX_WIDTH, BOX_HEIGHT);
+    }
+
+    /**
+     * Drops the copied slots, e.g. after an inventory interaction within the same frame.
+     */
+    public static void invalidate() {
+        synchronized (slotPixels) {
+            frameBounds = null;
+        }
+    }
+
+    static boolean matchesSlot(SpriteFingerprint fingerprint, int[] box) {
+        for (int y = 0; y + fingerprint.height <= BOX_HEIGHT; y++) {
+            for (int x = 0; x + fingerprint.width <= BOX_WIDTH; x++) {
+                if (fingerprint.matches(box, BOX_WIDTH, x, y, COUNT_WIDTH, COUNT_HEIGHT)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copies every slot out of the current screen, unless already done this frame.
+     *
+     * @return false if the screen is unavailable or the grid does not fit on it
+     */
+    private static boolean capture(Script script, Rectangle bounds) {
+        long now = System.currentTimeMillis();
+        if (frameBounds == bounds && now - frameTime < FRAME_MS) {
+            return true;
+        }
+
+        FreeScript.countSearch(script);
+        Image screen;
+        try {
+            screen = script.getScreen().getImage();
+        } catch (Exception e) {
+            return false;
+        }
+        if (screen == null) {
+            return false;
+        }
+
+        int originX = originX(bounds);
+        int originY = originY(bounds);
+        if (originX < 0 || originY < 0
+            || originX + GRID_WIDTH + 2 * SLACK > screen.getWidth()
+            || originY + GRID_HEIGHT + 2 * SLACK > screen.getHeight()) {
+            return false;
+        }
+
+        for (int slot = 0; slot < SLOTS; slot++) {
+            int left = originX + (slot % COLUMNS) * PITCH_X;
+            int top = originY + (slot / COLUMNS) * PITCH_Y;
+            int[] box = slotPixels[slot];
+            for (int y = 0; y < BOX_HEIGHT; y++) {
+                for (int x = 0; x < BOX_WIDTH; x++) {
+                    box[y * BOX_WIDTH + x] = screen.getRGB(left + x, top + y);
+                }
+            }
+        }
+        frameBounds = bounds;
+        frameTime = now;
+        return true;
+    }
+
+    private static int originX(Rectangle bounds) {
+        return bounds.getX() + (bounds.getWidth() - GRID_WIDTH) / 2 - SLACK;
+    }
+
+    private static int originY(Rectangle bounds) {
+        return bounds.getY() + (bounds.getHeight() - GRID_HEIGHT) / 2 - SLACK;
+    }
+}
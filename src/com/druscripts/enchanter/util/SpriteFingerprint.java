@@ -0,0 +1,212 @@
+package com.druscripts.enchanter.util;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A handful of anchor pixels picked from a sprite, for finding where it may be drawn
+ * without a full template comparison.
+ *
+ * Anchors are opaque pixels whose four neighbours are opaque too, and brighter than
+ * MIN_BRIGHTNESS, so the outline and shadow every item shares are left out. Up to half
+ * are one pixel of each of the sprite's least common colours, since that is where
+ * similar items differ: a ring of dueling and a ring of wealth differ only in the gem.
+ * The rest are spread evenly over the sprite. The first anchor has the rarest colour
+ * outside the stack count corner, so most positions are rejected on one pixel and it
+ * is never hidden by a count.
+ *
+ * A match is only a candidate. Colours may be off by TOLERANCE and MAX_MISS_RATIO of
+ * the anchors may miss, so a similar item can match too; SpriteSearch confirms each
+ * candidate with the exact template search. SpriteBench measures both.
+ */
+final class SpriteFingerprint {
+
+    private static final int MAX_ANCHORS = 24;
+    private static final int MIN_ANCHORS = 8;
+
+    /** Per-channel difference still counted as the same colour. Also sets how many SpriteIndex buckets an anchor is filed in. */
+    static final int TOLERANCE = 10;
+
+    /** Share of checked anchors that may miss, e.g. under a highlight. Stack count text is skipped, not missed. */
+    private static final double MAX_MISS_RATIO = 0.2;
+
+    /** Anchors darker than this (sum of channels) are outline or shadow */
+    private static final int MIN_BRIGHTNESS = 60;
+
+    // Stack count text colours: under 100K, under 10M, 10M and over, and the text shadow
+    private static final int[] COUNT_COLORS = { 0xFFFF00, 0xFFFFFF, 0x00FF80, 0x000000 };
+
+    /** Area a stack count covers, from the top-left corner of the item */
+    static final int COUNT_WIDTH = 24;
+    static final int COUNT_HEIGHT = 11;
+
+    private static final Map<String, SpriteFingerprint> cache = new HashMap<>();
+
+    final String spriteName;
+    final int width;
+    final int height;
+    final int[] dx;
+    final int[] dy;
+    final int[] rgb;
+
+    private SpriteFingerprint(String spriteName, int width, int height, int[] dx, int[] dy, int[] rgb) {
+        this.spriteName = spriteName;
+        this.width = width;
+        this.height = height;
+        this.dx = dx;
+        this.dy = dy;
+        this.rgb = rgb;
+    }
+
+    /**
+     * Gets the fingerprint of a bundled sprite, see SpriteLoader.
+     *
+     * @return the fingerprint, or null if the sprite is not found or has too few usable pixels
+     */
+    static SpriteFingerprint forSprite(String spriteName) {
+        synchronized (cache) {
+            if (cache.containsKey(spriteName)) {
+                return cache.get(spriteName);
+            }
+        }
+        BufferedImage image = SpriteLoader.loadSprite(spriteName);
+        SpriteFingerprint fingerprint = image != null ? of(spriteName, image) : null;
+        synchronized (cache) {
+            cache.put(spriteName, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Picks anchors from a sprite.
+     *
+     * @return the fingerprint, or null if the sprite has fewer than MIN_ANCHORS usable pixels
+     */
+    static SpriteFingerprint of(String spriteName, BufferedImage image) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        int[] argb = image.getRGB(0, 0, w, h, null, 0, w);
+
+        Map<Integer, Integer> colorCounts = new HashMap<>();
+        for (int pixel : argb) {
+            if (isOpaque(pixel)) {
+                colorCounts.merge(pixel & 0xFFFFFF, 1, Integer::sum);
+            }
+        }
+
+        List<Integer> candidates = new ArrayList<>();
+        for (int y = 1; y < h - 1; y++) {
+            for (int x = 1; x < w - 1; x++) {
+                int i = y * w + x;
+                int pixel = argb[i];
+                if (isOpaque(pixel) && brightness(pixel) >= MIN_BRIGHTNESS
+                    && isOpaque(argb[i - 1]) && isOpaque(argb[i + 1])
+                    && isOpaque(argb[i - w]) && isOpaque(argb[i + w])) {
+                    candidates.add(i);
+                }
+            }
+        }
+        if (candidates.size() < MIN_ANCHORS) {
+            return null;
+        }
+
+        // One pixel of each of the least common colours
+        List<Integer> byRarity = new ArrayList<>(candidates);
+        byRarity.sort(Comparator.comparingInt((Integer i) -> colorCounts.get(argb[i] & 0xFFFFFF)));
+        List<Integer> anchors = new ArrayList<>();
+        Set<Integer> colors = new HashSet<>();
+        for (int i : byRarity) {
+            if (anchors.size() >= MAX_ANCHORS / 2) break;
+            if (colors.add(argb[i] & 0xFFFFFF)) {
+                anchors.add(i);
+            }
+        }
+
+        // Put the rarest anchor outside the count corner first, if there is one
+        for (int a = 0; a < anchors.size(); a++) {
+            int i = anchors.get(a);
+            if (i % w >= COUNT_WIDTH || i / w >= COUNT_HEIGHT) {
+                anchors.add(0, anchors.remove(a));
+                break;
+            }
+        }
+
+        // Then an even spread over the rest
+        double step = (double) candidates.size() / (MAX_ANCHORS - anchors.size());
+        for (double pos = step / 2; pos < candidates.size() && anchors.size() < MAX_ANCHORS; pos += step) {
+            int i = candidates.get((int) pos);
+            if (!anchors.contains(i)) {
+                anchors.add(i);
+            }
+        }
+
+        int[] dx = new int[anchors.size()];
+        int[] dy = new int[anchors.size()];
+        int[] rgb = new int[anchors.size()];
+        for (int a = 0; a < anchors.size(); a++) {
+            int i = anchors.get(a);
+            dx[a] = i % w;
+            dy[a] = i / w;
+            rgb[a] = argb[i] & 0xFFFFFF;
+        }
+        return new SpriteFingerprint(spriteName, w, h, dx, dy, rgb);
+    }
+
+    /**
+     * Checks whether the sprite is drawn with its top-left corner at (x, y).
+     * The first anchor must match; of the rest, up to MAX_MISS_RATIO may miss.
+     *
+     * @param pixels RGB pixels, row-major
+     * @param stride Row length of pixels
+     * @param skipW  Anchors left of skipW and above skipH are ignored where the pixel
+     *               is stack count text; 0 to check all
+     * @param skipH  See skipW
+     */
+    boolean matches(int[] pixels, int stride, int x, int y, int skipW, int skipH) {
+        int allowedMisses = (int) (rgb.length * MAX_MISS_RATIO);
+        int checked = 0;
+        int missed = 0;
+        for (int a = 0; a < rgb.length; a++) {
+            int px = x + dx[a];
+            int py = y + dy[a];
+            int pixel = pixels[py * stride + px];
+            if (px < skipW && py < skipH && isCountText(pixel)) {
+                continue;
+            }
+            checked++;
+            if (!isClose(pixel, rgb[a])) {
+                if (a == 0 || ++missed > allowedMisses) {
+                    return false;
+                }
+            }
+        }
+        return checked - missed >= MIN_ANCHORS / 2;
+    }
+
+    static boolean isClose(int a, int b) {
+        return Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF)) <= TOLERANCE
+            && Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF)) <= TOLERANCE
+            && Math.abs((a & 0xFF) - (b & 0xFF)) <= TOLERANCE;
+    }
+
+    private static boolean isCountText(int pixel) {
+        for (int color : COUNT_COLORS) {
+            if ((pixel & 0xFFFFFF) == color) return true;
+        }
+        return false;
+    }
+
+    private static boolean isOpaque(int argb) {
+        return (argb >>> 24) == 0xFF;
+    }
+
+    private static int brightness(int rgb) {
+        return ((rgb >> 16) & 0xFF) + ((rgb >> 8) & 0xFF) + (rgb & 0xFF);
+    }
+}
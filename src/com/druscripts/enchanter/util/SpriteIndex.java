@@ -0,0 +1,201 @@
+package com.druscripts.enchanter.util;
+
+import com.druscripts.utils.script.FreeScript;
+import com.osmb.api.script.Script;
+import com.osmb.api.shape.Rectangle;
+import com.osmb.api.visual.image.Image;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds every bundled sprite in a screen region in one pass.
+ *
+ * Each sprite's SpriteFingerprint is filed in a lookup table under the colour of its
+ * first anchor. The scan reads each pixel once, looks up the sprites whose first
+ * anchor has that colour, and checks only those at the position the pixel implies.
+ * Adding sprites adds table entries, not passes over the screen.
+ *
+ * The item box is not known here, so stack count text is only skipped within
+ * SpriteFingerprint.COUNT_WIDTH x COUNT_HEIGHT of each candidate's top-left corner,
+ * where a count can overlap any sprite whatever its offset in the box.
+ */
+public class SpriteIndex {
+
+    // 3 bits per channel. Buckets are 32 wide, so a colour within tolerance of an
+    // anchor falls in at most 2 buckets per channel.
+    private static final int BUCKET_SHIFT = 5;
+    private static final int BUCKETS = 1 << 9;
+
+    /** Matches of the same sprite this close together are one item */
+    private static final int DUPLICATE_DISTANCE = 2;
+
+    private static volatile SpriteIndex bundled;
+
+    private final List<String> spriteNames = new ArrayList<>();
+    private final SpriteFingerprint[][] table = new SpriteFingerprint[BUCKETS][];
+
+    private int[] pixels = new int[0];
+
+    /**
+     * Gets the index of every sprite in enchanter/resources/sprites, built on first use.
+     */
+    public static SpriteIndex getBundled() {
+        SpriteIndex index = bundled;
+        if (index == null) {
+            synchronized (SpriteIndex.class) {
+                index = bundled;
+                if (index == null) {
+                    index = new SpriteIndex(SpriteLoader.listSprites());
+                    bundled = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @param spriteNames Bundled sprites to index; ones that cannot be fingerprinted are left out
+     */
+    public SpriteIndex(List<String> spriteNames) {
+        List<List<SpriteFingerprint>> buckets = new ArrayList<>(BUCKETS);
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (String spriteName : spriteNames) {
+            SpriteFingerprint fingerprint = SpriteFingerprint.forSprite(spriteName);
+            if (fingerprint == null) continue;
+            this.spriteNames.add(spriteName);
+            for (int bucket : bucketsNear(fingerprint.rgb[0])) {
+                buckets.get(bucket).add(fingerprint);
+            }
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            List<SpriteFingerprint> bucket = buckets.get(i);
+            table[i] = bucket.isEmpty() ? null : bucket.toArray(new SpriteFingerprint[0]);
+        }
+    }
+
+    /**
+     * @return names of the indexed sprites
+     */
+    public List<String> getSpriteNames() {
+        return Collections.unmodifiableList(spriteNames);
+    }
+
+    /**
+     * Finds every indexed sprite in a region of the current screen.
+     *
+     * @param region Area to scan, e.g. the bank or inventory bounds
+     * @return screen positions of each sprite's top-left corner, by sprite name (sprites
+     *         not found are left out), or null if the screen cannot be read
+     */
+    public synchronized Map<String, List<Point>> find(Script script, Rectangle region) {
+        FreeScript.countSearch(script);
+        Image screen;
+        try {
+            screen = script.getScreen().getImage();
+        } catch (Exception e) {
+            return null;
+        }
+        if (screen == null) {
+            return null;
+        }
+
+        int left = Math.max(0, region.getX());
+        int top = Math.max(0, region.getY());
+        int width = Math.min(screen.getWidth(), region.getX() + region.getWidth()) - left;
+        int height = Math.min(screen.getHeight(), region.getY() + region.getHeight()) - top;
+        if (width <= 0 || height <= 0) {
+            return new LinkedHashMap<>();
+        }
+
+        if (pixels.length < width * height) {
+            pixels = new int[width * height];
+        }
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                pixels[y * width + x] = screen.getRGB(left + x, top + y);
+            }
+        }
+
+        Map<String, List<Point>> found = find(pixels, width, height);
+        for (List<Point> points : found.values()) {
+            for (Point point : points) {
+                point.translate(left, top);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds every indexed sprite in a block of pixels.
+     *
+     * @param pixels RGB pixels, row-major
+     * @return positions relative to the block, by sprite name
+     */
+    Map<String, List<Point>> find(int[] pixels, int width, int height) {
+        Map<String, List<Point>> found = new LinkedHashMap<>();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                SpriteFingerprint[] candidates = table[bucketOf(pixels[y * width + x])];
+                if (candidates == null) continue;
+                for (SpriteFingerprint fingerprint : candidates) {
+                    int sx = x - fingerprint.dx[0];
+                    int sy = y - fingerprint.dy[0];
+                    if (sx < 0 || sy < 0 || sx + fingerprint.width > width || sy + fingerprint.height > height) {
+                        continue;
+                    }
+                    // Bank items carry stack counts over their top-left corner
+                    if (fingerprint.matches(pixels, width, sx, sy,
+                            sx + SpriteFingerprint.COUNT_WIDTH, sy + SpriteFingerprint.COUNT_HEIGHT)) {
+                        addMatch(found, fingerprint.spriteName, sx, sy);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private static void addMatch(Map<String, List<Point>> found, String spriteName, int x, int y) {
+        List<Point> points = found.computeIfAbsent(spriteName, k -> new ArrayList<>());
+        for (Point point : points) {
+            if (Math.abs(point.x - x) <= DUPLICATE_DISTANCE && Math.abs(point.y - y) <= DUPLICATE_DISTANCE) {
+                return;
+            }
+        }
+        points.add(new Point(x, y));
+    }
+
+    private static int bucketOf(int rgb) {
+        return ((rgb >> 16 & 0xFF) >> BUCKET_SHIFT) << 6
+            | ((rgb >> 8 & 0xFF) >> BUCKET_SHIFT) << 3
+            | (rgb & 0xFF) >> BUCKET_SHIFT;
+    }
+
+    /**
+     * Every bucket a colour within tolerance of rgb can fall in.
+     */
+    private static List<Integer> bucketsNear(int rgb) {
+        int[] lo = new int[3];
+        int[] hi = new int[3];
+        for (int c = 0; c < 3; c++) {
+            int value = rgb >> (16 - 8 * c) & 0xFF;
+            lo[c] = Math.max(0, value - SpriteFingerprint.TOLERANCE) >> BUCKET_SHIFT;
+            hi[c] = Math.min(0xFF, value + SpriteFingerprint.TOLERANCE) >> BUCKET_SHIFT;
+        }
+        List<Integer> buckets = new ArrayList<>();
+        for (int r = lo[0]; r <= hi[0]; r++) {
+            for (int g = lo[1]; g <= hi[1]; g++) {
+                for (int b = lo[2]; b <= hi[2]; b++) {
+                    buckets.add(r << 6 | g << 3 | b);
+                }
+            }
+        }
+        return buckets;
+    }
+}
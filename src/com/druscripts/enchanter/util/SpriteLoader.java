@@ -1,47 +1,117 @@
 package com.druscripts.enchanter.util;
 
+import com.druscripts.utils.metrics.Histogram;
+
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 /**
  * Utility class for loading item sprites from JAR resources.
  * Used for items with missing IDs in the OSMB API.
+ *
+ * Sprites are cached by name, least recently used first out once MAX_ENTRIES is
+ * reached. Each sprite is decoded once even if several threads ask for it at the
+ * same time; the others wait for that load. Missing sprites are cached as null, so
+ * spriteExists() does not reopen the resource. Call preload() during setup so the
+ * first bank visit does not wait on ImageIO.
  */
 public class SpriteLoader {
 
     private static final String SPRITES_PATH = "/com/druscripts/enchanter/resources/sprites/";
-    private static final Map<String, BufferedImage> cache = new HashMap<>();
+    private static final String INDEX_FILE = "index.txt";
+    private static final int MAX_ENTRIES = 32;
+
+    private static final Map<String, Entry> cache =
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final Histogram loadTime = new Histogram();
+
+    /**
+     * One cached sprite. Whoever claims it first decodes it; everyone else waits on the result.
+     */
+    private static final class Entry {
+        final String spriteName;
+        final CompletableFuture<BufferedImage> image = new CompletableFuture<>();
+        final AtomicBoolean claimed = new AtomicBoolean();
+
+        Entry(String spriteName) {
+            this.spriteName = spriteName;
+        }
+
+        void load() {
+            if (!claimed.compareAndSet(false, true)) return;
+            BufferedImage loaded = null;
+            try {
+                loaded = read(spriteName);
+            } finally {
+                // Never leave waiters hanging, even if the decoder throws
+                image.complete(loaded);
+            }
+        }
+    }
 
     private SpriteLoader() {}
 
     /**
      * Loads a sprite image from the JAR resources.
+     * Waits if another thread is already loading it.
      *
      * @param spriteName The name of the sprite file (without extension)
      * @return The loaded BufferedImage, or null if not found
      */
     public static BufferedImage loadSprite(String spriteName) {
-        if (cache.containsKey(spriteName)) {
-            return cache.get(spriteName);
-        }
+        Entry entry = getEntry(spriteName);
+        // Loads here unless a preload already started, including when its task was dropped
+        entry.load();
+        return entry.image.join();
+    }
 
-        String path = SPRITES_PATH + spriteName + ".png";
-        try (InputStream is = SpriteLoader.class.getResourceAsStream(path)) {
-            if (is == null) {
-                System.err.println("[SpriteLoader] Sprite not found: " + path);
-                return null;
+    /**
+     * Starts loading sprites in the background so later loadSprite() calls are cache hits.
+     *
+     * @param executor    Executor to decode on, or null to load on this thread
+     * @param spriteNames Sprite file names (without extension); nulls are skipped
+     */
+    public static void preload(Executor executor, String... spriteNames) {
+        for (String spriteName : spriteNames) {
+            if (spriteName == null) continue;
+            Entry entry = getEntry(spriteName);
+            if (executor == null) {
+                entry.load();
+                continue;
+            }
+            try {
+                executor.execute(entry::load);
+            } catch (RuntimeException e) {
+                // Executor shut down or full; loadSprite() loads it on first use
             }
-            BufferedImage img = ImageIO.read(is);
-            cache.put(spriteName, img);
-            return img;
-        } catch (IOException e) {
-            System.err.println("[SpriteLoader] Failed to load sprite: " + path);
-            e.printStackTrace();
-            return null;
         }
     }
 
@@ -52,21 +122,106 @@ public class SpriteLoader {
      * @return true if the sprite exists
      */
     public static boolean spriteExists(String spriteName) {
-        if (cache.containsKey(spriteName)) {
-            return true;
-        }
-        String path = SPRITES_PATH + spriteName + ".png";
-        try (InputStream is = SpriteLoader.class.getResourceAsStream(path)) {
-            return is != null;
+        return loadSprite(spriteName) != null;
+    }
+
+    /**
+     * Lists every bundled sprite.
+     * Reads the index.txt written by build.sh, or lists the directory when running from classes.
+     *
+     * @return Sprite names (without extension), sorted
+     */
+    public static List<String> listSprites() {
+        TreeSet<String> names = new TreeSet<>();
+        try (InputStream is = SpriteLoader.class.getResourceAsStream(SPRITES_PATH + INDEX_FILE)) {
+            if (is != null) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        names.add(line.trim());
+                    }
+                }
+                return new ArrayList<>(names);
+            }
         } catch (IOException e) {
-            return false;
+            System.err.println("[SpriteLoader] Failed to read sprite index: " + e.getMessage());
         }
+
+        try {
+            URL dir = SpriteLoader.class.getResource(SPRITES_PATH);
+            if (dir != null && "file".equals(dir.getProtocol())) {
+                try (Stream<Path> files = Files.list(Paths.get(dir.toURI()))) {
+                    files.map(f -> f.getFileName().toString())
+                        .filter(f -> f.endsWith(".png"))
+                        .forEach(f -> names.add(f.substring(0, f.length() - 4)));
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            System.err.println("[SpriteLoader] Failed to list sprites: " + e.getMessage());
+        }
+        return new ArrayList<>(names);
     }
 
     /**
      * Clears the sprite cache.
      */
     public static void clearCache() {
-        cache.clear();
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public static long getHits() {
+        return hits.get();
+    }
+
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * One-line summary of cache and decode metrics for logging.
+     */
+    public static String getSummary() {
+        synchronized (loadTime) {
+            return "Sprites: hits=" + hits.get() + ", misses=" + misses.get() +
+                ", load p50/max=" + loadTime.getPercentile(50) / 1000 + "/" + loadTime.getMax() / 1000 + "us";
+        }
+    }
+
+    private static Entry getEntry(String spriteName) {
+        synchronized (cache) {
+            Entry entry = cache.get(spriteName);
+            if (entry != null) {
+                hits.incrementAndGet();
+                return entry;
+            }
+            entry = new Entry(spriteName);
+            cache.put(spriteName, entry);
+            misses.incrementAndGet();
+            return entry;
+        }
+    }
+
+    private static BufferedImage read(String spriteName) {
+        long start = System.nanoTime();
+        String path = SPRITES_PATH + spriteName + ".png";
+        try (InputStream is = SpriteLoader.class.getResourceAsStream(path)) {
+            if (is == null) {
+                System.err.println("[SpriteLoader] Sprite not found: " + path);
+                return null;
+            }
+            return ImageIO.read(is);
+        } catch (IOException e) {
+            System.err.println("[SpriteLoader] Failed to load sprite: " + path);
+            e.printStackTrace();
+            return null;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            synchronized (loadTime) {
+                loadTime.record(elapsed);
+            }
+        }
     }
 }
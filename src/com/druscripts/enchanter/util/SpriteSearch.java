@@ -1,5 +1,6 @@
 package com.druscripts.enchanter.util;
 
+import com.druscripts.utils.script.FreeScript;
 import com.osmb.api.script.Script;
 import com.osmb.api.shape.Rectangle;
 import com.osmb.api.visual.color.ColorModel;
@@ -7,153 +8,288 @@ import com.osmb.api.visual.color.tolerance.ToleranceComparator;
 import com.osmb.api.visual.image.ImageSearchResult;
 import com.osmb.api.visual.image.SearchableImage;
 
-import java.awt.image.BufferedImage;
+import java.awt.Point;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Utility class for sprite-based searching in inventory and bank.
  * Used for items with missing IDs in the OSMB API.
+ * Templates come from SearchableImageCache, so each sprite is prepared once.
  */
 public class SpriteSearch {
 
+    /** How long cached inventory bounds are used before being fetched again. */
+    private static final long INVENTORY_BOUNDS_TTL_MS = 5000;
+
+    private static Rectangle inventoryBounds;
+    private static long inventoryBoundsTime;
+
     private SpriteSearch() {}
 
     // ==================== INVENTORY METHODS ====================
 
     /**
      * Searches the inventory for an item by its sprite image.
+     * Scans the inventory widget, or the whole screen if its bounds are unknown.
      */
     public static boolean hasItemInInventory(Script script, String spriteName) {
-        BufferedImage sprite = SpriteLoader.loadSprite(spriteName);
+        SearchableImage sprite = getSearchable(spriteName);
         if (sprite == null) {
             script.log(SpriteSearch.class, "Sprite not loaded: " + spriteName);
             return false;
         }
 
-        if (!script.getWidgetManager().getInventory().isOpen()) {
-            script.getWidgetManager().getInventory().open();
-            script.pollFramesHuman(() -> script.getWidgetManager().getInventory().isOpen(), 1000);
+        Rectangle bounds = getInventoryBounds(script, openInventory(script));
+        if (bounds == null) {
+            return findSprite(script, sprite) != null;
+        }
+        if (findSpriteInBounds(script, sprite, bounds) != null) {
+            return true;
         }
 
-        return findSprite(script, sprite) != null;
+        // Not found; the inventory may have moved since its bounds were cached
+        Rectangle moved = revalidateInventoryBounds(script, bounds);
+        return moved != null && findSpriteInBounds(script, sprite, moved) != null;
     }
 
     /**
      * Counts items matching the sprite in inventory.
+     * Scans the inventory widget, or the whole screen if its bounds are unknown.
      */
     public static int countInInventory(Script script, String spriteName) {
-        BufferedImage sprite = SpriteLoader.loadSprite(spriteName);
+        SearchableImage sprite = getSearchable(spriteName);
         if (sprite == null) {
             return 0;
         }
 
-        if (!script.getWidgetManager().getInventory().isOpen()) {
-            script.getWidgetManager().getInventory().open();
-            script.pollFramesHuman(() -> script.getWidgetManager().getInventory().isOpen(), 1000);
+        Rectangle bounds = getInventoryBounds(script, openInventory(script));
+        if (bounds == null) {
+            return findAllSprites(script, sprite).size();
         }
+        int count = findAllSpritesInBounds(script, sprite, bounds).size();
+        if (count > 0) {
+            return count;
+        }
+
+        Rectangle moved = revalidateInventoryBounds(script, bounds);
+        return moved != null ? findAllSpritesInBounds(script, sprite, moved).size() : 0;
+    }
 
-        return findAllSprites(script, sprite).size();
+    /**
+     * Drops the cached inventory bounds, e.g. after the client is resized.
+     */
+    public static synchronized void invalidateInventoryBounds() {
+        inventoryBounds = null;
     }
 
     // ==================== BANK METHODS ====================
 
+    /**
+     * Finds every bundled sprite in the open bank with one SpriteIndex scan.
+     * Scan once per bank view and pass the result to hasItemInBank() and countInBank().
+     *
+     * The positions are candidates only: the index tolerates colour differences and
+     * missing pixels that the template search does not, so those methods confirm each
+     * one with the template search over its box before reporting it.
+     *
+     * @return candidate positions by sprite name, or null if the bank is not open, its
+     *         bounds are unknown or the screen cannot be read
+     */
+    public static Map<String, List<Point>> scanBank(Script script) {
+        if (!script.getWidgetManager().getBank().isVisible()) {
+            script.log(SpriteSearch.class, "Bank not open for sprite search");
+            return null;
+        }
+        Rectangle bankBounds = script.getWidgetManager().getBank().getBounds();
+        return bankBounds != null ? SpriteIndex.getBundled().find(script, bankBounds) : null;
+    }
+
     /**
      * Searches the bank for an item by its sprite image.
-     * Bank must already be open.
+     * Bank must already be open. Scans it once; use scanBank() to check several sprites.
      */
     public static boolean hasItemInBank(Script script, String spriteName) {
-        BufferedImage sprite = SpriteLoader.loadSprite(spriteName);
+        return hasItemInBank(script, spriteName, scanBank(script));
+    }
+
+    /**
+     * Searches the bank for an item with a template search, over the scan's candidate
+     * positions, or over the whole bank if the scan is null. The index tolerates more
+     * than the template search, so a sprite the scan does not list is not searched for
+     * again.
+     *
+     * @param scan Result of scanBank() for the current bank view
+     */
+    public static boolean hasItemInBank(Script script, String spriteName, Map<String, List<Point>> scan) {
+        SearchableImage sprite = getSearchable(spriteName);
         if (sprite == null) {
             script.log(SpriteSearch.class, "Sprite not loaded: " + spriteName);
             return false;
         }
-
+        if (scan != null) {
+            return countConfirmed(script, spriteName, sprite, scan, true) > 0;
+        }
         if (!script.getWidgetManager().getBank().isVisible()) {
-            script.log(SpriteSearch.class, "Bank not open for sprite search");
             return false;
         }
-
         Rectangle bankBounds = script.getWidgetManager().getBank().getBounds();
-        if (bankBounds == null) {
-            return findSprite(script, sprite) != null;
-        }
-
-        return findSpriteInBounds(script, sprite, bankBounds) != null;
+        return (bankBounds != null ? findSpriteInBounds(script, sprite, bankBounds) : findSprite(script, sprite)) != null;
     }
 
     /**
      * Counts items matching the sprite in bank.
-     * Bank must already be open.
+     * Bank must already be open. Scans it once; use scanBank() to check several sprites.
      * Note: Returns match count, not stack quantity.
      */
     public static int countInBank(Script script, String spriteName) {
-        BufferedImage sprite = SpriteLoader.loadSprite(spriteName);
+        return countInBank(script, spriteName, scanBank(script));
+    }
+
+    /**
+     * Counts template matches in the bank, over the scan's candidate positions, or over
+     * the whole bank if the scan is null. Returns match count, not stack quantity.
+     *
+     * @param scan Result of scanBank() for the current bank view
+     */
+    public static int countInBank(Script script, String spriteName, Map<String, List<Point>> scan) {
+        SearchableImage sprite = getSearchable(spriteName);
         if (sprite == null) {
             return 0;
         }
-
+        if (scan != null) {
+            return countConfirmed(script, spriteName, sprite, scan, false);
+        }
         if (!script.getWidgetManager().getBank().isVisible()) {
             return 0;
         }
-
         Rectangle bankBounds = script.getWidgetManager().getBank().getBounds();
-        if (bankBounds == null) {
-            return findAllSprites(script, sprite).size();
+        return bankBounds != null
+            ? findAllSpritesInBounds(script, sprite, bankBounds).size()
+            : findAllSprites(script, sprite).size();
+    }
+
+    /**
+     * Counts the scan's candidates for a sprite that the template search finds within
+     * the sprite's box at that position.
+     *
+     * @param first Stop at the first confirmed candidate
+     */
+    private static int countConfirmed(Script script, String spriteName, SearchableImage sprite,
+                                      Map<String, List<Point>> scan, boolean first) {
+        List<Point> points = scan.get(spriteName);
+        SpriteFingerprint fingerprint = SpriteFingerprint.forSprite(spriteName);
+        if (points == null || fingerprint == null) {
+            return 0;
         }
+        int confirmed = 0;
+        for (Point point : points) {
+            Rectangle box = new Rectangle(point.x, point.y, fingerprint.width, fingerprint.height);
+            if (findSpriteInBounds(script, sprite, box) != null) {
+                confirmed++;
+                if (first) break;
+            }
+        }
+        return confirmed;
+    }
 
-        return findAllSpritesInBounds(script, sprite, bankBounds).size();
+    // ==================== INVENTORY BOUNDS ====================
+
+    /**
+     * Opens the inventory tab if needed.
+     *
+     * @return true if it had to be opened, so the cached bounds may be stale
+     */
+    private static boolean openInventory(Script script) {
+        if (script.getWidgetManager().getInventory().isOpen()) {
+            return false;
+        }
+        script.getWidgetManager().getInventory().open();
+        script.pollFramesHuman(() -> script.getWidgetManager().getInventory().isOpen(), 1000);
+        return true;
+    }
+
+    /**
+     * Gets the inventory bounds, fetching them if forced, missing or older than the TTL.
+     *
+     * @return the bounds, or null if the widget cannot be located
+     */
+    private static synchronized Rectangle getInventoryBounds(Script script, boolean refresh) {
+        long now = System.currentTimeMillis();
+        if (refresh || inventoryBounds == null || now - inventoryBoundsTime >= INVENTORY_BOUNDS_TTL_MS) {
+            try {
+                inventoryBounds = script.getWidgetManager().getInventory().getBounds();
+            } catch (Exception e) {
+                inventoryBounds = null;
+            }
+            inventoryBoundsTime = now;
+        }
+        return inventoryBounds;
+    }
+
+    /**
+     * Fetches the inventory bounds again after a search came up empty.
+     *
+     * @return the new bounds if they differ from the ones searched, else null
+     */
+    private static Rectangle revalidateInventoryBounds(Script script, Rectangle searched) {
+        Rectangle current = getInventoryBounds(script, true);
+        if (current == null || sameBounds(current, searched)) {
+            return null;
+        }
+        return current;
+    }
+
+    private static boolean sameBounds(Rectangle a, Rectangle b) {
+        return a.getX() == b.getX() && a.getY() == b.getY()
+            && a.getWidth() == b.getWidth() && a.getHeight() == b.getHeight();
     }
 
     // ==================== CORE SEARCH METHODS ====================
 
-    private static ImageSearchResult findSprite(Script script, BufferedImage sprite) {
+    /**
+     * Gets the cached searchable image for a sprite, or null if it cannot be loaded.
+     */
+    private static SearchableImage getSearchable(String spriteName) {
+        try {
+            return SearchableImageCache.forSprite(spriteName, ToleranceComparator.ZERO_TOLERANCE, ColorModel.RGB);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static ImageSearchResult findSprite(Script script, SearchableImage sprite) {
+        FreeScript.countSearch(script);
         try {
-            SearchableImage searchable = new SearchableImage(
-                sprite,
-                ToleranceComparator.ZERO_TOLERANCE,
-                ColorModel.RGB
-            );
-            return script.getImageAnalyzer().findLocation(searchable);
+            return script.getImageAnalyzer().findLocation(sprite);
         } catch (Exception e) {
             return null;
         }
     }
 
-    private static List<ImageSearchResult> findAllSprites(Script script, BufferedImage sprite) {
+    private static List<ImageSearchResult> findAllSprites(Script script, SearchableImage sprite) {
+        FreeScript.countSearch(script);
         try {
-            SearchableImage searchable = new SearchableImage(
-                sprite,
-                ToleranceComparator.ZERO_TOLERANCE,
-                ColorModel.RGB
-            );
-            List<ImageSearchResult> results = script.getImageAnalyzer().findLocations(searchable);
+            List<ImageSearchResult> results = script.getImageAnalyzer().findLocations(sprite);
             return results != null ? results : List.of();
         } catch (Exception e) {
             return List.of();
         }
     }
 
-    private static ImageSearchResult findSpriteInBounds(Script script, BufferedImage sprite, Rectangle bounds) {
+    private static ImageSearchResult findSpriteInBounds(Script script, SearchableImage sprite, Rectangle bounds) {
+        FreeScript.countSearch(script);
         try {
-            SearchableImage searchable = new SearchableImage(
-                sprite,
-                ToleranceComparator.ZERO_TOLERANCE,
-                ColorModel.RGB
-            );
-            return script.getImageAnalyzer().findLocation(bounds, searchable);
+            return script.getImageAnalyzer().findLocation(bounds, sprite);
         } catch (Exception e) {
             return null;
         }
     }
 
-    private static List<ImageSearchResult> findAllSpritesInBounds(Script script, BufferedImage sprite, Rectangle bounds) {
+    private static List<ImageSearchResult> findAllSpritesInBounds(Script script, SearchableImage sprite, Rectangle bounds) {
+        FreeScript.countSearch(script);
         try {
-            SearchableImage searchable = new SearchableImage(
-                sprite,
-                ToleranceComparator.ZERO_TOLERANCE,
-                ColorModel.RGB
-            );
-            List<ImageSearchResult> results = script.getImageAnalyzer().findLocations(bounds, searchable);
+            List<ImageSearchResult> results = script.getImageAnalyzer().findLocations(bounds, sprite);
             return results != null ? results : List.of();
         } catch (Exception e) {
             return List.of();
@@ -7,6 +7,7 @@ import com.druscripts.piemaker.tasks.*;
 import com.druscripts.piemaker.tasks.processing.*;
 import com.druscripts.utils.paint.PaintStyle;
 import com.druscripts.utils.script.FreeScript;
+import com.druscripts.utils.stats.StatKey;
 
 import com.osmb.api.script.ScriptDefinition;
 import com.osmb.api.script.SkillCategory;
@@ -30,6 +31,7 @@ public class PieMaker extends FreeScript {
     public int pieShellsMade = 0;
     public int uncookedPiesMade = 0;
     public int cookedPiesMade = 0;
+    private int lapItemsMade = 0;
     public boolean firstRoundComplete = false;
     public long lapStartTime = System.currentTimeMillis();
 
@@ -59,10 +61,22 @@ public class PieMaker extends FreeScript {
         super.onStart();
         log(getClass().getSimpleName(), "Starting PieMaker v" + getVersion());
 
+        // Item counts arrive in small per-frame deltas; send one aggregate per lap instead
+        declareCounter(STAT_PASTRY_DOUGH);
+        declareCounter(STAT_PIE_SHELLS);
+        declareCounter(STAT_UNCOOKED_PIES);
+        declareCounter(STAT_COOKED_PIES);
+
         startTime = System.currentTimeMillis();
+        enableTaskScheduler();
         tasks.add(new SetupTask(this));
     }
 
+    @Override
+    protected int getStageState() {
+        return stage.ordinal();
+    }
+
     @Override
     public boolean promptBankTabDialogue() {
         return true;
@@ -74,7 +88,7 @@ public class PieMaker extends FreeScript {
     @Override
     public void onPaint(com.osmb.api.visual.drawing.Canvas c) {
         long elapsed = System.currentTimeMillis() - startTime;
-        String runtime = formatRuntime(elapsed);
+        String runtime = PaintStyle.formatRuntime(elapsed);
 
         String modeName = allInOne ? "All-in-one" : "Step-by-step";
 
@@ -101,6 +115,7 @@ public class PieMaker extends FreeScript {
 
         // Show update notification if available
         paintUpdateNotice(c, WIDTH, NUM_LINES);
+        paintTaskProfiler(c, WIDTH);
     }
 
     public void initializeProductionTasks() {
@@ -146,27 +161,20 @@ public class PieMaker extends FreeScript {
         log(getClass().getSimpleName(), "Production tasks initialized");
     }
 
-    private String formatRuntime(long millis) {
-        long seconds = millis / 1000L;
-        long hours = seconds / 3600L;
-        long minutes = seconds % 3600L / 60L;
-        long secs = seconds % 60L;
-        return String.format("%02d:%02d:%02d", hours, minutes, secs);
-    }
-
     public boolean isLumbridge() {
         return detectedRegion == Constants.LUMBRIDGE_REGION;
     }
 
     // Stat names for server
-    private static final String STAT_PASTRY_DOUGH = "pastry_dough_made";
-    private static final String STAT_PIE_SHELLS = "pie_shells_made";
-    private static final String STAT_UNCOOKED_PIES = "uncooked_pies_made";
-    private static final String STAT_COOKED_PIES = "cooked_pies_made";
-    private static final String STAT_LAP_TIME = "pie_lap_time";
+    private static final StatKey STAT_PASTRY_DOUGH = StatKey.of("pastry_dough_made");
+    private static final StatKey STAT_PIE_SHELLS = StatKey.of("pie_shells_made");
+    private static final StatKey STAT_UNCOOKED_PIES = StatKey.of("uncooked_pies_made");
+    private static final StatKey STAT_COOKED_PIES = StatKey.of("cooked_pies_made");
+    private static final StatKey STAT_LAP_TIME = StatKey.of("pie_lap_time");
 
     public void increasePastryDoughMade(int count) {
         pastryDoughMade += count;
+        lapItemsMade += count;
         if (firstRoundComplete) {
             sendStat(STAT_PASTRY_DOUGH, count);
         }
@@ -174,6 +182,7 @@ public class PieMaker extends FreeScript {
 
     public void increasePieShellsMade(int count) {
         pieShellsMade += count;
+        lapItemsMade += count;
         if (firstRoundComplete) {
             sendStat(STAT_PIE_SHELLS, count);
         }
@@ -181,6 +190,7 @@ public class PieMaker extends FreeScript {
 
     public void increaseUncookedPiesMade(int count) {
         uncookedPiesMade += count;
+        lapItemsMade += count;
         if (firstRoundComplete) {
             sendStat(STAT_UNCOOKED_PIES, count);
         }
@@ -188,6 +198,7 @@ public class PieMaker extends FreeScript {
 
     public void increaseCookedPiesMade(int count) {
         cookedPiesMade += count;
+        lapItemsMade += count;
         if (firstRoundComplete) {
             sendStat(STAT_COOKED_PIES, count);
         }
@@ -198,7 +209,9 @@ public class PieMaker extends FreeScript {
             long lapTimeMs = System.currentTimeMillis() - lapStartTime;
             sendStat(STAT_LAP_TIME, lapTimeMs);
         }
+        recordLap(lapItemsMade);
         firstRoundComplete = true;
         lapStartTime = System.currentTimeMillis();
+        lapItemsMade = 0;
     }
 }
@@ -2,13 +2,16 @@ package com.druscripts.piemaker.tasks;
 
 import com.druscripts.piemaker.data.Constants;
 import com.druscripts.piemaker.data.Stage;
+import com.druscripts.utils.scene.ObjectFilters;
+import com.druscripts.utils.script.FreeScript;
+import com.druscripts.utils.script.StateInput;
 import com.druscripts.utils.script.Task;
 import com.druscripts.utils.widget.InventoryUtils;
 import com.druscripts.utils.widget.exception.CannotOpenWidgetException;
 import com.osmb.api.item.ItemGroupResult;
 import com.osmb.api.scene.RSObject;
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -19,15 +22,13 @@ import com.druscripts.piemaker.PieMaker;
 
 public class BankAndManageStageTask extends Task {
 
-    private static final Predicate<RSObject> BANK_QUERY = obj -> {
-        if (obj.getName() == null || obj.getActions() == null) return false;
-        if (Arrays.stream(Constants.BANK_NAMES).noneMatch(n -> n.equalsIgnoreCase(obj.getName()))) return false;
-        return Arrays.stream(obj.getActions())
-            .anyMatch(a -> Arrays.stream(Constants.BANK_ACTIONS).anyMatch(ba -> ba.equalsIgnoreCase((String) a)))
-            && obj.canReach();
-    };
+    private static final Set<StateInput> STATE_INPUTS = EnumSet.of(StateInput.STAGE, StateInput.INVENTORY);
+
+    private static final Predicate<RSObject> BANK_QUERY =
+        ObjectFilters.withNameAndAction(Constants.BANK_NAMES, Constants.BANK_ACTIONS);
 
     private final PieMaker pieMaker;
+    private RSObject preparedBank;
 
     public BankAndManageStageTask(PieMaker script) {
         super(script);
@@ -71,6 +72,17 @@ public class BankAndManageStageTask extends Task {
         return hasOutput || !hasAllInputs;
     }
 
+    @Override
+    public Set<StateInput> getStateInputs() {
+        return STATE_INPUTS;
+    }
+
+    @Override
+    public boolean prepare() {
+        preparedBank = findBank();
+        return preparedBank != null;
+    }
+
     @Override
     public void execute() {
         pieMaker.task = "Banking";
@@ -88,6 +100,7 @@ public class BankAndManageStageTask extends Task {
                     pieMaker.log(getClass(), "Deposit failed");
                     return;
                 }
+                InventoryUtils.invalidate(pieMaker);
             }
         } catch (CannotOpenWidgetException e) {
             pieMaker.log(getClass(), e.getMessage());
@@ -116,13 +129,14 @@ public class BankAndManageStageTask extends Task {
     }
 
     private void openBank() {
-        List<RSObject> banks = pieMaker.getObjectManager().getObjects(BANK_QUERY);
-        if (banks.isEmpty()) {
+        // The booth was found while still walking; only use it if it still matches
+        RSObject bank = preparedBank != null && BANK_QUERY.test(preparedBank) ? preparedBank : findBank();
+        preparedBank = null;
+        if (bank == null) {
             pieMaker.log(getClass(), "No bank found.");
             return;
         }
 
-        RSObject bank = (RSObject) pieMaker.getUtils().getClosest(banks);
         if (!bank.interact(Constants.BANK_ACTIONS)) {
             pieMaker.log(getClass(), "Failed to interact with bank.");
             return;
@@ -132,6 +146,11 @@ public class BankAndManageStageTask extends Task {
         pieMaker.pollFramesHuman(() -> pieMaker.getWidgetManager().getBank().isVisible(), (int)(dist * 1000 + 500), true);
     }
 
+    private RSObject findBank() {
+        List<RSObject> banks = pieMaker.getObjectManager().getObjects(BANK_QUERY);
+        return banks.isEmpty() ? null : (RSObject) pieMaker.getUtils().getClosest(banks);
+    }
+
     private void updateBankCounts() {
         pieMaker.bankFlour = getBankAmount(Constants.FLOUR);
         pieMaker.bankWater = getBankAmount(pieMaker.waterSourceId);
@@ -143,6 +162,7 @@ public class BankAndManageStageTask extends Task {
     }
 
     private int getBankAmount(int itemId) {
+        FreeScript.countSearch(pieMaker);
         ItemGroupResult bank = pieMaker.getWidgetManager().getBank().search(Set.of(itemId));
         if (bank == null || !bank.contains(itemId)) return 0;
         return bank.getAmount(new int[]{itemId});
@@ -221,6 +241,7 @@ public class BankAndManageStageTask extends Task {
     }
 
     private boolean withdraw(int itemId, int count, String name) {
+        FreeScript.countSearch(pieMaker);
         ItemGroupResult bank = pieMaker.getWidgetManager().getBank().search(Set.of(itemId));
         if (bank == null || !bank.contains(itemId)) {
             pieMaker.log(getClass(), "No " + name + " in bank");
@@ -230,6 +251,7 @@ public class BankAndManageStageTask extends Task {
             pieMaker.log(getClass(), "Failed to withdraw " + name);
             return false;
         }
+        InventoryUtils.invalidate(pieMaker);
         return true;
     }
 }
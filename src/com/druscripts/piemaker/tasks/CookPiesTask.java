@@ -11,19 +11,39 @@ import com.druscripts.piemaker.data.Constants;
 import com.druscripts.piemaker.data.Stage;
 import com.druscripts.utils.location.AreaUtils;
 import com.druscripts.utils.widget.InventoryUtils;
+import com.druscripts.utils.widget.InventoryWatcher;
 import com.druscripts.utils.widget.exception.CannotOpenWidgetException;
-import com.druscripts.utils.script.Task;
+import com.druscripts.utils.script.FreeScript;
+import com.druscripts.utils.script.StateInput;
+import com.druscripts.utils.script.StepResult;
+import com.druscripts.utils.script.StepTask;
 
 import java.util.*;
 
-public class CookPiesTask extends Task {
+public class CookPiesTask extends StepTask {
+
+    private static final Set<StateInput> STATE_INPUTS = EnumSet.of(StateInput.STAGE, StateInput.POSITION, StateInput.INVENTORY);
+
+    private enum Phase { START, SELECT_PIE, COOKING }
 
     private final PieMaker pieMaker;
-    private final Map<Integer, Integer> lastCounts = new HashMap<>();
+    private final InventoryWatcher watcher;
+    private Phase phase = Phase.START;
 
     public CookPiesTask(PieMaker script) {
         super(script);
         this.pieMaker = script;
+
+        int cookedId = script.pieType.getCookedId();
+        this.watcher = new InventoryWatcher(script, script.pieType.getUncookedId(), cookedId);
+        this.watcher.addListener(new InventoryWatcher.Listener() {
+            @Override
+            public void onItemGained(int itemId, int amount) {
+                if (itemId == cookedId) {
+                    pieMaker.increaseCookedPiesMade(amount);
+                }
+            }
+        });
     }
 
     @Override
@@ -44,55 +64,98 @@ public class CookPiesTask extends Task {
     }
 
     @Override
-    public void execute() {
+    public Set<StateInput> getStateInputs() {
+        return STATE_INPUTS;
+    }
+
+    @Override
+    protected StepResult step() {
+        switch (phase) {
+            case SELECT_PIE:
+                return selectPie();
+            case COOKING:
+                script.log(getClass(), "Cooking complete");
+                phase = Phase.START;
+                return StepResult.done();
+            default:
+                return start();
+        }
+    }
+
+    @Override
+    protected void onCancelled(String reason) {
+        super.onCancelled(reason);
+        phase = Phase.START;
+    }
+
+    private StepResult start() {
         pieMaker.task = "Cooking pies";
         pieMaker.stage = Stage.COOK;
         script.log(getClass(), "Cooking pies...");
 
         WorldPosition myPos = script.getWorldPosition();
-        if (myPos == null) return;
+        if (myPos == null) return StepResult.done();
 
         if (!AreaUtils.isInArea(myPos, Constants.RANGE_AREA)) {
             script.log(getClass(), "Walking to range");
             WalkConfig.Builder cfg = new WalkConfig.Builder();
             cfg.enableRun(true);
             script.getWalker().walkTo(Constants.RANGE_AREA.getRandomPosition(), cfg.build());
-            script.pollFramesHuman(() -> {
+            return StepResult.waitFor(() -> {
                 WorldPosition p = script.getWorldPosition();
                 return p != null && AreaUtils.isInArea(p, Constants.RANGE_AREA);
-            }, 10000, true);
-            return;
+            }, 10000).thenDelay(humanDelay());
         }
 
         RSObject range = findRange();
         if (range == null) {
             script.log(getClass(), "Could not find range");
-            return;
+            return StepResult.done();
         }
 
         int uncookedId = pieMaker.pieType.getUncookedId();
+        FreeScript.countSearch(script);
         ItemGroupResult inv = script.getWidgetManager().getInventory().search(Set.of(uncookedId));
         if (inv == null || !inv.contains(uncookedId)) {
             script.log(getClass(), "No uncooked pies");
-            return;
+            return StepResult.done();
         }
 
         boolean success = script.random(0, 2) == 0 ? cookOnRange(range) : useOnRange(range, inv, uncookedId);
-        if (!success) return;
-
-        script.pollFramesHuman(() ->
-            script.getWidgetManager().getDialogue().getDialogueType() == DialogueType.ITEM_OPTION, 6000, true);
-
-        if (script.getWidgetManager().getDialogue().getDialogueType() == DialogueType.ITEM_OPTION) {
-            script.log(getClass(), "Selecting pie in dialogue");
-            int cookedId = pieMaker.pieType.getCookedId();
-            if (!script.getWidgetManager().getDialogue().selectItem(uncookedId) &&
-                !script.getWidgetManager().getDialogue().selectItem(cookedId)) {
-                script.log(getClass(), "Failed to select pie");
-                return;
-            }
-            waitForCooking();
+        if (!success) return StepResult.done();
+
+        phase = Phase.SELECT_PIE;
+        return StepResult.waitFor(() ->
+            script.getWidgetManager().getDialogue().getDialogueType() == DialogueType.ITEM_OPTION, 6000)
+            .thenDelay(humanDelay());
+    }
+
+    private StepResult selectPie() {
+        phase = Phase.START;
+        if (script.getWidgetManager().getDialogue().getDialogueType() != DialogueType.ITEM_OPTION) {
+            return StepResult.done();
         }
+
+        script.log(getClass(), "Selecting pie in dialogue");
+        int uncookedId = pieMaker.pieType.getUncookedId();
+        int cookedId = pieMaker.pieType.getCookedId();
+        if (!script.getWidgetManager().getDialogue().selectItem(uncookedId) &&
+            !script.getWidgetManager().getDialogue().selectItem(cookedId)) {
+            script.log(getClass(), "Failed to select pie");
+            return StepResult.done();
+        }
+
+        script.log(getClass(), "Waiting for cooking...");
+        watcher.reset();
+        pieMaker.prepareNext(TravelToBankTask.class);
+
+        phase = Phase.COOKING;
+        return StepResult.waitFor(() -> {
+            if (script.getWidgetManager().getDialogue().getDialogueType() == DialogueType.TAP_HERE_TO_CONTINUE) {
+                return true;
+            }
+            return !watcher.updateIfVisible() || watcher.getAmount(uncookedId) == 0;
+        }, 120000).thenDelay(humanDelay());
     }
 
     private boolean cookOnRange(RSObject range) {
@@ -114,45 +177,6 @@ public class CookPiesTask extends Task {
         });
     }
 
-    private void waitForCooking() {
-        script.log(getClass(), "Waiting for cooking...");
-
-        int uncookedId = pieMaker.pieType.getUncookedId();
-        int cookedId = pieMaker.pieType.getCookedId();
-
-        ItemGroupResult inv = script.getWidgetManager().getInventory().search(Set.of(uncookedId, cookedId));
-        if (inv != null) {
-            lastCounts.put(uncookedId, inv.getAmount(uncookedId));
-            lastCounts.put(cookedId, inv.getAmount(cookedId));
-        }
-
-        script.pollFramesHuman(() -> {
-            if (script.getWidgetManager().getDialogue().getDialogueType() == DialogueType.TAP_HERE_TO_CONTINUE) {
-                return true;
-            }
-            updateStats();
-            ItemGroupResult cur = script.getWidgetManager().getInventory().search(Set.of(uncookedId));
-            return cur == null || !cur.contains(uncookedId);
-        }, 120000, true);
-
-        script.log(getClass(), "Cooking complete");
-    }
-
-    private void updateStats() {
-        int cookedId = pieMaker.pieType.getCookedId();
-        ItemGroupResult inv = script.getWidgetManager().getInventory().search(Set.of(cookedId));
-        if (inv == null) return;
-
-        int current = inv.getAmount(cookedId);
-        int last = lastCounts.getOrDefault(cookedId, 0);
-        int newCooked = current - last;
-
-        if (newCooked > 0) {
-            pieMaker.increaseCookedPiesMade(newCooked);
-        }
-        lastCounts.put(cookedId, current);
-    }
-
     private RSObject findRange() {
         List<RSObject> ranges = script.getObjectManager().getObjects(obj -> {
             if (obj.getActions() == null) return false;
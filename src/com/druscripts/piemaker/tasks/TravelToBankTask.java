@@ -8,14 +8,20 @@ import com.druscripts.piemaker.data.Constants;
 import com.druscripts.utils.location.AreaUtils;
 import com.druscripts.utils.widget.InventoryUtils;
 import com.druscripts.utils.widget.exception.CannotOpenWidgetException;
+import com.druscripts.utils.script.StateInput;
 import com.druscripts.utils.script.Task;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 public class TravelToBankTask extends Task {
 
+    private static final Set<StateInput> STATE_INPUTS = EnumSet.of(StateInput.POSITION, StateInput.BANK_VISIBLE, StateInput.INVENTORY);
+
     private final PieMaker pieMaker;
+    private RSObject preparedStairs;
 
     public TravelToBankTask(PieMaker script) {
         super(script);
@@ -38,6 +44,19 @@ public class TravelToBankTask extends Task {
         }
     }
 
+    @Override
+    public Set<StateInput> getStateInputs() {
+        return STATE_INPUTS;
+    }
+
+    @Override
+    public boolean prepare() {
+        WorldPosition myPos = script.getWorldPosition();
+        if (myPos == null || myPos.getPlane() != 0) return true;
+        preparedStairs = findStairs("Climb-up");
+        return preparedStairs != null;
+    }
+
     @Override
     public void execute() {
         pieMaker.task = "Travel to bank";
@@ -53,7 +72,10 @@ public class TravelToBankTask extends Task {
         }
 
         if (myPos.getPlane() == 0) {
-            RSObject stairs = findStairs("Climb-up");
+            // The staircase was found while still walking; only use it if it still matches
+            RSObject stairs = preparedStairs != null && isStairs(preparedStairs, "Climb-up")
+                ? preparedStairs : findStairs("Climb-up");
+            preparedStairs = null;
             if (stairs == null) {
                 script.log(getClass(), "No staircase found");
                 return;
@@ -101,7 +123,8 @@ public class TravelToBankTask extends Task {
             WalkConfig.Builder cfg = new WalkConfig.Builder();
             cfg.enableRun(true);
             script.getWalker().walkTo(Constants.BANK_AREA.getRandomPosition(), cfg.build());
-            script.pollFramesHuman(() -> {
+            pieMaker.prepareNext(BankAndManageStageTask.class);
+            pieMaker.pollFramesPrepared(() -> {
                 WorldPosition p = script.getWorldPosition();
                 return p != null && AreaUtils.isInArea(p, Constants.BANK_AREA);
             }, 6000, true);
@@ -109,12 +132,14 @@ public class TravelToBankTask extends Task {
     }
 
     private RSObject findStairs(String action) {
-        List<RSObject> stairs = script.getObjectManager().getObjects(obj -> {
-            if (obj.getName() == null || obj.getActions() == null) return false;
-            return (obj.getName().equalsIgnoreCase("Staircase") || obj.getName().equalsIgnoreCase("Stairs"))
-                && Arrays.stream(obj.getActions()).anyMatch(a -> a != null && a.equalsIgnoreCase(action))
-                && obj.canReach();
-        });
+        List<RSObject> stairs = script.getObjectManager().getObjects(obj -> isStairs(obj, action));
         return stairs.isEmpty() ? null : (RSObject) script.getUtils().getClosest(stairs);
     }
+
+    private static boolean isStairs(RSObject obj, String action) {
+        if (obj.getName() == null || obj.getActions() == null) return false;
+        return (obj.getName().equalsIgnoreCase("Staircase") || obj.getName().equalsIgnoreCase("Stairs"))
+            && Arrays.stream(obj.getActions()).anyMatch(a -> a != null && a.equalsIgnoreCase(action))
+            && obj.canReach();
+    }
 }
@@ -9,13 +9,18 @@ import com.druscripts.piemaker.data.Stage;
 import com.druscripts.utils.location.AreaUtils;
 import com.druscripts.utils.widget.InventoryUtils;
 import com.druscripts.utils.widget.exception.CannotOpenWidgetException;
+import com.druscripts.utils.script.StateInput;
 import com.druscripts.utils.script.Task;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 public class TravelToRangeTask extends Task {
 
+    private static final Set<StateInput> STATE_INPUTS = EnumSet.of(StateInput.STAGE, StateInput.POSITION, StateInput.INVENTORY);
+
     private final PieMaker pieMaker;
 
     public TravelToRangeTask(PieMaker script) {
@@ -45,6 +50,11 @@ public class TravelToRangeTask extends Task {
         return notInKitchen && hasUncookedPies;
     }
 
+    @Override
+    public Set<StateInput> getStateInputs() {
+        return STATE_INPUTS;
+    }
+
     @Override
     public void execute() {
         pieMaker.task = "Travel to range";
@@ -3,11 +3,18 @@ package com.druscripts.piemaker.tasks.processing;
 import com.druscripts.piemaker.PieMaker;
 import com.druscripts.piemaker.data.Constants;
 import com.druscripts.piemaker.data.Stage;
+import com.druscripts.piemaker.tasks.BankAndManageStageTask;
 import com.druscripts.utils.production.CombineItemsTask;
+import com.druscripts.utils.script.StateInput;
 import com.druscripts.utils.script.Task;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public class MakeUncookedPieTask extends Task {
 
+    private static final Set<StateInput> STATE_INPUTS = EnumSet.of(StateInput.STAGE, StateInput.INVENTORY);
+
     private final PieMaker pieMaker;
     private final CombineItemsTask combineTask;
 
@@ -26,9 +33,15 @@ public class MakeUncookedPieTask extends Task {
         return combineTask.activate();
     }
 
+    @Override
+    public Set<StateInput> getStateInputs() {
+        return STATE_INPUTS;
+    }
+
     @Override
     public void execute() {
         pieMaker.task = "Adding ingredients to pies";
+        pieMaker.prepareNext(BankAndManageStageTask.class);
         combineTask.execute();
     }
 }
@@ -0,0 +1,205 @@
+package com.druscripts.utils.concurrent;
+
+import com.druscripts.utils.metrics.Histogram;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded executor owned by a script for work that must stay off the game thread,
+ * such as stats and version HTTP calls.
+ *
+ * Keeps blocking I/O out of the JVM-wide common pool that the client and other
+ * scripts share. Uses virtual threads when running on JDK 21+, platform daemon
+ * threads otherwise. Work submitted while the queue is full, or after shutdown, is
+ * counted and refused with a RejectedExecutionException; use runAsync() to get a
+ * future that fails instead.
+ */
+public class ScriptExecutor implements Executor {
+
+    private final String name;
+    private final ThreadPoolExecutor pool;
+    private final boolean virtualThreads;
+
+    private final Histogram queueWait = new Histogram();
+    private final Histogram runTime = new Histogram();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param name          Thread name prefix (e.g., "druscripts-piemaker")
+     * @param maxThreads    Maximum number of tasks running at once
+     * @param queueCapacity Maximum number of tasks waiting to run
+     */
+    public ScriptExecutor(String name, int maxThreads, int queueCapacity) {
+        this.name = name;
+        ThreadFactory virtual = createVirtualThreadFactory(name);
+        this.virtualThreads = virtual != null;
+        ThreadFactory factory = virtual != null ? virtual : createPlatformThreadFactory(name);
+
+        this.pool = new ThreadPoolExecutor(
+            maxThreads, maxThreads,
+            30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            factory,
+            (r, executor) -> {
+                rejected.incrementAndGet();
+                throw new RejectedExecutionException(name + " is full or shut down");
+            }
+        );
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs a task on an executor, like CompletableFuture.runAsync(), but returns a failed
+     * future instead of throwing if the executor refuses the task.
+     * A refused task never runs, so callers still see the future complete.
+     */
+    public static CompletableFuture<Void> runAsync(Runnable task, Executor executor) {
+        try {
+            return CompletableFuture.runAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * @throws RejectedExecutionException if the queue is full or the executor is shut down
+     */
+    @Override
+    public void execute(Runnable command) {
+        long queuedAt = System.nanoTime();
+        pool.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                command.run();
+            } finally {
+                long end = System.nanoTime();
+                synchronized (this) {
+                    queueWait.record(start - queuedAt);
+                    runTime.record(end - start);
+                }
+                completed.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Stop accepting work and wait for queued work to finish.
+     * Interrupts whatever is still running once the timeout passes.
+     *
+     * @param timeoutMs How long to wait for queued work
+     * @return true if all work finished in time
+     */
+    public boolean shutdown(long timeoutMs) {
+        pool.shutdown();
+        try {
+            if (pool.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pool.shutdownNow();
+        return false;
+    }
+
+    public boolean isShutdown() {
+        return pool.isShutdown();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * @return number of tasks waiting to run
+     */
+    public int getQueueDepth() {
+        return pool.getQueue().size();
+    }
+
+    /**
+     * @return number of tasks running now
+     */
+    public int getActiveCount() {
+        return pool.getActiveCount();
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * @return number of tasks refused because the queue was full or the executor was shut down
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * @return time between submit and start at the given percentile, in ms
+     */
+    public synchronized double getQueueWaitMillis(double percentile) {
+        return queueWait.getPercentile(percentile) / 1_000_000.0;
+    }
+
+    /**
+     * @return task run time at the given percentile, in ms
+     */
+    public synchronized double getRunTimeMillis(double percentile) {
+        return runTime.getPercentile(percentile) / 1_000_000.0;
+    }
+
+    /**
+     * One-line summary of queue and latency metrics for logging.
+     */
+    public synchronized String getSummary() {
+        return name + (virtualThreads ? " (virtual)" : "") +
+            ": completed=" + completed.get() +
+            ", rejected=" + rejected.get() +
+            ", queued=" + getQueueDepth() +
+            ", active=" + getActiveCount() +
+            ", wait p50/p99=" + Math.round(getQueueWaitMillis(50)) + "/" + Math.round(getQueueWaitMillis(99)) + "ms" +
+            ", run p50/p99=" + Math.round(getRunTimeMillis(50)) + "/" + Math.round(getRunTimeMillis(99)) + "ms";
+    }
+
+    private static ThreadFactory createPlatformThreadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Thread.ofVirtual().name(name + "-", 1).factory(), looked up reflectively
+     * since scripts are compiled for Java 17.
+     *
+     * @return the factory, or null before JDK 21
+     */
+    private static ThreadFactory createVirtualThreadFactory(String name) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Method nameMethod = builderClass.getMethod("name", String.class, long.class);
+            builder = nameMethod.invoke(builder, name + "-", 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
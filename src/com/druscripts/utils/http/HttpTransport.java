@@ -0,0 +1,171 @@
+package com.druscripts.utils.http;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared HTTP layer for calls to the druscripts.com API.
+ *
+ * One HttpClient is reused for every request, so connections are kept alive (and
+ * multiplexed over HTTP/2 when the server supports it) instead of paying DNS, TCP
+ * and TLS setup per request. Sends never block: requests beyond MAX_IN_FLIGHT wait
+ * in a queue and are started as earlier ones complete.
+ */
+public class HttpTransport {
+
+    private static final String API_BASE_PROPERTY = "druscripts.api.base";
+    private static final String DEFAULT_API_BASE = "https://druscripts.com/api";
+
+    private static final int MAX_IN_FLIGHT = 4;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    private static volatile HttpTransport shared;
+
+    private final HttpClient client;
+    private final int maxInFlight;
+    private final Semaphore permits;
+    private final ConcurrentLinkedQueue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * Gets the transport shared by the whole JVM, not just one script. Every script
+     * running in this JVM sends its stats and version checks through the same
+     * HttpClient, and together they have at most MAX_IN_FLIGHT (4) requests out at
+     * once; the rest wait in its queue. Construct a transport for a separate limit.
+     */
+    public static HttpTransport getShared() {
+        HttpTransport t = shared;
+        if (t == null) {
+            synchronized (HttpTransport.class) {
+                t = shared;
+                if (t == null) {
+                    t = new HttpTransport(MAX_IN_FLIGHT);
+                    shared = t;
+                }
+            }
+        }
+        return t;
+    }
+
+    /**
+     * Gets the API base URL, without a trailing slash.
+     * Set -Ddruscripts.api.base=http://localhost:8080/api to point scripts at a local server.
+     */
+    public static String getApiBase() {
+        String base = System.getProperty(API_BASE_PROPERTY, DEFAULT_API_BASE);
+        return base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+    }
+
+    /**
+     * @param maxInFlight Maximum number of requests sent at once
+     */
+    public HttpTransport(int maxInFlight) {
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * POST a JSON body.
+     *
+     * @return the response; completes exceptionally on connection errors or timeout
+     */
+    public CompletableFuture<HttpResponse<String>> postJson(String url, String json) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+        return send(request);
+    }
+
+    /**
+     * GET a JSON resource.
+     *
+     * @return the response; completes exceptionally on connection errors or timeout
+     */
+    public CompletableFuture<HttpResponse<String>> getJson(String url) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept", "application/json")
+            .GET()
+            .build();
+        return send(request);
+    }
+
+    /**
+     * Queue a request and start it once fewer than the in-flight limit are running.
+     */
+    public CompletableFuture<HttpResponse<String>> send(HttpRequest request) {
+        CompletableFuture<HttpResponse<String>> result = new CompletableFuture<>();
+        waiting.add(() -> {
+            CompletableFuture<HttpResponse<String>> future;
+            try {
+                future = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((response, error) -> {
+                permits.release();
+                if (error != null) {
+                    failed.incrementAndGet();
+                    result.completeExceptionally(error);
+                } else {
+                    completed.incrementAndGet();
+                    result.complete(response);
+                }
+                dispatch();
+            });
+        });
+        dispatch();
+        return result;
+    }
+
+    /**
+     * @return number of requests waiting for an in-flight slot
+     */
+    public int getQueued() {
+        return waiting.size();
+    }
+
+    /**
+     * @return number of requests sent and not yet completed
+     */
+    public int getInFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    private void dispatch() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Runnable next = waiting.poll();
+            if (next == null) {
+                permits.release();
+                return;
+            }
+            next.run();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.druscripts.utils.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Locations of local files written by scripts.
+ * Everything lives under ~/.druscripts, with one directory per script slug.
+ */
+public class ScriptFiles {
+
+    private static final String ROOT_DIR = ".druscripts";
+
+    private ScriptFiles() {}
+
+    /**
+     * Gets the shared directory for all scripts on this host, creating it if needed.
+     *
+     * @throws IOException if the directory cannot be created
+     */
+    public static Path getRootDirectory() throws IOException {
+        Path root = Paths.get(System.getProperty("user.home"), ROOT_DIR);
+        Files.createDirectories(root);
+        return root;
+    }
+
+    /**
+     * Gets the directory for a single script, creating it if needed.
+     *
+     * @param scriptSlug Script identifier (e.g., "dyemaker")
+     * @throws IOException if the directory cannot be created
+     */
+    public static Path getScriptDirectory(String scriptSlug) throws IOException {
+        Path dir = getRootDirectory().resolve(scriptSlug);
+        Files.createDirectories(dir);
+        return dir;
+    }
+}
@@ -7,15 +7,14 @@ public class AreaUtils {
 
     public static boolean isInArea(WorldPosition pos, RectangleArea area) {
         if (pos == null || area == null) return false;
+        // Plane first: most misses in multi-floor areas fail here
+        if (pos.getPlane() != area.getPlane()) return false;
         int px = pos.getX();
-        int py = pos.getY();
-        int pz = pos.getPlane();
         int ax = area.getX();
+        if (px < ax || px >= ax + area.getWidth()) return false;
+        int py = pos.getY();
         int ay = area.getY();
-        int width = area.getWidth();
-        int height = area.getHeight();
-        int plane = area.getPlane();
-        return pz == plane && px >= ax && px < ax + width && py >= ay && py < ay + height;
+        return py >= ay && py < ay + area.getHeight();
     }
 
     public static boolean isInAnyArea(WorldPosition pos, RectangleArea... areas) {
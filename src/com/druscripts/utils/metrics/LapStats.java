@@ -0,0 +1,140 @@
+package com.druscripts.utils.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-lap throughput counters: items per hour, polls per lap and searches per lap.
+ * A search is any Inventory or Bank search() and any scan of the screen for a sprite,
+ * whether made by a task directly or by InventoryCache; see FreeScript.countSearch().
+ * Lap times and items per lap are also kept in histograms for the end-of-session summary.
+ *
+ * Like the lap stats sent to the server, the first completeLap() only marks the
+ * start of the first full lap, so setup and partial laps are not counted.
+ */
+public class LapStats {
+
+    private long lapStartTime = 0;
+    private long lapPolls = 0;
+    private long lapSearches = 0;
+
+    private int laps = 0;
+    private long totalItems = 0;
+    private long totalPolls = 0;
+    private long totalSearches = 0;
+    private long totalTimeMs = 0;
+
+    private int lastItems = 0;
+    private long lastPolls = 0;
+    private long lastSearches = 0;
+    private long lastTimeMs = 0;
+
+    private final Histogram lapTimes = new Histogram();
+    private final Histogram lapItems = new Histogram();
+
+    /**
+     * Count one poll towards the current lap.
+     */
+    public void onPoll() {
+        lapPolls++;
+    }
+
+    /**
+     * Count one item or sprite search towards the current lap.
+     */
+    public void onSearch() {
+        lapSearches++;
+    }
+
+    /**
+     * Close the current lap and start the next one.
+     *
+     * @param items Items made this lap
+     * @return true if a full lap was recorded, false for the first call
+     */
+    public boolean completeLap(int items) {
+        long now = System.currentTimeMillis();
+        boolean recorded = lapStartTime != 0;
+
+        if (recorded) {
+            lastItems = items;
+            lastPolls = lapPolls;
+            lastSearches = lapSearches;
+            lastTimeMs = now - lapStartTime;
+
+            laps++;
+            totalItems += lastItems;
+            totalPolls += lastPolls;
+            totalSearches += lastSearches;
+            totalTimeMs += lastTimeMs;
+
+            lapTimes.record(lastTimeMs);
+            lapItems.record(items);
+        }
+
+        lapStartTime = now;
+        lapPolls = 0;
+        lapSearches = 0;
+        return recorded;
+    }
+
+    public int getLaps() {
+        return laps;
+    }
+
+    /**
+     * @return items per hour over all full laps, or 0 before the first one
+     */
+    public double getItemsPerHour() {
+        return totalTimeMs == 0 ? 0 : totalItems * 3_600_000.0 / totalTimeMs;
+    }
+
+    public double getPollsPerLap() {
+        return laps == 0 ? 0 : (double) totalPolls / laps;
+    }
+
+    public double getSearchesPerLap() {
+        return laps == 0 ? 0 : (double) totalSearches / laps;
+    }
+
+    public long getLastLapTimeMs() {
+        return lastTimeMs;
+    }
+
+    /**
+     * Lap time and items-per-lap distribution over the session, in a fixed key order:
+     * laps, lap_ms_mean, lap_ms_p50/p90/p99, best_lap_ms, worst_lap_ms,
+     * items_per_lap_mean, items_per_lap_p50, items_per_hour.
+     */
+    public Map<String, Number> getSessionSummary() {
+        Map<String, Number> summary = new LinkedHashMap<>();
+        summary.put("laps", laps);
+        summary.put("lap_ms_mean", Math.round(lapTimes.getMean()));
+        summary.put("lap_ms_p50", lapTimes.getPercentile(50));
+        summary.put("lap_ms_p90", lapTimes.getPercentile(90));
+        summary.put("lap_ms_p99", lapTimes.getPercentile(99));
+        summary.put("best_lap_ms", lapTimes.getMin());
+        summary.put("worst_lap_ms", lapTimes.getMax());
+        summary.put("items_per_lap_mean", Math.round(lapItems.getMean() * 10) / 10.0);
+        summary.put("items_per_lap_p50", lapItems.getPercentile(50));
+        summary.put("items_per_hour", Math.round(getItemsPerHour()));
+        return summary;
+    }
+
+    /**
+     * e.g. "Lap 3: 27 items in 41.2s, 38 polls, 212 searches"
+     */
+    public String getLastLapSummary() {
+        return String.format(Locale.ROOT, "Lap %d: %d items in %.1fs, %d polls, %d searches",
+            laps, lastItems, lastTimeMs / 1000.0, lastPolls, lastSearches);
+    }
+
+    /**
+     * e.g. "12 laps, 1620 items/h, 37.5 polls/lap, 205.0 searches/lap"
+     */
+    public String getSummary() {
+        return String.format(Locale.ROOT, "%d laps, %.0f items/h, %.1f polls/lap, %.1f searches/lap",
+            laps, getItemsPerHour(), getPollsPerLap(), getSearchesPerLap());
+    }
+}
@@ -108,7 +108,20 @@ public class PaintStyle {
      * @param lines number of body lines (used to calculate height)
      */
     public static void drawBackground(Canvas c, int width, int lines) {
-        c.fillRect(START_X, START_Y, width, calculateHeightGivenLines(lines),
+        drawBackground(c, START_X, START_Y, width, lines);
+    }
+
+    /**
+     * Draws a panel background at the given position.
+     *
+     * @param c the canvas to draw on
+     * @param x panel left edge
+     * @param y panel top edge
+     * @param width panel width
+     * @param lines number of body lines (used to calculate height)
+     */
+    public static void drawBackground(Canvas c, int x, int y, int width, int lines) {
+        c.fillRect(x, y, width, calculateHeightGivenLines(lines),
                    BACKGROUND_COLOR_PANEL.getRGB(), PANEL_OPACITY);
     }
 
@@ -120,8 +133,21 @@ public class PaintStyle {
      * @return Y position for the next line
      */
     public static int drawTitle(Canvas c, String title) {
-        int textX = START_X + PADDING;
-        int textY = START_Y + PADDING + 14;
+        return drawTitle(c, title, START_X, START_Y);
+    }
+
+    /**
+     * Draws the title of a panel at the given position and returns the Y position for the first body line.
+     *
+     * @param c the canvas to draw on
+     * @param title the title text
+     * @param x panel left edge
+     * @param y panel top edge
+     * @return Y position for the next line
+     */
+    public static int drawTitle(Canvas c, String title, int x, int y) {
+        int textX = x + PADDING;
+        int textY = y + PADDING + 14;
         c.drawText(title, textX, textY, TEXT_COLOR_TITLE.getRGB(), FONT_TITLE);
         return textY + TITLE_HEIGHT;
     }
@@ -136,11 +162,47 @@ public class PaintStyle {
      * @return Y position for the next line
      */
     public static int drawLine(Canvas c, String text, int y, Color color) {
-        int textX = START_X + PADDING;
-        c.drawText(text, textX, y, color.getRGB(), FONT_BODY);
+        return drawLine(c, text, START_X, y, color);
+    }
+
+    /**
+     * Draws a line of text in a panel at the given X position and returns the Y position for the next line.
+     *
+     * @param c the canvas to draw on
+     * @param text the text to draw
+     * @param x panel left edge
+     * @param y current Y position
+     * @param color text color
+     * @return Y position for the next line
+     */
+    public static int drawLine(Canvas c, String text, int x, int y, Color color) {
+        c.drawText(text, x + PADDING, y, color.getRGB(), FONT_BODY);
         return y + LINE_HEIGHT;
     }
 
+    /**
+     * Formats a duration as HH:MM:SS for the runtime line.
+     * Built by hand since it runs every frame.
+     *
+     * @param millis duration in milliseconds
+     * @return the formatted runtime, e.g. "01:05:09"
+     */
+    public static String formatRuntime(long millis) {
+        long seconds = millis / 1000L;
+        long hours = seconds / 3600L;
+        long minutes = (seconds % 3600L) / 60L;
+        long secs = seconds % 60L;
+
+        StringBuilder sb = new StringBuilder(8);
+        if (hours < 10) sb.append('0');
+        sb.append(hours).append(':');
+        if (minutes < 10) sb.append('0');
+        sb.append(minutes).append(':');
+        if (secs < 10) sb.append('0');
+        sb.append(secs);
+        return sb.toString();
+    }
+
     // Private constructor to prevent instantiation
     private PaintStyle() {
         throw new AssertionError("PaintStyle class should not be instantiated");
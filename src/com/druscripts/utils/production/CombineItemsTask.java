@@ -1,14 +1,19 @@
 package com.druscripts.utils.production;
 
+import com.druscripts.utils.script.FreeScript;
+import com.druscripts.utils.script.StateInput;
 import com.druscripts.utils.script.Task;
 import com.druscripts.utils.widget.InventoryUtils;
+import com.druscripts.utils.widget.InventoryWatcher;
 import com.druscripts.utils.widget.exception.CannotOpenWidgetException;
 import com.osmb.api.item.ItemSearchResult;
 import com.osmb.api.item.ItemGroupResult;
 import com.osmb.api.script.Script;
 import com.osmb.api.ui.chatbox.dialogue.DialogueType;
 
+import java.util.EnumSet;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 
 /**
@@ -17,12 +22,15 @@ import java.util.function.Consumer;
  */
 public class CombineItemsTask extends Task {
 
+    private static final Set<StateInput> STATE_INPUTS = EnumSet.of(StateInput.INVENTORY);
+
     private final int primaryItemId;
     private final int secondaryItemId;
     private final int resultItemId;
     private final String taskName;
     private final Consumer<Integer> onItemsCrafted;
     private final boolean useMenuAction;
+    private final InventoryWatcher watcher;
 
     public CombineItemsTask(Script script, int primaryItemId, int secondaryItemId, int resultItemId, String taskName) {
         this(script, primaryItemId, secondaryItemId, resultItemId, taskName, null, false);
@@ -40,6 +48,7 @@ public class CombineItemsTask extends Task {
         this.taskName = taskName;
         this.onItemsCrafted = onItemsCrafted;
         this.useMenuAction = useMenuAction;
+        this.watcher = new InventoryWatcher(script, primaryItemId, secondaryItemId);
     }
 
     @Override
@@ -51,6 +60,11 @@ public class CombineItemsTask extends Task {
         }
     }
 
+    @Override
+    public Set<StateInput> getStateInputs() {
+        return STATE_INPUTS;
+    }
+
     @Override
     public void execute() {
         log("Starting");
@@ -64,6 +78,7 @@ public class CombineItemsTask extends Task {
             return;
         }
 
+        FreeScript.countSearch(script);
         ItemGroupResult inventory = script.getWidgetManager().getInventory().search(
             Set.of(primaryItemId, secondaryItemId)
         );
@@ -144,6 +159,7 @@ public class CombineItemsTask extends Task {
         script.pollFramesHuman(() -> false, 1200, false);
 
         waitUntilCraftingComplete();
+        InventoryUtils.invalidate(script);
 
         try {
             int made = InventoryUtils.getItemCount(script, resultItemId);
@@ -163,12 +179,13 @@ public class CombineItemsTask extends Task {
     private void waitUntilCraftingComplete() {
         log("Crafting...");
 
-        script.pollFramesHuman(() -> {
-            try {
-                return !InventoryUtils.hasAllItems(script, primaryItemId, secondaryItemId);
-            } catch (CannotOpenWidgetException e) {
-                return false;
-            }
-        }, 60000, true);
+        watcher.reset();
+        BooleanSupplier done = () -> watcher.updateIfVisible()
+            && (watcher.getAmount(primaryItemId) == 0 || watcher.getAmount(secondaryItemId) == 0);
+        if (script instanceof FreeScript) {
+            ((FreeScript) script).pollFramesPrepared(done, 60000, true);
+        } else {
+            script.pollFramesHuman(done, 60000, true);
+        }
     }
 }
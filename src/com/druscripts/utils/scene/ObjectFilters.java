@@ -0,0 +1,48 @@
+package com.druscripts.utils.scene;
+
+import com.osmb.api.scene.RSObject;
+
+import java.util.function.Predicate;
+
+/**
+ * Object query predicates shared across scripts.
+ * Written as plain loops since they run against every object in the scene.
+ */
+public class ObjectFilters {
+
+    /**
+     * Matches reachable objects whose name is one of names and that have one of actions.
+     * Comparisons ignore case. canReach() is only checked once name and action match.
+     *
+     * @param names   Accepted object names
+     * @param actions Accepted menu actions
+     */
+    public static Predicate<RSObject> withNameAndAction(String[] names, String[] actions) {
+        String[] acceptedNames = names.clone();
+        String[] acceptedActions = actions.clone();
+        return obj -> {
+            String name = obj.getName();
+            if (name == null || !containsIgnoreCase(acceptedNames, name)) return false;
+
+            String[] objActions = obj.getActions();
+            if (objActions == null) return false;
+            for (String action : objActions) {
+                if (action != null && containsIgnoreCase(acceptedActions, action)) {
+                    return obj.canReach();
+                }
+            }
+            return false;
+        };
+    }
+
+    private static boolean containsIgnoreCase(String[] values, String value) {
+        for (String v : values) {
+            if (v.equalsIgnoreCase(value)) return true;
+        }
+        return false;
+    }
+
+    private ObjectFilters() {
+        throw new AssertionError("ObjectFilters class should not be instantiated");
+    }
+}
@@ -0,0 +1,57 @@
+package com.druscripts.utils.script;
+
+/**
+ * Cancellation flag with a deadline, carried by every StepResult wait.
+ * A token counts as cancelled once cancel() is called or its timeout passes.
+ */
+public class CancellationToken {
+
+    private final long deadline;
+    private volatile String reason;
+
+    /**
+     * @param timeoutMs Time until the token expires, or a negative value for no timeout
+     */
+    public CancellationToken(long timeoutMs) {
+        this.deadline = timeoutMs < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + timeoutMs;
+    }
+
+    /**
+     * Cancel the token. Safe to call from any thread; the first reason given is kept.
+     */
+    public void cancel(String reason) {
+        if (this.reason == null) {
+            this.reason = reason != null ? reason : "Cancelled";
+        }
+    }
+
+    /**
+     * @return true if cancel() was called
+     */
+    public boolean isCancelled() {
+        return reason != null;
+    }
+
+    /**
+     * @return true if the timeout has passed
+     */
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= deadline;
+    }
+
+    /**
+     * @return ms left until the timeout, 0 if already expired
+     */
+    public long getRemainingMs() {
+        if (deadline == Long.MAX_VALUE) return Long.MAX_VALUE;
+        return Math.max(0, deadline - System.currentTimeMillis());
+    }
+
+    /**
+     * @return why the token was cancelled, "Timed out" if it expired, or null if neither
+     */
+    public String getReason() {
+        if (reason != null) return reason;
+        return isExpired() ? "Timed out" : null;
+    }
+}
@@ -1,13 +1,27 @@
 package com.druscripts.utils.script;
 
+import com.druscripts.utils.concurrent.ScriptExecutor;
+import com.druscripts.utils.io.ScriptFiles;
+import com.druscripts.utils.metrics.LapStats;
+import com.druscripts.utils.paint.PaintStyle;
+import com.druscripts.utils.stats.StatKey;
 import com.druscripts.utils.stats.StatsClient;
 import com.druscripts.utils.version.VersionChecker;
+import com.druscripts.utils.widget.InventoryCache;
 import com.osmb.api.script.Script;
 import com.osmb.api.script.ScriptDefinition;
 import com.osmb.api.visual.drawing.Canvas;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 /**
  * Base class for all free DruScripts.
@@ -22,8 +36,18 @@ public abstract class FreeScript extends Script {
     private String title;
     private String version;
     private StatsClient statsClient;
+    private ScriptExecutor executor;
     protected VersionChecker versionChecker;
     protected List<Task> tasks = new ArrayList<>();
+    private final InventoryCache inventoryCache = new InventoryCache(this);
+    private TaskScheduler scheduler;
+    private final TaskProfiler profiler = new TaskProfiler();
+    private final LapStats lapStats = new LapStats();
+    private boolean showTaskProfiler = Boolean.getBoolean("druscripts.profiler");
+    private StepTask activeStep;
+    private final PollPacer pacer = new PollPacer();
+    private Task nextTask;
+    private boolean nextPrepared;
 
     // Update notification styling
     private static final int UPDATE_BG_COLOR = 0xFF2B2B2B;  // Dark gray background
@@ -31,6 +55,15 @@ public abstract class FreeScript extends Script {
     private static final int UPDATE_TEXT_COLOR = 0xFFFF9900;  // Orange text
     private static final java.awt.Font UPDATE_FONT = new java.awt.Font("Arial", java.awt.Font.BOLD, 12);
 
+    // Background executor sizing
+    private static final int EXECUTOR_THREADS = 2;
+    private static final int EXECUTOR_QUEUE = 64;
+    private static final long EXECUTOR_SHUTDOWN_MS = 3000;
+
+    // End-of-session summary
+    private static final StatKey STAT_SESSION_SUMMARY = StatKey.of("session_summary");
+    private static final String SESSION_LOG_FILE = "sessions.log";
+
     public FreeScript(Object scriptCore) {
         super(scriptCore);
     }
@@ -47,23 +80,248 @@ public abstract class FreeScript extends Script {
             this.version = "0.0";
         }
 
+        // Background work runs on the script's own executor, not the shared common pool
+        this.executor = new ScriptExecutor("druscripts-" + getScriptSlug(), EXECUTOR_THREADS, EXECUTOR_QUEUE);
+
         // Initialize stats client
-        this.statsClient = new StatsClient(getScriptSlug(), this.version);
+        this.statsClient = new StatsClient(getScriptSlug(), this.version, this::logBackground, executor);
+        this.statsClient.openOutbox();
 
         // Initialize version checker and start async check
-        this.versionChecker = new VersionChecker(getScriptSlug(), this.version);
+        this.versionChecker = new VersionChecker(getScriptSlug(), this.version, this::logBackground, executor);
         this.versionChecker.checkVersionAsync();
     }
 
+    /**
+     * Logger handed to StatsClient and VersionChecker, which report from executor threads.
+     */
+    private void logBackground(String message) {
+        log(getClass().getSimpleName(), message);
+    }
+
+    @Override
+    public void onStop() {
+        cancelActiveStep("Script stopped");
+        reportSessionSummary();
+        if (statsClient != null) {
+            statsClient.flush();
+        }
+        dumpTaskProfile();
+        if (lapStats.getLaps() > 0) {
+            log(getClass().getSimpleName(), "Throughput: " + lapStats.getSummary());
+        }
+        if (executor != null) {
+            if (!executor.shutdown(EXECUTOR_SHUTDOWN_MS)) {
+                log(getClass().getSimpleName(), "Background work still running after " + EXECUTOR_SHUTDOWN_MS + "ms, interrupted");
+            }
+            log(getClass().getSimpleName(), executor.getSummary());
+        }
+        if (statsClient != null) {
+            log(getClass().getSimpleName(), statsClient.getSummary());
+            statsClient.close();
+        }
+    }
+
     @Override
     public int poll() {
+        lapStats.onPoll();
+        pacer.onPollStart();
+        inventoryCache.nextFrame();
+
+        if (activeStep != null) {
+            int delay = resumeStep();
+            if (delay >= 0) return delay;
+        }
+
+        if (scheduler != null) {
+            Task t = scheduler.select(tasks);
+            if (t == null) return pacer.whenIdle();
+            runTask(t);
+            return pacer.afterTask();
+        }
+
         for (Task t : tasks) {
-            if (t.activate()) {
-                t.execute();
-                return 0;
+            if (profiler.activate(t)) {
+                runTask(t);
+                return pacer.afterTask();
             }
         }
-        return 100;
+        return pacer.whenIdle();
+    }
+
+    private void runTask(Task t) {
+        if (t == nextTask) {
+            // The hint was used; its prepared state belongs to this run
+            nextTask = null;
+            nextPrepared = false;
+        }
+        profiler.execute(t);
+        if (scheduler != null) {
+            scheduler.onExecuted(t);
+        }
+        inventoryCache.invalidate();
+        if (t instanceof StepTask && ((StepTask) t).isWaiting()) {
+            activeStep = (StepTask) t;
+        }
+    }
+
+    /**
+     * Advance the waiting StepTask by one poll.
+     *
+     * @return the poll delay, or -1 if the step ended and a task should be selected as usual
+     */
+    private int resumeStep() {
+        StepTask task = activeStep;
+
+        if (task.isPreemptible()) {
+            for (Task t : tasks) {
+                if (t == task) break;
+                if (profiler.activate(t)) {
+                    activeStep = null;
+                    task.cancel("Preempted by " + t.getClass().getSimpleName());
+                    runTask(t);
+                    return pacer.afterTask();
+                }
+            }
+        }
+
+        switch (task.getPending().check()) {
+            case READY:
+                activeStep = null;
+                runTask(task);
+                return pacer.afterTask();
+            case CANCELLED:
+                activeStep = null;
+                task.cancel(task.getPending().getToken().getReason());
+                return -1;
+            default:
+                if (nextTask != null && !nextPrepared) {
+                    nextPrepared = nextTask.prepare();
+                }
+                return pacer.whileWaiting(task.getPending());
+        }
+    }
+
+    /**
+     * Cancel the waiting StepTask, if any. The next poll selects a task as usual.
+     */
+    public void cancelActiveStep(String reason) {
+        StepTask task = activeStep;
+        activeStep = null;
+        if (task != null) {
+            task.cancel(reason);
+        }
+    }
+
+    /**
+     * Get the pacer that picks poll delays.
+     */
+    public PollPacer getPollPacer() {
+        return pacer;
+    }
+
+    /**
+     * Get the StepTask waiting for its next step, or null.
+     */
+    public StepTask getActiveStep() {
+        return activeStep;
+    }
+
+    /**
+     * Name the task expected to run after the current one.
+     * Its prepare() is called during pollFramesPrepared() and pollFramesUntilPrepared() waits
+     * until the task next runs. Task selection is unchanged: the task still runs only when
+     * no task ahead of it in the list activates.
+     *
+     * @param type Class of a task in the task list; ignored if none matches
+     */
+    public void prepareNext(Class<? extends Task> type) {
+        nextTask = null;
+        nextPrepared = false;
+        for (Task t : tasks) {
+            if (type.isInstance(t)) {
+                nextTask = t;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Same as pollFramesHuman(), but prepares the task named by prepareNext() while waiting.
+     */
+    public boolean pollFramesPrepared(BooleanSupplier condition, int timeout, boolean ignoreTasks) {
+        return pollFramesHuman(preparing(condition), timeout, ignoreTasks);
+    }
+
+    /**
+     * Same as pollFramesUntil(), but prepares the task named by prepareNext() while waiting.
+     */
+    public boolean pollFramesUntilPrepared(BooleanSupplier condition, int timeout, boolean ignoreTasks) {
+        return pollFramesUntil(preparing(condition), timeout, ignoreTasks);
+    }
+
+    private BooleanSupplier preparing(BooleanSupplier condition) {
+        return () -> {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            if (nextTask != null && !nextPrepared) {
+                nextPrepared = nextTask.prepare();
+            }
+            return false;
+        };
+    }
+
+    // Each condition check in a pollFrames wait is one client frame, so the inventory
+    // snapshot is dropped before every check.
+
+    @Override
+    public boolean pollFramesHuman(BooleanSupplier condition, int timeout) {
+        return super.pollFramesHuman(onNewFrame(condition), timeout);
+    }
+
+    @Override
+    public boolean pollFramesHuman(BooleanSupplier condition, int timeout, boolean ignoreTasks) {
+        return super.pollFramesHuman(onNewFrame(condition), timeout, ignoreTasks);
+    }
+
+    @Override
+    public boolean pollFramesUntil(BooleanSupplier condition, int timeout) {
+        return super.pollFramesUntil(onNewFrame(condition), timeout);
+    }
+
+    @Override
+    public boolean pollFramesUntil(BooleanSupplier condition, int timeout, boolean ignoreTasks) {
+        return super.pollFramesUntil(onNewFrame(condition), timeout, ignoreTasks);
+    }
+
+    private BooleanSupplier onNewFrame(BooleanSupplier condition) {
+        return () -> {
+            inventoryCache.nextFrame();
+            return condition.getAsBoolean();
+        };
+    }
+
+    /**
+     * Select tasks with a TaskScheduler instead of checking every activate() on each poll.
+     * Only tasks that declare their state inputs benefit; the rest are still checked every poll.
+     */
+    protected void enableTaskScheduler() {
+        this.scheduler = new TaskScheduler(this);
+    }
+
+    /**
+     * Value of the STAGE state input. Override in scripts whose tasks depend on a stage.
+     */
+    protected int getStageState() {
+        return 0;
+    }
+
+    /**
+     * Get the task scheduler, or null if the script uses the linear scan.
+     */
+    public TaskScheduler getTaskScheduler() {
+        return scheduler;
     }
 
     /**
@@ -103,7 +361,7 @@ public abstract class FreeScript extends Script {
     }
 
     /**
-     * Send stat to remote server (fire-and-forget).
+     * Queue stat for the remote server (fire-and-forget). Sent in batches; see StatsClient.
      */
     public void sendStat(String statName, Object value) {
         if (statsClient != null) {
@@ -111,6 +369,43 @@ public abstract class FreeScript extends Script {
         }
     }
 
+    public void sendStat(String statName, long value) {
+        if (statsClient != null) {
+            statsClient.sendStat(statName, value);
+        }
+    }
+
+    public void sendStat(String statName, double value) {
+        if (statsClient != null) {
+            statsClient.sendStat(statName, value);
+        }
+    }
+
+    /**
+     * Queue stat under a pre-encoded key. Allocation-free; prefer this for per-lap stats.
+     */
+    public void sendStat(StatKey key, long value) {
+        if (statsClient != null) {
+            statsClient.sendStat(key, value);
+        }
+    }
+
+    public void sendStat(StatKey key, double value) {
+        if (statsClient != null) {
+            statsClient.sendStat(key, value);
+        }
+    }
+
+    /**
+     * Aggregate a stat locally and send sum/count/min/max once per window
+     * instead of one event per sendStat() call. Call after onStart().
+     */
+    public void declareCounter(StatKey key) {
+        if (statsClient != null) {
+            statsClient.declareCounter(key);
+        }
+    }
+
     /**
      * Get the stats client for direct access if needed.
      */
@@ -118,6 +413,73 @@ public abstract class FreeScript extends Script {
         return statsClient;
     }
 
+    /**
+     * Get the executor for work that must stay off the game thread.
+     * Null before onStart().
+     */
+    public ScriptExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Record the end of a lap for the throughput counters and log its polls and searches.
+     * Also flushes queued stats. Call once per lap, after the script sends its lap stats.
+     *
+     * @param items Items made during the lap
+     */
+    public void recordLap(int items) {
+        if (statsClient != null) {
+            statsClient.flush();
+        }
+        if (lapStats.completeLap(items)) {
+            log(getClass().getSimpleName(), lapStats.getLastLapSummary() + " (" + lapStats.getSummary() + ")");
+        }
+    }
+
+    /**
+     * Count one Inventory or Bank search(), or one screen scan for a sprite, towards the
+     * current lap's searches. Call next to every such search; does nothing if the script
+     * is not a FreeScript.
+     */
+    public static void countSearch(Script script) {
+        if (script instanceof FreeScript) {
+            ((FreeScript) script).lapStats.onSearch();
+        }
+    }
+
+    /**
+     * Get the per-lap throughput counters.
+     */
+    public LapStats getLapStats() {
+        return lapStats;
+    }
+
+    /**
+     * Get the frame-scoped inventory snapshot used by InventoryUtils.
+     */
+    public InventoryCache getInventoryCache() {
+        return inventoryCache;
+    }
+
+    /**
+     * Get the per-task activate/execute timings.
+     */
+    public TaskProfiler getTaskProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Show or hide the task timing panel drawn by paintTaskProfiler().
+     * Defaults to the druscripts.profiler system property.
+     */
+    public void setShowTaskProfiler(boolean show) {
+        this.showTaskProfiler = show;
+    }
+
+    public boolean isShowTaskProfiler() {
+        return showTaskProfiler;
+    }
+
     /**
      * Get the version checker for direct access if needed.
      */
@@ -166,6 +528,91 @@ public abstract class FreeScript extends Script {
         c.drawText(subtext, x + 10, y + 32, 0xFFCCCCCC, new java.awt.Font("Arial", java.awt.Font.PLAIN, 10));
     }
 
+    /**
+     * Paint per-task timings to the right of the main paint panel, if enabled.
+     * Shows wall-clock p50/p95/p99/max in ms for activate (a) and execute (e).
+     *
+     * @param c Canvas to draw on
+     * @param panelWidth Width of the main paint panel (to calculate X position)
+     */
+    protected void paintTaskProfiler(Canvas c, int panelWidth) {
+        if (!showTaskProfiler) {
+            return;
+        }
+
+        List<TaskProfiler.TaskSummary> timings = profiler.getTimings();
+        int width = 330;
+        int x = PaintStyle.START_X + panelWidth + 5;
+        int lines = Math.max(1, timings.size() * 2);
+
+        PaintStyle.drawBackground(c, x, PaintStyle.START_Y, width, lines);
+        int y = PaintStyle.drawTitle(c, "Task timings (p50/p95/p99/max ms)", x, PaintStyle.START_Y);
+        if (timings.isEmpty()) {
+            PaintStyle.drawLine(c, "No tasks run yet", x, y, PaintStyle.TEXT_COLOR_MUTED);
+            return;
+        }
+        for (TaskProfiler.TaskSummary t : timings) {
+            y = PaintStyle.drawLine(c, formatTimings(t.name + " a", t.activateWall), x, y, PaintStyle.TEXT_COLOR_BODY);
+            y = PaintStyle.drawLine(c, formatTimings(t.name + " e", t.executeWall), x, y, PaintStyle.TEXT_COLOR_MUTED);
+        }
+    }
+
+    private static String formatTimings(String label, TaskProfiler.Timing t) {
+        return String.format(Locale.ROOT, "%s: %.1f/%.1f/%.1f/%.1f", label,
+            TaskProfiler.toMillis(t.p50), TaskProfiler.toMillis(t.p95),
+            TaskProfiler.toMillis(t.p99), TaskProfiler.toMillis(t.max));
+    }
+
+    /**
+     * Send the lap time and items-per-lap summary for this session, and append it
+     * to ~/.druscripts/{slug}/sessions.log.
+     */
+    private void reportSessionSummary() {
+        if (lapStats.getLaps() == 0) {
+            return;
+        }
+        Map<String, Number> summary = lapStats.getSessionSummary();
+        if (statsClient != null) {
+            statsClient.sendRecord(STAT_SESSION_SUMMARY, Math.round(lapStats.getItemsPerHour()), summary);
+        }
+
+        StringBuilder line = new StringBuilder()
+            .append(Instant.now()).append(' ')
+            .append(getTitleWithVersion());
+        if (statsClient != null) {
+            line.append(" session=").append(statsClient.getSessionId());
+        }
+        for (Map.Entry<String, Number> entry : summary.entrySet()) {
+            line.append(' ').append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        line.append(System.lineSeparator());
+
+        try {
+            Path file = ScriptFiles.getScriptDirectory(getScriptSlug()).resolve(SESSION_LOG_FILE);
+            Files.writeString(file, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            log(getClass().getSimpleName(), "Session summary written to " + file);
+        } catch (IOException e) {
+            log(getClass().getSimpleName(), "Failed to write session summary: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write the task timings to ~/.druscripts/{slug}/profile-{session}.txt.
+     */
+    private void dumpTaskProfile() {
+        if (profiler.getTimings().isEmpty()) {
+            return;
+        }
+        try {
+            String session = statsClient != null ? statsClient.getSessionId() : String.valueOf(System.currentTimeMillis());
+            Path file = ScriptFiles.getScriptDirectory(getScriptSlug()).resolve("profile-" + session + ".txt");
+            profiler.dump(file, getTitleWithVersion() + " session " + session);
+            log(getClass().getSimpleName(), "Task timings written to " + file);
+        } catch (IOException e) {
+            log(getClass().getSimpleName(), "Failed to write task timings: " + e.getMessage());
+        }
+    }
+
     /**
      * Check if an update is available.
      * Useful for conditional logic in scripts.
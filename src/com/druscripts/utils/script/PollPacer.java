@@ -0,0 +1,78 @@
+package com.druscripts.utils.script;
+
+/**
+ * Picks the delay FreeScript.poll() returns, instead of a fixed 0 or 100ms.
+ *
+ * - After a task runs: 0, since its state change is what the next poll looks at.
+ * - While a StepTask waits: one estimated frame, or less if the step's deadline is sooner.
+ * - When nothing activates: starts at IDLE_MIN_MS and backs off towards IDLE_MAX_MS.
+ *
+ * The frame estimate is a moving average of how long the client takes to call poll()
+ * again after it returned 0.
+ */
+public class PollPacer {
+
+    private static final int IDLE_MIN_MS = 100;
+    private static final int IDLE_MAX_MS = 1000;
+    private static final double IDLE_BACKOFF = 1.5;
+
+    private static final double DEFAULT_FRAME_MS = 30;
+    private static final double MIN_FRAME_MS = 5;
+    private static final double MAX_FRAME_MS = 200;
+    private static final double FRAME_ALPHA = 0.2;
+
+    private double frameMs = DEFAULT_FRAME_MS;
+    private int idleDelay = IDLE_MIN_MS;
+
+    private long lastReturnTime = 0;
+    private int lastDelay = -1;
+
+    /**
+     * Call at the start of every poll to sample the frame cadence.
+     */
+    public void onPollStart() {
+        if (lastDelay == 0 && lastReturnTime != 0) {
+            double sample = System.currentTimeMillis() - lastReturnTime;
+            sample = Math.max(MIN_FRAME_MS, Math.min(MAX_FRAME_MS, sample));
+            frameMs += FRAME_ALPHA * (sample - frameMs);
+        }
+    }
+
+    /**
+     * @return the delay after a task ran
+     */
+    public int afterTask() {
+        idleDelay = IDLE_MIN_MS;
+        return record(0);
+    }
+
+    /**
+     * @return the delay while a step waits on the given result
+     */
+    public int whileWaiting(StepResult pending) {
+        idleDelay = IDLE_MIN_MS;
+        return record((int) Math.min(Integer.MAX_VALUE, pending.getWakeDelayMs((long) frameMs)));
+    }
+
+    /**
+     * @return the delay when no task activated; grows on each consecutive idle poll
+     */
+    public int whenIdle() {
+        int delay = idleDelay;
+        idleDelay = (int) Math.min(IDLE_MAX_MS, idleDelay * IDLE_BACKOFF);
+        return record(delay);
+    }
+
+    /**
+     * @return estimated ms between client frames
+     */
+    public double getFrameMs() {
+        return frameMs;
+    }
+
+    private int record(int delay) {
+        lastDelay = delay;
+        lastReturnTime = System.currentTimeMillis();
+        return delay;
+    }
+}
@@ -0,0 +1,16 @@
+package com.druscripts.utils.script;
+
+/**
+ * Game state a Task's activate() can depend on.
+ * Read once per poll by the TaskScheduler to decide which tasks need re-checking.
+ */
+public enum StateInput {
+    /** Free slots and amounts of every item queried through InventoryUtils */
+    INVENTORY,
+    /** Player tile and plane */
+    POSITION,
+    /** Whether the bank interface is open */
+    BANK_VISIBLE,
+    /** Script-defined stage, see FreeScript.getStageState() */
+    STAGE
+}
@@ -0,0 +1,117 @@
+package com.druscripts.utils.script;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * What a StepTask wants to happen before its next step() call.
+ * Returned by StepTask.step() and checked by FreeScript on every poll.
+ */
+public class StepResult {
+
+    public enum Status {
+        /** Still waiting; check again next poll. */
+        WAITING,
+        /** Run the next step. */
+        READY,
+        /** Cancelled or timed out; the task is abandoned. */
+        CANCELLED
+    }
+
+    private static final StepResult DONE = new StepResult(null, new CancellationToken(-1), false, true);
+
+    private final BooleanSupplier condition;
+    private final CancellationToken token;
+    private final boolean readyOnTimeout;
+    private final boolean done;
+
+    private long delayMs = 0;
+    private long readyAt = -1;
+
+    private StepResult(BooleanSupplier condition, CancellationToken token, boolean readyOnTimeout, boolean done) {
+        this.condition = condition;
+        this.token = token;
+        this.readyOnTimeout = readyOnTimeout;
+        this.done = done;
+    }
+
+    /**
+     * The task is finished; FreeScript goes back to selecting tasks.
+     */
+    public static StepResult done() {
+        return DONE;
+    }
+
+    /**
+     * Run the next step on the next poll.
+     */
+    public static StepResult again() {
+        return new StepResult(() -> true, new CancellationToken(-1), false, false);
+    }
+
+    /**
+     * Run the next step once condition is true. Cancels the task if it is still false after timeoutMs.
+     */
+    public static StepResult waitFor(BooleanSupplier condition, long timeoutMs) {
+        return new StepResult(condition, new CancellationToken(timeoutMs), false, false);
+    }
+
+    /**
+     * Run the next step after ms has passed.
+     */
+    public static StepResult sleep(long ms) {
+        return new StepResult(() -> false, new CancellationToken(ms), true, false);
+    }
+
+    /**
+     * Wait a further ms once the condition is met, like the reaction delay of pollFramesHuman().
+     */
+    public StepResult thenDelay(long ms) {
+        if (this != DONE) {
+            this.delayMs = ms;
+        }
+        return this;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public CancellationToken getToken() {
+        return token;
+    }
+
+    /**
+     * How long the caller can sleep before this result needs checking again.
+     * Sleeps and reaction delays wake exactly when due; condition waits are
+     * checked once per frame.
+     *
+     * @param frameMs Estimated ms between client frames
+     */
+    public long getWakeDelayMs(long frameMs) {
+        if (done) return 0;
+        long now = System.currentTimeMillis();
+        if (readyAt >= 0) return Math.max(0, readyAt - now);
+        long remaining = token.getRemainingMs();
+        return readyOnTimeout ? remaining : Math.min(frameMs, remaining);
+    }
+
+    /**
+     * Evaluate the wait. Called once per poll while the step is pending.
+     */
+    public Status check() {
+        if (done) return Status.READY;
+        if (token.isCancelled()) return Status.CANCELLED;
+
+        long now = System.currentTimeMillis();
+        if (readyAt < 0) {
+            boolean met = condition.getAsBoolean() || (readyOnTimeout && token.isExpired());
+            if (met) {
+                readyAt = now + delayMs;
+            } else if (token.isExpired()) {
+                token.cancel("Timed out");
+                return Status.CANCELLED;
+            }
+        }
+        return readyAt >= 0 && now >= readyAt ? Status.READY : Status.WAITING;
+    }
+}
@@ -0,0 +1,86 @@
+package com.druscripts.utils.script;
+
+import com.osmb.api.script.Script;
+
+/**
+ * Task that runs as a series of short steps instead of one blocking execute().
+ *
+ * Each step() does a little work and returns a StepResult saying when the next step
+ * should run. Between steps FreeScript.poll() keeps looping, so a long wait costs one
+ * condition check per poll, can be preempted by a task earlier in the list, and is
+ * cancelled when its timeout passes rather than holding the script.
+ */
+public abstract class StepTask extends Task {
+
+    private static final int HUMAN_DELAY_MIN = 100;
+    private static final int HUMAN_DELAY_MAX = 300;
+
+    private StepResult pending;
+
+    public StepTask(Script script) {
+        super(script);
+    }
+
+    /**
+     * Run the next step.
+     *
+     * @return when to run the following step, or StepResult.done()
+     */
+    protected abstract StepResult step();
+
+    /**
+     * Called when a pending wait is cancelled, times out or is preempted.
+     * Reset any step state here so the next activation starts over.
+     */
+    protected void onCancelled(String reason) {
+        script.log(getClass(), "Step cancelled: " + reason);
+    }
+
+    /**
+     * Whether a task earlier in the task list may interrupt this task while it waits.
+     */
+    public boolean isPreemptible() {
+        return true;
+    }
+
+    /**
+     * Runs a single step. FreeScript resumes the task while a wait is pending.
+     */
+    @Override
+    public final void execute() {
+        pending = step();
+    }
+
+    /**
+     * @return true if the last step returned a wait that has not completed
+     */
+    public boolean isWaiting() {
+        return pending != null && !pending.isDone();
+    }
+
+    /**
+     * @return the pending wait, or null if none
+     */
+    public StepResult getPending() {
+        return pending;
+    }
+
+    /**
+     * Cancel the pending wait and reset the task.
+     */
+    public void cancel(String reason) {
+        StepResult p = pending;
+        pending = null;
+        if (p != null && !p.isDone()) {
+            p.getToken().cancel(reason);
+            onCancelled(p.getToken().getReason());
+        }
+    }
+
+    /**
+     * Random reaction delay for StepResult.thenDelay().
+     */
+    protected int humanDelay() {
+        return script.random(HUMAN_DELAY_MIN, HUMAN_DELAY_MAX);
+    }
+}
@@ -2,6 +2,8 @@ package com.druscripts.utils.script;
 
 import com.osmb.api.script.Script;
 
+import java.util.Set;
+
 /**
  * Abstract base class for free script tasks.
  * Uses the base Script class instead of PremiumScript for simpler dependencies.
@@ -25,4 +27,26 @@ public abstract class Task {
      * Execute the task.
      */
     public abstract void execute();
+
+    /**
+     * State inputs that activate() depends on. When the script uses a TaskScheduler,
+     * activate() is only re-checked after one of these inputs changes.
+     *
+     * @return the inputs, or null if activate() must be checked on every poll
+     */
+    public Set<StateInput> getStateInputs() {
+        return null;
+    }
+
+    /**
+     * Resolve anything execute() will need, such as scene objects, ahead of time.
+     * Called while the previous task waits, after it named this task through
+     * FreeScript.prepareNext(). Must not interact with the game.
+     * The scene can change before execute() runs, so check anything prepared is still valid there.
+     *
+     * @return true once prepared; false to be called again on the next frame
+     */
+    public boolean prepare() {
+        return true;
+    }
 }
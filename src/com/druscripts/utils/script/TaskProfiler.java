@@ -0,0 +1,187 @@
+package com.druscripts.utils.script;
+
+import com.druscripts.utils.metrics.Histogram;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records wall-clock and CPU time of Task.activate() and Task.execute() per Task subclass.
+ * Timings are kept in nanoseconds in fixed-bucket histograms, so recording does not allocate
+ * after the first call for each task class.
+ *
+ * Recording happens on the script thread and reading on the paint thread, so both hold
+ * the profiler's lock; readers get summaries, never the live histograms.
+ */
+public class TaskProfiler {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final boolean cpuTimeSupported;
+    private final Map<Class<?>, TaskTimings> timings = new HashMap<>();
+    private final List<TaskTimings> ordered = new ArrayList<>();
+
+    public TaskProfiler() {
+        this.cpuTimeSupported = THREADS.isCurrentThreadCpuTimeSupported();
+    }
+
+    /**
+     * Calls task.activate() and records how long it took.
+     */
+    public boolean activate(Task task) {
+        TaskTimings t = timingsFor(task);
+        long cpuStart = cpuTime();
+        long wallStart = System.nanoTime();
+        try {
+            return task.activate();
+        } finally {
+            long wall = System.nanoTime() - wallStart;
+            long cpu = cpuTime() - cpuStart;
+            synchronized (this) {
+                t.activateWall.record(wall);
+                if (cpuTimeSupported) t.activateCpu.record(cpu);
+            }
+        }
+    }
+
+    /**
+     * Calls task.execute() and records how long it took.
+     */
+    public void execute(Task task) {
+        TaskTimings t = timingsFor(task);
+        long cpuStart = cpuTime();
+        long wallStart = System.nanoTime();
+        try {
+            task.execute();
+        } finally {
+            long wall = System.nanoTime() - wallStart;
+            long cpu = cpuTime() - cpuStart;
+            synchronized (this) {
+                t.executeWall.record(wall);
+                if (cpuTimeSupported) t.executeCpu.record(cpu);
+            }
+        }
+    }
+
+    /**
+     * @return a summary of every task class seen so far, in first-seen order
+     */
+    public synchronized List<TaskSummary> getTimings() {
+        List<TaskSummary> summaries = new ArrayList<>(ordered.size());
+        for (TaskTimings t : ordered) {
+            summaries.add(new TaskSummary(t));
+        }
+        return summaries;
+    }
+
+    public boolean isCpuTimeSupported() {
+        return cpuTimeSupported;
+    }
+
+    /**
+     * Writes a table of every histogram to the given file, replacing it.
+     */
+    public void dump(Path file, String header) throws IOException {
+        List<TaskSummary> summaries = getTimings();
+        try (Writer w = Files.newBufferedWriter(file); PrintWriter out = new PrintWriter(w)) {
+            out.println(header);
+            out.println("times in ms; cpu = script thread CPU time");
+            out.printf("%-28s %-12s %8s %9s %9s %9s %9s%n", "task", "phase", "count", "p50", "p95", "p99", "max");
+            for (TaskSummary t : summaries) {
+                writeRow(out, t.name, "activate", t.activateWall);
+                if (cpuTimeSupported) writeRow(out, t.name, "activate cpu", t.activateCpu);
+                writeRow(out, t.name, "execute", t.executeWall);
+                if (cpuTimeSupported) writeRow(out, t.name, "execute cpu", t.executeCpu);
+            }
+        }
+    }
+
+    private static void writeRow(PrintWriter out, String task, String phase, Timing t) {
+        out.printf("%-28s %-12s %8d %9.2f %9.2f %9.2f %9.2f%n", task, phase, t.count,
+            toMillis(t.p50), toMillis(t.p95), toMillis(t.p99), toMillis(t.max));
+    }
+
+    /**
+     * Converts nanoseconds to milliseconds.
+     */
+    public static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private synchronized TaskTimings timingsFor(Task task) {
+        Class<?> type = task.getClass();
+        TaskTimings t = timings.get(type);
+        if (t == null) {
+            t = new TaskTimings(type.getSimpleName());
+            timings.put(type, t);
+            ordered.add(t);
+        }
+        return t;
+    }
+
+    private long cpuTime() {
+        return cpuTimeSupported ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    /**
+     * Histograms for a single Task subclass. Guarded by the profiler's lock.
+     */
+    private static class TaskTimings {
+        final String name;
+        final Histogram activateWall = new Histogram();
+        final Histogram activateCpu = new Histogram();
+        final Histogram executeWall = new Histogram();
+        final Histogram executeCpu = new Histogram();
+
+        TaskTimings(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Timings of a single Task subclass at the time getTimings() was called.
+     */
+    public static class TaskSummary {
+        public final String name;
+        public final Timing activateWall;
+        public final Timing activateCpu;
+        public final Timing executeWall;
+        public final Timing executeCpu;
+
+        private TaskSummary(TaskTimings t) {
+            this.name = t.name;
+            this.activateWall = new Timing(t.activateWall);
+            this.activateCpu = new Timing(t.activateCpu);
+            this.executeWall = new Timing(t.executeWall);
+            this.executeCpu = new Timing(t.executeCpu);
+        }
+    }
+
+    /**
+     * Count and percentiles of one histogram, in nanoseconds.
+     */
+    public static class Timing {
+        public final long count;
+        public final long p50;
+        public final long p95;
+        public final long p99;
+        public final long max;
+
+        private Timing(Histogram h) {
+            this.count = h.getCount();
+            this.p50 = h.getPercentile(50);
+            this.p95 = h.getPercentile(95);
+            this.p99 = h.getPercentile(99);
+            this.max = h.getMax();
+        }
+    }
+}
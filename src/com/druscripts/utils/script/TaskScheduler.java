@@ -0,0 +1,187 @@
+package com.druscripts.utils.script;
+
+import com.druscripts.utils.widget.exception.CannotOpenWidgetException;
+import com.osmb.api.location.position.types.WorldPosition;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opt-in replacement for the linear activate() scan in FreeScript.poll().
+ *
+ * Every StateInput used by the task list is read once per poll. Each input
+ * keeps an epoch that is bumped whenever its value changes, and each task
+ * remembers the epochs it last saw. A task that declares its inputs through
+ * Task.getStateInputs() is only re-checked when one of them changed since its own
+ * last check, even if that was several polls ago; otherwise its previous
+ * activate() result is reused. Tasks that declare nothing are checked on every poll.
+ */
+public class TaskScheduler {
+
+    private static final StateInput[] INPUTS = StateInput.values();
+
+    private final FreeScript script;
+    private final long[] values = new long[INPUTS.length];
+    private final long[] epochs = new long[INPUTS.length];
+    private final Map<Task, Entry> entries = new IdentityHashMap<>();
+
+    private boolean firstRead = true;
+    private long checks = 0;
+    private long skips = 0;
+
+    public TaskScheduler(FreeScript script) {
+        this.script = script;
+    }
+
+    /**
+     * Reads the state inputs and returns the first task in list order that should run.
+     *
+     * @param tasks Tasks in priority order
+     * @return the task to execute, or null if none activates
+     */
+    public Task select(List<Task> tasks) {
+        if (entries.size() > tasks.size()) {
+            entries.keySet().retainAll(tasks);
+        }
+
+        int usedMask = 0;
+        for (Task t : tasks) {
+            usedMask |= entry(t).mask;
+        }
+        readInputs(usedMask);
+
+        for (Task t : tasks) {
+            Entry e = entry(t);
+            if (e.declared && e.valid && !changedSince(e)) {
+                skips++;
+            } else {
+                checks++;
+                e.active = script.getTaskProfiler().activate(t);
+                e.valid = true;
+                System.arraycopy(epochs, 0, e.seen, 0, epochs.length);
+            }
+            if (e.active) {
+                return t;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Forces the executed task to be re-checked next poll, since execute() may change
+     * state the task did not declare.
+     */
+    public void onExecuted(Task task) {
+        Entry e = entries.get(task);
+        if (e != null) {
+            e.valid = false;
+        }
+    }
+
+    /**
+     * Forces every task to be re-checked next poll.
+     */
+    public void reset() {
+        entries.clear();
+        firstRead = true;
+    }
+
+    /**
+     * @return number of activate() calls made
+     */
+    public long getChecks() {
+        return checks;
+    }
+
+    /**
+     * @return number of activate() calls avoided by reusing a previous result
+     */
+    public long getSkips() {
+        return skips;
+    }
+
+    private Entry entry(Task task) {
+        Entry e = entries.get(task);
+        if (e == null) {
+            e = new Entry(task.getStateInputs());
+            entries.put(task, e);
+        }
+        return e;
+    }
+
+    /**
+     * @return true if any input the task declared changed since it was last checked
+     */
+    private boolean changedSince(Entry e) {
+        for (StateInput input : INPUTS) {
+            int i = input.ordinal();
+            if ((e.mask & (1 << i)) != 0 && e.seen[i] != epochs[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads every input in usedMask and bumps the epoch of each one whose value changed.
+     * An input that cannot be read counts as changed.
+     */
+    private void readInputs(int usedMask) {
+        for (StateInput input : INPUTS) {
+            int i = input.ordinal();
+            if ((usedMask & (1 << i)) == 0) continue;
+
+            long value;
+            try {
+                value = read(input);
+            } catch (CannotOpenWidgetException e) {
+                epochs[i]++;
+                continue;
+            }
+            if (firstRead || values[i] != value) {
+                values[i] = value;
+                epochs[i]++;
+            }
+        }
+        firstRead = false;
+    }
+
+    private long read(StateInput input) {
+        switch (input) {
+            case INVENTORY:
+                return script.getInventoryCache().getFingerprint();
+            case POSITION:
+                WorldPosition pos = script.getWorldPosition();
+                if (pos == null) return Long.MIN_VALUE;
+                return ((long) pos.getPlane() << 40) | ((long) pos.getX() << 20) | pos.getY();
+            case BANK_VISIBLE:
+                return script.getWidgetManager().getBank().isVisible() ? 1 : 0;
+            case STAGE:
+                return script.getStageState();
+            default:
+                return 0;
+        }
+    }
+
+    private static class Entry {
+        final boolean declared;
+        final int mask;
+        /** Input epochs when activate() was last called */
+        final long[] seen = new long[INPUTS.length];
+        boolean valid = false;
+        boolean active = false;
+
+        Entry(Set<StateInput> inputs) {
+            this.declared = inputs != null;
+            int m = 0;
+            if (inputs != null) {
+                for (StateInput input : inputs) {
+                    m |= 1 << input.ordinal();
+                }
+            }
+            this.mask = m;
+        }
+    }
+}
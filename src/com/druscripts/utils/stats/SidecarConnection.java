@@ -0,0 +1,169 @@
+package com.druscripts.utils.stats;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * StatsClient's connection to a StatsSidecar on this host.
+ * Enabled with -Ddruscripts.stats.sidecar=true; events are written one JSON object per line,
+ * and each batch ends with an empty line that the sidecar answers with "ok" once the batch
+ * is in its journal.
+ *
+ * A batch whose answer does not arrive within ACK_TIMEOUT_MS is sent upstream directly,
+ * so if the sidecar took it after all, it is counted twice rather than lost.
+ */
+final class SidecarConnection implements Closeable {
+
+    private static final String ENABLED_PROPERTY = "druscripts.stats.sidecar";
+    private static final long RETRY_MS = 30000;
+    private static final long ACK_TIMEOUT_MS = 5000;
+    private static final String ACK = "ok";
+
+    private SocketChannel channel;
+    private Selector selector;
+    private SelectionKey key;
+    private final ByteBuffer reply = ByteBuffer.allocate(64);
+    private long retryAt = 0;
+
+    static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    /**
+     * @return true if the sidecar acknowledged the whole batch; false if it is not reachable,
+     *         refused the batch or did not answer in time, in which case the caller sends
+     *         upstream itself
+     */
+    synchronized boolean send(List<String> batch) {
+        if (channel == null && !connect()) {
+            return false;
+        }
+
+        int size = 1;
+        byte[][] lines = new byte[batch.size()][];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = batch.get(i).getBytes(StandardCharsets.UTF_8);
+            size += lines[i].length + 1;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] line : lines) {
+            buffer.put(line).put((byte) '\n');
+        }
+        buffer.put((byte) '\n').flip();
+
+        long deadline = System.currentTimeMillis() + ACK_TIMEOUT_MS;
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.write(buffer) == 0) {
+                    await(SelectionKey.OP_WRITE, deadline);
+                }
+            }
+            if (ACK.equals(readReply(deadline))) {
+                return true;
+            }
+            // Refused; the connection is fine, so keep it for the next batch
+            return false;
+        } catch (IOException e) {
+            disconnect();
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        disconnect();
+    }
+
+    /**
+     * Read one answer line.
+     *
+     * @throws IOException if the sidecar closed the connection, sent too long a line
+     *                     or did not answer before the deadline
+     */
+    private String readReply(long deadline) throws IOException {
+        reply.clear();
+        while (true) {
+            int n = channel.read(reply);
+            if (n < 0) {
+                throw new EOFException("sidecar closed the connection");
+            }
+            for (int i = 0; i < reply.position(); i++) {
+                if (reply.get(i) == '\n') {
+                    // One batch in flight at a time, so nothing follows the answer
+                    return new String(reply.array(), 0, i, StandardCharsets.US_ASCII);
+                }
+            }
+            if (!reply.hasRemaining()) {
+                throw new IOException("unexpected answer from sidecar");
+            }
+            if (n == 0) {
+                await(SelectionKey.OP_READ, deadline);
+            }
+        }
+    }
+
+    private void await(int op, long deadline) throws IOException {
+        long wait = deadline - System.currentTimeMillis();
+        if (wait <= 0) {
+            throw new SocketTimeoutException("no answer from sidecar in " + ACK_TIMEOUT_MS + " ms");
+        }
+        key.interestOps(op);
+        selector.select(wait);
+        selector.selectedKeys().clear();
+    }
+
+    /**
+     * Connect unless a recent attempt failed, so a missing sidecar costs one attempt per RETRY_MS.
+     */
+    private boolean connect() {
+        long now = System.currentTimeMillis();
+        if (now < retryAt) {
+            return false;
+        }
+        SocketChannel ch = null;
+        try {
+            ch = SocketChannel.open(StandardProtocolFamily.UNIX);
+            ch.connect(UnixDomainSocketAddress.of(StatsSidecar.getSocketPath()));
+            ch.configureBlocking(false);
+            Selector sel = Selector.open();
+            key = ch.register(sel, 0);
+            selector = sel;
+            channel = ch;
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            if (ch != null) {
+                try {
+                    ch.close();
+                } catch (IOException ignored) {
+                    // Never connected
+                }
+            }
+            retryAt = now + RETRY_MS;
+            return false;
+        }
+    }
+
+    private void disconnect() {
+        if (channel == null) return;
+        try {
+            selector.close();
+            channel.close();
+        } catch (IOException ignored) {
+            // Already broken
+        }
+        channel = null;
+        selector = null;
+        key = null;
+        retryAt = System.currentTimeMillis() + RETRY_MS;
+    }
+}
@@ -0,0 +1,73 @@
+package com.druscripts.utils.stats;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Running sum, count, min and max of one declared counter over the current window.
+ * Guarded by the owning StatsClient.
+ */
+final class StatAggregate {
+
+    private static final byte[] COUNT = ",\"count\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MIN = ",\"min\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MAX = ",\"max\":".getBytes(StandardCharsets.US_ASCII);
+
+    private double sum;
+    private long count;
+    private double min;
+    private double max;
+
+    void add(double value) {
+        if (count == 0) {
+            min = value;
+            max = value;
+        } else {
+            if (value < min) min = value;
+            if (value > max) max = value;
+        }
+        sum += value;
+        count++;
+    }
+
+    /**
+     * Fold in an aggregate from elsewhere, e.g. another script instance.
+     */
+    void merge(double otherSum, long otherCount, double otherMin, double otherMax) {
+        if (otherCount <= 0) return;
+        if (count == 0) {
+            min = otherMin;
+            max = otherMax;
+        } else {
+            if (otherMin < min) min = otherMin;
+            if (otherMax > max) max = otherMax;
+        }
+        sum += otherSum;
+        count += otherCount;
+    }
+
+    double getSum() {
+        return sum;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Encode as the event value plus count/min/max fields, then start a new window.
+     */
+    void writeTo(StatJsonWriter writer) {
+        writer.writeDouble(sum)
+            .write(COUNT).writeLong(count)
+            .write(MIN).writeDouble(min)
+            .write(MAX).writeDouble(max);
+        sum = 0;
+        count = 0;
+        min = 0;
+        max = 0;
+    }
+}
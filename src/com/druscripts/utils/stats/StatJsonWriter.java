@@ -0,0 +1,119 @@
+package com.druscripts.utils.stats;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reusable byte buffer for encoding one stat event at a time.
+ * Not thread-safe; StatsClient keeps one per thread.
+ */
+final class StatJsonWriter {
+
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] LONG_MIN = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private static final int FRACTION_DIGITS = 6;
+    private static final long FRACTION_SCALE = 1_000_000L;
+    private static final double MAX_SCALED = 9.0e12;
+
+    private byte[] buf = new byte[256];
+    private int length = 0;
+
+    StatJsonWriter reset() {
+        length = 0;
+        return this;
+    }
+
+    StatJsonWriter write(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, length, bytes.length);
+        length += bytes.length;
+        return this;
+    }
+
+    StatJsonWriter writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            return write(LONG_MIN);
+        }
+        ensure(20);
+        if (value < 0) {
+            buf[length++] = '-';
+            value = -value;
+        }
+        int start = length;
+        do {
+            buf[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        reverse(start, length - 1);
+        return this;
+    }
+
+    /**
+     * Writes up to six decimal places. Values JSON cannot hold (NaN, infinity) are written as null.
+     */
+    StatJsonWriter writeDouble(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return write(NULL);
+        }
+        if (value == (long) value) {
+            return writeLong((long) value);
+        }
+        if (Math.abs(value) >= MAX_SCALED) {
+            return write(Double.toString(value).getBytes(StandardCharsets.US_ASCII));
+        }
+
+        long scaled = Math.round(value * FRACTION_SCALE);
+        if (scaled < 0) {
+            ensure(1);
+            buf[length++] = '-';
+            scaled = -scaled;
+        }
+        writeLong(scaled / FRACTION_SCALE);
+
+        long fraction = scaled % FRACTION_SCALE;
+        if (fraction != 0) {
+            ensure(FRACTION_DIGITS + 1);
+            buf[length++] = '.';
+            int digits = FRACTION_DIGITS;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                digits--;
+            }
+            int end = length + digits;
+            for (int i = end - 1; i >= length; i--) {
+                buf[i] = (byte) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            length = end;
+        }
+        return this;
+    }
+
+    byte[] getBuffer() {
+        return buf;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buf, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, length + extra));
+        }
+    }
+
+    private void reverse(int from, int to) {
+        while (from < to) {
+            byte tmp = buf[from];
+            buf[from++] = buf[to];
+            buf[to--] = tmp;
+        }
+    }
+}
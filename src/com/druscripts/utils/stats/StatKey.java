@@ -0,0 +1,67 @@
+package com.druscripts.utils.stats;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A stat name with its JSON encoding done once.
+ *
+ * Keys are interned: StatKey.of() returns the same instance for the same name,
+ * so scripts can hold keys in fields and sending a stat does no string work.
+ * Only the first MAX_INTERNED names are kept, so names built at runtime cannot grow
+ * the table without bound; past that, of() builds a new key each call. Keys compare
+ * by name, so both kinds behave the same.
+ */
+public final class StatKey {
+
+    private static final int MAX_INTERNED = 1024;
+
+    private static final ConcurrentHashMap<String, StatKey> INTERNED = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final byte[] encoded;
+
+    private StatKey(String name) {
+        this.name = name;
+        // Everything between the "stat":" prefix and the value
+        this.encoded = (StatsClient.escapeJson(name) + "\",\"value\":").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param name Stat name (e.g., "lvl_1_xp")
+     * @return the interned key for the name, or a new key if the table is full
+     */
+    public static StatKey of(String name) {
+        StatKey key = INTERNED.get(name);
+        if (key == null) {
+            if (INTERNED.size() >= MAX_INTERNED) {
+                return new StatKey(name);
+            }
+            key = INTERNED.computeIfAbsent(name, StatKey::new);
+        }
+        return key;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    byte[] getEncoded() {
+        return encoded;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof StatKey && name.equals(((StatKey) o).name));
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
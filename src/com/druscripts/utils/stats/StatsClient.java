@@ -1,26 +1,106 @@
 package com.druscripts.utils.stats;
 
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import com.druscripts.utils.concurrent.ScriptExecutor;
+import com.druscripts.utils.http.HttpTransport;
+import com.druscripts.utils.metrics.Histogram;
+
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 /**
  * Fire-and-forget stats client for sending script statistics to the API.
  * Thread-safe and non-blocking.
+ *
+ * Events are queued and sent together as one JSON array to POST /stats/events:
+ *   [{"script":"...","version":"...","stat":"...","value":1,"sessionId":"..."}, ...]
+ * A batch is sent once BATCH_SIZE events are queued, when the oldest queued event is
+ * FLUSH_INTERVAL_MS old, or when flush() is called (lap end, script stop). If the batch
+ * endpoint fails, the events are re-sent one by one to POST /stats/event, and later
+ * batches go to the single-event endpoint too.
+ *
+ * The long and double overloads encode into a per-thread byte buffer that is copied
+ * straight into the outbox, so with interned StatKeys recording a stat allocates
+ * nothing on the script thread.
+ *
+ * Counters declared with declareCounter() are not sent per call. Values are summed
+ * locally and one event per counter is sent per window (at flush() or once the
+ * aggregation window has passed), carrying the sum as its value plus count, min
+ * and max:
+ *   {"script":"...","version":"...","stat":"...","value":27,"count":9,"min":1,"max":6,"sessionId":"..."}
+ *
+ * With openOutbox(), queued events live in a StatsOutbox file until the server accepts
+ * them, so events from offline sessions are sent on a later run instead of dropped.
+ * Without it, or when an event does not fit, events wait in a bounded StatsQueue whose
+ * OverflowPolicy decides what is dropped, so a hung endpoint cannot grow memory use.
+ *
+ * With -Ddruscripts.stats.sidecar=true, batches go to the host's StatsSidecar over a
+ * Unix domain socket and count as delivered once the sidecar has journaled them. They
+ * only go to the API directly while the sidecar is down or does not answer.
  */
 public class StatsClient {
 
-    private static final String STATS_BASE_URL = "https://druscripts.com/api";
+    private static final String STATS_BASE_URL = HttpTransport.getApiBase();
     private static final String STATS_ENDPOINT = STATS_BASE_URL + "/stats/event";
+    private static final String STATS_BATCH_ENDPOINT = STATS_BASE_URL + "/stats/events";
+
+    private static final int BATCH_SIZE = 20;
+    private static final long FLUSH_INTERVAL_MS = 30000;
+    private static final int REPLAY_BATCH_SIZE = 100;
+    private static final long DEFAULT_AGGREGATION_WINDOW_MS = 300000;
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private static final byte[] FIELD_START = {',', '"'};
+    private static final byte[] FIELD_END = {'"', ':'};
+
+    private static final ThreadLocal<StatJsonWriter> WRITER = ThreadLocal.withInitial(StatJsonWriter::new);
 
     private final String scriptSlug;
     private final String version;
     private final String sessionId;
     private final Consumer<String> logger;
+    private final Executor executor;
+    private final HttpTransport transport = HttpTransport.getShared();
+    private final SidecarConnection sidecar = SidecarConnection.isEnabled() ? new SidecarConnection() : null;
+    private final String payloadPrefix;
+    private final String payloadSuffix;
+    private final byte[] prefixBytes;
+    private final byte[] suffixBytes;
+
+    private final StatsQueue queue = new StatsQueue(QUEUE_CAPACITY, StatsQueue.OverflowPolicy.DROP_OLDEST);
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final Histogram enqueueTime = new Histogram();
+    private final long createdAt = System.currentTimeMillis();
+    private final AtomicInteger sinceFlush = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+    // Events from a batch that failed, oldest first. Sent before anything in the queue,
+    // and only touched by the thread that holds draining.
+    private final Deque<StatsQueue.Entry> unsent = new ConcurrentLinkedDeque<>();
+    private volatile long oldestQueuedAt = 0;
+    private volatile boolean batchSupported = true;
+    private volatile StatsOutbox outbox;
+
+    private final Map<StatKey, StatAggregate> counters = new HashMap<>();
+    private long aggregationWindowMs = DEFAULT_AGGREGATION_WINDOW_MS;
+    private long windowStart = System.currentTimeMillis();
 
     /**
      * Create a new stats client.
@@ -28,12 +108,26 @@ public class StatsClient {
      * @param scriptSlug Script identifier (e.g., "roguesden", "dyemaker")
      * @param version    Script version (e.g., "0.1")
      * @param logger     Optional logger for debug messages (can be null)
+     * @param executor   Executor the HTTP requests run on
      */
-    public StatsClient(String scriptSlug, String version, Consumer<String> logger) {
+    public StatsClient(String scriptSlug, String version, Consumer<String> logger, Executor executor) {
         this.scriptSlug = scriptSlug;
         this.version = version;
         this.sessionId = UUID.randomUUID().toString().substring(0, 8);
         this.logger = logger;
+        this.executor = executor;
+        this.payloadPrefix = "{\"script\":\"" + escapeJson(scriptSlug) +
+            "\",\"version\":\"" + escapeJson(version) + "\",\"stat\":\"";
+        this.payloadSuffix = ",\"sessionId\":\"" + sessionId + "\"}";
+        this.prefixBytes = payloadPrefix.getBytes(StandardCharsets.UTF_8);
+        this.suffixBytes = payloadSuffix.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Create a new stats client that sends on the common pool.
+     */
+    public StatsClient(String scriptSlug, String version, Consumer<String> logger) {
+        this(scriptSlug, version, logger, ForkJoinPool.commonPool());
     }
 
     /**
@@ -44,66 +138,502 @@ public class StatsClient {
     }
 
     /**
-     * Send a stat event (fire-and-forget).
+     * Queue a stat event (fire-and-forget). Sent with the next batch.
+     * Whole and decimal numbers go through the allocation-free overloads.
      *
      * @param statName Name of the statistic
      * @param value    Value of the statistic
      */
     public void sendStat(String statName, Object value) {
-        CompletableFuture.runAsync(() -> {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            sendStat(StatKey.of(statName), ((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            sendStat(StatKey.of(statName), ((Number) value).doubleValue());
+        } else {
+            long start = System.nanoTime();
+            String payload = buildPayload(statName, value);
+            enqueued.incrementAndGet();
+            StatsOutbox box = outbox;
+            if (box == null || !box.append(payload)) {
+                queue.offer(StatKey.of(statName), payload);
+            }
+            onQueued();
+            recordEnqueueTime(start);
+        }
+    }
+
+    public void sendStat(String statName, long value) {
+        sendStat(StatKey.of(statName), value);
+    }
+
+    public void sendStat(String statName, double value) {
+        sendStat(StatKey.of(statName), value);
+    }
+
+    /**
+     * Queue a stat event without allocating. Sent with the next batch.
+     *
+     * @param key   Interned stat name
+     * @param value Value of the statistic
+     */
+    public void sendStat(StatKey key, long value) {
+        long start = System.nanoTime();
+        if (!aggregate(key, value)) {
+            enqueue(key, beginEvent(key).writeLong(value));
+        }
+        recordEnqueueTime(start);
+    }
+
+    /**
+     * Queue a stat event without allocating. Sent with the next batch.
+     * Written with up to six decimal places; NaN and infinity are sent as null.
+     *
+     * @param key   Interned stat name
+     * @param value Value of the statistic
+     */
+    public void sendStat(StatKey key, double value) {
+        long start = System.nanoTime();
+        if (!aggregate(key, value)) {
+            enqueue(key, beginEvent(key).writeDouble(value));
+        }
+        recordEnqueueTime(start);
+    }
+
+    /**
+     * Queue one event carrying extra numeric fields after the value, e.g. a session summary:
+     *   {"script":"...","stat":"session_summary","value":1620,"laps":12,"lap_ms_p50":40960,...}
+     *
+     * @param key    Stat name
+     * @param value  Main value of the record
+     * @param fields Extra fields, written in iteration order
+     */
+    public void sendRecord(StatKey key, double value, Map<String, ? extends Number> fields) {
+        StatJsonWriter writer = beginEvent(key).writeDouble(value);
+        for (Map.Entry<String, ? extends Number> field : fields.entrySet()) {
+            writer.write(FIELD_START)
+                .write(escapeJson(field.getKey()).getBytes(StandardCharsets.UTF_8))
+                .write(FIELD_END);
+            Number number = field.getValue();
+            if (number instanceof Double || number instanceof Float) {
+                writer.writeDouble(number.doubleValue());
+            } else {
+                writer.writeLong(number.longValue());
+            }
+        }
+        enqueue(key, writer);
+    }
+
+    /**
+     * Aggregate a stat locally instead of sending every value.
+     * Later sendStat() calls for the key only update the current window.
+     *
+     * @param key Stat to aggregate
+     */
+    public void declareCounter(StatKey key) {
+        synchronized (counters) {
+            counters.putIfAbsent(key, new StatAggregate());
+        }
+    }
+
+    /**
+     * Mark a stat where only the latest value matters, e.g. a bank count, so the
+     * COALESCE overflow policy may replace its queued events. Counts and durations
+     * must not be declared, since each of their values is kept.
+     *
+     * @param key Stat to treat as a gauge
+     */
+    public void declareGauge(StatKey key) {
+        queue.markGauge(key);
+    }
+
+    /**
+     * @param windowMs Longest time values are held before the aggregates are queued
+     *                 (default 5 minutes). flush() always ends the current window.
+     */
+    public void setAggregationWindow(long windowMs) {
+        synchronized (counters) {
+            aggregationWindowMs = windowMs;
+        }
+    }
+
+    /**
+     * @return false if the key is not a declared counter
+     */
+    private boolean aggregate(StatKey key, double value) {
+        boolean windowEnded;
+        synchronized (counters) {
+            StatAggregate aggregate = counters.get(key);
+            if (aggregate == null) return false;
+            aggregate.add(value);
+            windowEnded = System.currentTimeMillis() - windowStart >= aggregationWindowMs;
+        }
+        if (windowEnded) {
+            flush();
+        }
+        return true;
+    }
+
+    /**
+     * Queue one event per counter that had values this window, and start a new window.
+     */
+    private void emitAggregates() {
+        synchronized (counters) {
+            windowStart = System.currentTimeMillis();
+            for (Map.Entry<StatKey, StatAggregate> entry : counters.entrySet()) {
+                StatAggregate aggregate = entry.getValue();
+                if (aggregate.isEmpty()) continue;
+                StatJsonWriter writer = beginEvent(entry.getKey());
+                aggregate.writeTo(writer);
+                store(entry.getKey(), writer);
+            }
+        }
+    }
+
+    private StatJsonWriter beginEvent(StatKey key) {
+        return WRITER.get().reset().write(prefixBytes).write(key.getEncoded());
+    }
+
+    private void enqueue(StatKey key, StatJsonWriter writer) {
+        store(key, writer);
+        onQueued();
+    }
+
+    private void store(StatKey key, StatJsonWriter writer) {
+        writer.write(suffixBytes);
+        enqueued.incrementAndGet();
+        StatsOutbox box = outbox;
+        if (box == null || !box.append(writer.getBuffer(), writer.getLength())) {
+            queue.offer(key, writer.toString());
+        }
+    }
+
+    private void recordEnqueueTime(long start) {
+        long elapsed = System.nanoTime() - start;
+        synchronized (enqueueTime) {
+            enqueueTime.record(elapsed);
+        }
+    }
+
+    private void onQueued() {
+        int pending = sinceFlush.incrementAndGet();
+        if (pending == 1) {
+            oldestQueuedAt = System.currentTimeMillis();
+        }
+        if (pending >= BATCH_SIZE || System.currentTimeMillis() - oldestQueuedAt >= FLUSH_INTERVAL_MS) {
+            flush();
+        }
+    }
+
+    /**
+     * Send everything queued so far, including the current counter aggregates (fire-and-forget).
+     * Call at lap boundaries and when the script stops.
+     *
+     * If a send is already running, it makes one more pass once it finishes, so events
+     * queued after it started are not left behind. Shutting the executor down waits for it.
+     */
+    public void flush() {
+        emitAggregates();
+        sinceFlush.set(0);
+        StatsOutbox box = outbox;
+        if (queue.isEmpty() && unsent.isEmpty() && (box == null || !box.hasPending())) return;
+
+        drainRequested.set(true);
+        ScriptExecutor.runAsync(() -> {
             try {
-                sendStatImpl(statName, value);
+                drain();
             } catch (Exception e) {
                 // Silently fail - stats are best-effort
                 log("[STAT] Error sending: " + e.getMessage());
             }
+        }, executor).exceptionally(e -> {
+            // Executor full or shut down; the events stay queued for the next flush
+            log("[STAT] Flush not scheduled: " + e.getMessage());
+            return null;
         });
     }
 
-    private void sendStatImpl(String statName, Object value) {
+    /**
+     * Keep events in ~/.druscripts/{slug}/stats-outbox.bin until the server accepts them,
+     * and replay any left over from earlier runs.
+     *
+     * There is one outbox per script, not per session: while another client on this
+     * machine runs the same script, this one cannot open it and keeps events in memory.
+     *
+     * @return false if the outbox could not be opened; events are then kept in memory only
+     */
+    public boolean openOutbox() {
         try {
-            String jsonPayload = String.format(
-                "{\"script\":\"%s\",\"version\":\"%s\",\"stat\":\"%s\",\"value\":%s,\"sessionId\":\"%s\"}",
-                escapeJson(scriptSlug),
-                escapeJson(version),
-                escapeJson(statName),
-                value,
-                sessionId
-            );
-
-            URL url = new URL(STATS_ENDPOINT);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("Accept", "application/json");
-            conn.setDoOutput(true);
-            conn.setConnectTimeout(5000);
-            conn.setReadTimeout(5000);
-
-            try (OutputStream os = conn.getOutputStream()) {
-                byte[] input = jsonPayload.getBytes(StandardCharsets.UTF_8);
-                os.write(input, 0, input.length);
+            outbox = StatsOutbox.open(scriptSlug);
+            if (outbox.hasPending()) {
+                log("[STAT] Replaying " + outbox.getPendingBytes() + " bytes of unsent stats");
+                flush();
             }
+            return true;
+        } catch (IOException e) {
+            log("[STAT] Outbox unavailable: " + e.getMessage());
+            return false;
+        }
+    }
 
-            int responseCode = conn.getResponseCode();
-            if (responseCode != 201 && responseCode != 200) {
-                log(String.format("[STAT] Server returned %d for %s", responseCode, statName));
+    /**
+     * Close the outbox and the sidecar connection. Call after the executor has finished sending.
+     */
+    public void close() {
+        closeOutbox();
+        if (sidecar != null) {
+            sidecar.close();
+        }
+    }
+
+    /**
+     * Close the outbox. Call after the executor has finished sending.
+     */
+    public void closeOutbox() {
+        StatsOutbox box = outbox;
+        outbox = null;
+        if (box == null) return;
+        try {
+            box.close();
+        } catch (IOException e) {
+            log("[STAT] Failed to close outbox: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the outbox, or null if events are kept in memory only
+     */
+    public StatsOutbox getOutbox() {
+        return outbox;
+    }
+
+    /**
+     * Set what the in-memory queue drops when it is full (default DROP_OLDEST).
+     * COALESCE only replaces stats declared with declareGauge().
+     */
+    public void setOverflowPolicy(StatsQueue.OverflowPolicy policy) {
+        queue.setPolicy(policy);
+    }
+
+    /**
+     * @return events recorded, including counter aggregates
+     */
+    public long getEnqueued() {
+        return enqueued.get();
+    }
+
+    /**
+     * @return events the server accepted
+     */
+    public long getSent() {
+        return sent.get();
+    }
+
+    /**
+     * @return events dropped because the memory queue or the outbox was full
+     */
+    public long getDropped() {
+        StatsOutbox box = outbox;
+        return queue.getDropped() + queue.getCoalesced() + (box != null ? box.getDropped() : 0);
+    }
+
+    /**
+     * @return events kept for another attempt after a failed send
+     */
+    public long getRetried() {
+        return retried.get();
+    }
+
+    /**
+     * One-line summary of delivery counters for logging.
+     */
+    public String getSummary() {
+        StatsOutbox box = outbox;
+        return "stats: enqueued=" + enqueued.get() +
+            ", sent=" + sent.get() + " (" + String.format(Locale.ROOT, "%.2f", getSentPerSecond()) + "/s)" +
+            ", dropped=" + getDropped() +
+            " (coalesced " + queue.getCoalesced() + ")" +
+            ", retried=" + retried.get() +
+            ", queued=" + (queue.size() + unsent.size()) +
+            (box != null ? ", outbox=" + box.getPendingBytes() + "B" : "") +
+            ", enqueue p50/p99/max=" + getEnqueueMicros(50) + "/" + getEnqueueMicros(99) + "/" + getEnqueueMicros(100) + "us";
+    }
+
+    /**
+     * @return time sendStat() took on the calling thread at the given percentile, in microseconds
+     */
+    public long getEnqueueMicros(double percentile) {
+        synchronized (enqueueTime) {
+            return (percentile >= 100 ? enqueueTime.getMax() : enqueueTime.getPercentile(percentile)) / 1000;
+        }
+    }
+
+    /**
+     * @return events delivered per second since the client was created
+     */
+    public double getSentPerSecond() {
+        long elapsed = System.currentTimeMillis() - createdAt;
+        return elapsed <= 0 ? 0 : sent.get() * 1000.0 / elapsed;
+    }
+
+    /**
+     * Sends until nothing is left, passing again for every flush() made meanwhile.
+     * Only one thread drains at a time; a flush() that finds one running leaves the
+     * work to it.
+     */
+    private void drain() {
+        while (drainRequested.get() && draining.compareAndSet(false, true)) {
+            try {
+                drainRequested.set(false);
+                if (!drainOnce()) {
+                    // Server unreachable; the next flush tries again
+                    return;
+                }
+            } finally {
+                draining.set(false);
             }
+        }
+    }
+
+    /**
+     * @return false if sending stopped because the server did not take a batch
+     */
+    private boolean drainOnce() {
+        List<StatsQueue.Entry> entries = new ArrayList<>();
+        List<String> batch = new ArrayList<>();
+        while (!unsent.isEmpty() || !queue.isEmpty()) {
+            entries.clear();
+            batch.clear();
+            StatsQueue.Entry entry;
+            while (entries.size() < REPLAY_BATCH_SIZE && (entry = nextEntry()) != null) {
+                entries.add(entry);
+                batch.add(entry.payload);
+            }
+            if (batch.isEmpty()) break;
+
+            int delivered = sendBatchImpl(batch);
+            sent.addAndGet(delivered);
+            if (delivered < batch.size()) {
+                // Keep the rest, in order, ahead of anything queued since
+                for (int i = entries.size() - 1; i >= delivered; i--) {
+                    unsent.addFirst(entries.get(i));
+                }
+                retried.addAndGet(entries.size() - delivered);
+                return false;
+            }
+        }
+
+        StatsOutbox box = outbox;
+        if (box == null) return true;
+        while (true) {
+            StatsOutbox.Pending pending = box.peek(REPLAY_BATCH_SIZE);
+            if (pending.payloads.isEmpty()) return true;
+            int delivered = sendBatchImpl(pending.payloads);
+            box.commit(pending.firstSequence, delivered);
+            sent.addAndGet(delivered);
+            if (delivered < pending.payloads.size()) {
+                // The rest stays in the outbox for the next flush
+                retried.addAndGet(pending.payloads.size() - delivered);
+                return false;
+            }
+        }
+    }
+
+    private StatsQueue.Entry nextEntry() {
+        StatsQueue.Entry entry = unsent.pollFirst();
+        return entry != null ? entry : queue.poll();
+    }
+
+    /**
+     * @return number of events delivered, counting from the oldest
+     */
+    private int sendBatchImpl(List<String> batch) {
+        if (sidecar != null && sidecar.send(batch)) {
+            return batch.size();
+        }
+
+        if (batchSupported && batch.size() > 1) {
+            StringBuilder json = new StringBuilder(batch.size() * 128).append('[');
+            for (int i = 0; i < batch.size(); i++) {
+                if (i > 0) json.append(',');
+                json.append(batch.get(i));
+            }
+            json.append(']');
+
+            try {
+                int responseCode = post(STATS_BATCH_ENDPOINT, json.toString());
+                if (responseCode == 201 || responseCode == 200) {
+                    return batch.size();
+                }
+                log(String.format("[STAT] Batch endpoint returned %d, sending %d events singly", responseCode, batch.size()));
+                if (responseCode == 404 || responseCode == 405) {
+                    batchSupported = false;
+                }
+            } catch (Exception e) {
+                log(String.format("[STAT] Failed to send batch of %d: %s", batch.size(), e.getMessage()));
+                return 0;
+            }
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (!sendStatImpl(batch.get(i))) {
+                return i;
+            }
+        }
+        return batch.size();
+    }
 
-            conn.disconnect();
+    /**
+     * @return false if the event should be retried later; events the server
+     *         rejects outright count as handled so they do not block the outbox
+     */
+    private boolean sendStatImpl(String payload) {
+        try {
+            int responseCode = post(STATS_ENDPOINT, payload);
+            if (responseCode != 201 && responseCode != 200) {
+                log(String.format("[STAT] Server returned %d for %s", responseCode, payload));
+            }
+            return responseCode < 500;
         } catch (Exception e) {
-            log(String.format("[STAT] Failed to send %s: %s", statName, e.getMessage()));
+            log(String.format("[STAT] Failed to send %s: %s", payload, e.getMessage()));
+            return false;
+        }
+    }
+
+    /**
+     * Waits for the response so drain() can commit outbox events in order. This only
+     * parks the executor thread; the shared transport sends without blocking.
+     */
+    private int post(String endpoint, String jsonPayload) throws Exception {
+        try {
+            return transport.postJson(endpoint, jsonPayload).get().statusCode();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
         }
     }
 
+    /**
+     * Builds the event JSON. Script and version are fixed per client, so only
+     * the stat name and value are appended per call.
+     */
+    private String buildPayload(String statName, Object value) {
+        return new StringBuilder(payloadPrefix.length() + 64)
+            .append(payloadPrefix)
+            .append(escapeJson(statName))
+            .append("\",\"value\":")
+            .append(value)
+            .append(payloadSuffix)
+            .toString();
+    }
+
     private void log(String message) {
         if (logger != null) {
             logger.accept(message);
         }
     }
 
-    private static String escapeJson(String s) {
+    static String escapeJson(String s) {
         if (s == null) return "";
+        if (!needsEscape(s)) return s;
         return s.replace("\\", "\\\\")
                 .replace("\"", "\\\"")
                 .replace("\n", "\\n")
@@ -111,6 +641,14 @@ public class StatsClient {
                 .replace("\t", "\\t");
     }
 
+    private static boolean needsEscape(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' || c == '"' || c == '\n' || c == '\r' || c == '\t') return true;
+        }
+        return false;
+    }
+
     public String getSessionId() {
         return sessionId;
     }
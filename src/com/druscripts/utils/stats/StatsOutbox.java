@@ -0,0 +1,262 @@
+package com.druscripts.utils.stats;
+
+import com.druscripts.utils.io.ScriptFiles;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory-mapped, append-only file of stats events waiting to be sent.
+ *
+ * Lives at ~/.druscripts/{slug}/stats-outbox.bin, so events that could not be sent
+ * are replayed on a later run. Appending is a copy into the mapped file; nothing
+ * waits on the network or on fsync.
+ *
+ * Layout: a 16 byte header (magic, read offset, write offset, unused) followed by
+ * records of [int length][UTF-8 JSON]. When the end of the file is reached, unread
+ * records are moved back to the start; if that is still not enough room, the oldest
+ * records are dropped. The file is locked so two clients never share one outbox.
+ *
+ * The file is per script slug, so only the first of several clients running the same
+ * script gets an outbox. The others keep events in memory, and lose them if they are
+ * stopped while the server is unreachable.
+ */
+public class StatsOutbox implements Closeable {
+
+    private static final String FILE_NAME = "stats-outbox.bin";
+    private static final int DEFAULT_CAPACITY = 1 << 20;
+
+    private static final int MAGIC = 0x44534F42;  // "DSOB"
+    private static final int HEADER_SIZE = 16;
+    private static final int READ_OFFSET_POS = 4;
+    private static final int WRITE_OFFSET_POS = 8;
+
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final byte[] scratch = new byte[8192];
+
+    private int readOffset;
+    private int writeOffset;
+    private long readSequence = 0;
+    private long dropped = 0;
+
+    /**
+     * A run of unsent events, oldest first.
+     */
+    public static class Pending {
+        public final List<String> payloads;
+        public final long firstSequence;
+
+        Pending(List<String> payloads, long firstSequence) {
+            this.payloads = payloads;
+            this.firstSequence = firstSequence;
+        }
+    }
+
+    /**
+     * Opens the outbox for a script, creating it if needed.
+     *
+     * @param scriptSlug Script identifier (e.g., "dyemaker")
+     * @throws IOException if the file cannot be mapped or another client holds it
+     */
+    public static StatsOutbox open(String scriptSlug) throws IOException {
+        return open(ScriptFiles.getScriptDirectory(scriptSlug).resolve(FILE_NAME), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param file     Outbox file
+     * @param capacity File size in bytes
+     * @throws IOException if the file cannot be mapped or another client holds it
+     */
+    public static StatsOutbox open(Path file, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                throw new IOException("Outbox in use by another client: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            return new StatsOutbox(channel, lock, buffer, capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private StatsOutbox(FileChannel channel, FileLock lock, MappedByteBuffer buffer, int capacity) {
+        this.channel = channel;
+        this.lock = lock;
+        this.buffer = buffer;
+        this.capacity = capacity;
+
+        int read = buffer.getInt(READ_OFFSET_POS);
+        int write = buffer.getInt(WRITE_OFFSET_POS);
+        if (buffer.getInt(0) != MAGIC || read < HEADER_SIZE || write < read || write > capacity) {
+            buffer.putInt(0, MAGIC);
+            read = HEADER_SIZE;
+            write = HEADER_SIZE;
+        }
+        this.readOffset = read;
+        this.writeOffset = write;
+        writeHeader();
+    }
+
+    /**
+     * Appends an event. Drops the oldest unsent events if the outbox is full.
+     *
+     * @return false if the event alone is larger than the outbox
+     */
+    public boolean append(String payload) {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        return append(bytes, bytes.length);
+    }
+
+    /**
+     * Appends an event already encoded as UTF-8 JSON, copying it straight into the file.
+     *
+     * @param bytes  Buffer holding the event
+     * @param length Number of bytes to take from the start of the buffer
+     * @return false if the event alone is larger than the outbox
+     */
+    public synchronized boolean append(byte[] bytes, int length) {
+        int size = 4 + length;
+        if (size > capacity - HEADER_SIZE) {
+            dropped++;
+            return false;
+        }
+
+        if (writeOffset + size > capacity) {
+            compact();
+            while (writeOffset + size > capacity) {
+                readOffset += 4 + buffer.getInt(readOffset);
+                readSequence++;
+                dropped++;
+                compact();
+            }
+        }
+
+        buffer.putInt(writeOffset, length);
+        buffer.put(writeOffset + 4, bytes, 0, length);
+        writeOffset += size;
+        buffer.putInt(WRITE_OFFSET_POS, writeOffset);
+        return true;
+    }
+
+    /**
+     * Reads up to max unsent events without removing them.
+     * Call commit() once they have been delivered.
+     */
+    public synchronized Pending peek(int max) {
+        List<String> payloads = new ArrayList<>();
+        int offset = readOffset;
+        while (offset < writeOffset && payloads.size() < max) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + 4 + length > writeOffset) {
+                // Torn write from a crash; everything after it is unreadable
+                writeOffset = offset;
+                writeHeader();
+                break;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(offset + 4, bytes);
+            payloads.add(new String(bytes, StandardCharsets.UTF_8));
+            offset += 4 + length;
+        }
+        return new Pending(payloads, readSequence);
+    }
+
+    /**
+     * Removes delivered events.
+     *
+     * @param firstSequence Pending.firstSequence of the delivered events
+     * @param count         Number of events delivered, oldest first
+     */
+    public synchronized void commit(long firstSequence, int count) {
+        long end = firstSequence + count;
+        while (readSequence < end && readOffset < writeOffset) {
+            readOffset += 4 + buffer.getInt(readOffset);
+            readSequence++;
+        }
+        if (readOffset >= writeOffset) {
+            readOffset = HEADER_SIZE;
+            writeOffset = HEADER_SIZE;
+        }
+        writeHeader();
+    }
+
+    /**
+     * @return true if there are unsent events
+     */
+    public synchronized boolean hasPending() {
+        return readOffset < writeOffset;
+    }
+
+    /**
+     * @return bytes used by unsent events
+     */
+    public synchronized int getPendingBytes() {
+        return writeOffset - readOffset;
+    }
+
+    /**
+     * @return number of events dropped because the outbox was full
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        try {
+            lock.release();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Moves unread records to the start of the file, front to back through a small scratch buffer.
+     * The header is emptied first so a crash part way loses events rather than corrupting the file.
+     */
+    private void compact() {
+        if (readOffset == HEADER_SIZE) return;
+
+        int from = readOffset;
+        int length = writeOffset - readOffset;
+
+        readOffset = HEADER_SIZE;
+        writeOffset = HEADER_SIZE;
+        writeHeader();
+
+        for (int done = 0; done < length; done += scratch.length) {
+            int chunk = Math.min(scratch.length, length - done);
+            buffer.get(from + done, scratch, 0, chunk);
+            buffer.put(HEADER_SIZE + done, scratch, 0, chunk);
+        }
+        writeOffset = HEADER_SIZE + length;
+        writeHeader();
+    }
+
+    private void writeHeader() {
+        buffer.putInt(READ_OFFSET_POS, readOffset);
+        buffer.putInt(WRITE_OFFSET_POS, writeOffset);
+    }
+}
@@ -0,0 +1,193 @@
+package com.druscripts.utils.stats;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring of stat events between the script thread and the sender.
+ *
+ * Each slot carries a sequence number saying whether it is free for the producer
+ * at a position or holds an event for the consumer at that position, so offer()
+ * and poll() are a CAS on the tail or head and never block. What happens when the
+ * ring is full is decided by the OverflowPolicy.
+ */
+public class StatsQueue {
+
+    public enum OverflowPolicy {
+        /** Drop the oldest queued event to make room */
+        DROP_OLDEST,
+        /** Drop the event being added */
+        DROP_NEWEST,
+        /**
+         * Replace a queued event for the same gauge stat, else drop the oldest.
+         * Only stats passed to markGauge() are replaced, since replacing a count loses it.
+         */
+        COALESCE
+    }
+
+    static final class Entry {
+        final StatKey key;
+        final String payload;
+
+        Entry(StatKey key, String payload) {
+            this.key = key;
+            this.payload = payload;
+        }
+    }
+
+    private final int mask;
+    private final AtomicReferenceArray<Entry> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final Set<StatKey> gauges = ConcurrentHashMap.newKeySet();
+
+    private volatile OverflowPolicy policy;
+
+    /**
+     * @param capacity Maximum queued events, rounded up to a power of two
+     * @param policy   What to do when the ring is full
+     */
+    public StatsQueue(int capacity, OverflowPolicy policy) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.policy = policy;
+    }
+
+    /**
+     * Queue an event, applying the overflow policy if the ring is full.
+     *
+     * @return false if this event was dropped
+     */
+    public boolean offer(StatKey key, String payload) {
+        Entry entry = new Entry(key, payload);
+        if (tryOffer(entry)) return true;
+
+        OverflowPolicy p = policy;
+        if (p == OverflowPolicy.DROP_NEWEST) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        if (p == OverflowPolicy.COALESCE && replace(entry)) {
+            coalesced.incrementAndGet();
+            return true;
+        }
+        do {
+            if (poll() != null) {
+                dropped.incrementAndGet();
+            }
+        } while (!tryOffer(entry));
+        return true;
+    }
+
+    /**
+     * @return the oldest event, or null if the ring is empty
+     */
+    Entry poll() {
+        long pos = head.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    Entry entry = slots.getAndSet(index, null);
+                    sequences.set(index, pos + mask + 1);
+                    return entry;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return null;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public void setPolicy(OverflowPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Let COALESCE replace queued events for a stat where only the latest value matters.
+     */
+    public void markGauge(StatKey key) {
+        gauges.add(key);
+    }
+
+    /**
+     * @return events dropped because the ring was full
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return events that replaced a queued event for the same stat
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    private boolean tryOffer(Entry entry) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.set(index, entry);
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Swap in the entry for a queued one with the same gauge key. Fails if the key is
+     * not a gauge, or if the consumer takes the queued entry first, since it swaps the
+     * slot to null.
+     */
+    private boolean replace(Entry entry) {
+        if (!gauges.contains(entry.key)) return false;
+        for (int i = 0; i <= mask; i++) {
+            Entry queued = slots.get(i);
+            if (queued != null && entry.key.equals(queued.key) && slots.compareAndSet(i, queued, entry)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,576 @@
+package com.druscripts.utils.stats;
+
+import com.druscripts.utils.http.HttpTransport;
+import com.druscripts.utils.io.ScriptFiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Per-host stats aggregator shared by every script instance on the machine.
+ *
+ * Listens on the Unix domain socket ~/.druscripts/stats.sock. Scripts started with
+ * -Ddruscripts.stats.sidecar=true write their events there instead of to the API.
+ * Aggregates of StatsClient's declared counters (events with a count) are summed across
+ * instances into one sum/count/min/max event per script, version and stat per window.
+ * Every other event, such as gauges, durations and session summaries, is passed through
+ * unchanged with its own sessionId. Everything goes upstream as one batched stream, so
+ * the host keeps one connection open instead of one per instance. Counter totals are
+ * written to ~/.druscripts/fleet-totals.properties.
+ *
+ * A script ends each batch with an empty line. The batch is appended to the journal
+ * ~/.druscripts/stats-sidecar.journal and synced before it is merged, then answered
+ * with "ok", or with "fail" if it could not be journaled or is over MAX_BATCH_BYTES.
+ * The journal holds everything not yet accepted upstream and is replayed on start, so
+ * a crash loses nothing a script was told was delivered.
+ *
+ * At most MAX_CONNECTIONS scripts are served at once. Further connections are not
+ * accepted until one closes, so those scripts get no answer and send to the API
+ * directly. Lines longer than MAX_LINE_BYTES are dropped.
+ *
+ * Run with: java -cp dyemaker.jar com.druscripts.utils.stats.StatsSidecar
+ */
+public class StatsSidecar {
+
+    private static final String SOCKET_NAME = "stats.sock";
+    private static final String TOTALS_FILE = "fleet-totals.properties";
+    private static final String JOURNAL_FILE = "stats-sidecar.journal";
+
+    private static final long FLUSH_INTERVAL_MS = 30000;
+    private static final int MAX_BATCH = 500;
+    private static final int MAX_PASSTHROUGH = 10000;
+    private static final int MAX_CONNECTIONS = 64;
+    private static final int MAX_LINE_BYTES = 64 * 1024;
+    private static final int MAX_BATCH_BYTES = 1024 * 1024;
+
+    private static final byte[] ACK = "ok\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NACK = "fail\n".getBytes(StandardCharsets.US_ASCII);
+
+    // "key": "string" or "key": number
+    private static final Pattern FIELD = Pattern.compile("\"(\\w+)\"\\s*:\\s*(\"(?:[^\"\\\\]|\\\\.)*\"|[^,}\\s]+)");
+
+    private final Path socketPath;
+    private final Path totalsPath;
+    private final Path journalPath;
+    private final Path sendingPath;
+    private final String batchEndpoint = HttpTransport.getApiBase() + "/stats/events";
+    // Its own, so flushes do not queue behind scripts sharing this JVM; batches go one at a time
+    private final HttpTransport transport = new HttpTransport(1);
+    private final String sessionId = "host-" + UUID.randomUUID().toString().substring(0, 8);
+    private final Consumer<String> logger;
+
+    private final Map<String, Window> windows = new LinkedHashMap<>();
+    private final Map<String, StatAggregate> totals = new LinkedHashMap<>();
+    private final ArrayDeque<String> passthrough = new ArrayDeque<>();
+    private final Set<String> sessions = new HashSet<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Semaphore slots = new Semaphore(MAX_CONNECTIONS);
+    private final Object flushLock = new Object();
+    private FileChannel journal;
+    private long forwarded = 0;
+    private long rejected = 0;
+    private long dropped = 0;
+
+    /**
+     * Merged events for one script, version and stat.
+     */
+    private static final class Window {
+        final byte[] prefix;
+        final StatAggregate aggregate = new StatAggregate();
+
+        Window(String script, String version, String stat) {
+            // Values are still JSON-escaped as received
+            this.prefix = ("{\"script\":" + script + ",\"version\":" + version + ",\"stat\":" + stat + ",\"value\":")
+                .getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path root = ScriptFiles.getRootDirectory();
+        new StatsSidecar(root.resolve(SOCKET_NAME), root.resolve(TOTALS_FILE), root.resolve(JOURNAL_FILE),
+            System.err::println).run();
+    }
+
+    /**
+     * Gets the socket scripts connect to.
+     *
+     * @throws IOException if ~/.druscripts cannot be created
+     */
+    static Path getSocketPath() throws IOException {
+        return ScriptFiles.getRootDirectory().resolve(SOCKET_NAME);
+    }
+
+    /**
+     * @param logger Optional logger for status messages (can be null)
+     */
+    StatsSidecar(Path socketPath, Path totalsPath, Path journalPath, Consumer<String> logger) {
+        this.socketPath = socketPath;
+        this.totalsPath = totalsPath;
+        this.journalPath = journalPath;
+        this.sendingPath = journalPath.resolveSibling(journalPath.getFileName() + ".sending");
+        this.logger = logger;
+    }
+
+    /**
+     * Accept script connections until the process is stopped.
+     */
+    void run() throws IOException {
+        if (isRunning()) {
+            log("Another sidecar is already listening on " + socketPath);
+            return;
+        }
+        Files.deleteIfExists(socketPath);
+        openJournal();
+
+        ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "stats-sidecar-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            flush();
+            try {
+                Files.deleteIfExists(socketPath);
+            } catch (IOException ignored) {
+                // Removed on next start
+            }
+        }));
+
+        // Bounded by slots, which is taken before accept()
+        ExecutorService readers = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "stats-sidecar-client-" + connections.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socketPath));
+            log("Listening on " + socketPath + ", forwarding to " + batchEndpoint);
+            while (true) {
+                if (!slots.tryAcquire()) {
+                    // Scripts left in the backlog meanwhile time out on their first batch
+                    log("Not accepting connections, " + MAX_CONNECTIONS + " already open");
+                    slots.acquireUninterruptibly();
+                }
+                SocketChannel client;
+                try {
+                    client = server.accept();
+                } catch (IOException e) {
+                    slots.release();
+                    throw e;
+                }
+                readers.execute(() -> {
+                    try {
+                        read(client);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private boolean isRunning() {
+        if (!Files.exists(socketPath)) return false;
+        try (SocketChannel probe = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            probe.connect(UnixDomainSocketAddress.of(socketPath));
+            return true;
+        } catch (IOException e) {
+            // Stale socket file from a sidecar that did not shut down cleanly
+            return false;
+        }
+    }
+
+    /**
+     * Merge whatever the journal kept from the last run, then open it for appending.
+     */
+    void openJournal() throws IOException {
+        List<String> events = new ArrayList<>();
+        for (Path path : new Path[] { sendingPath, journalPath }) {
+            if (Files.exists(path)) {
+                for (String event : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                    if (!event.isEmpty()) events.add(event);
+                }
+            }
+        }
+
+        // Back to a single journal, in place before the old files are removed
+        Path temp = Files.createTempFile(journalPath.getParent(), JOURNAL_FILE, ".tmp");
+        try {
+            Files.write(temp, events, StandardCharsets.UTF_8);
+            Files.move(temp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        Files.deleteIfExists(sendingPath);
+
+        synchronized (this) {
+            for (String event : events) {
+                merge(event);
+            }
+            journal = FileChannel.open(journalPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        if (!events.isEmpty()) {
+            log("Replayed " + events.size() + " events from " + journalPath);
+        }
+    }
+
+    /**
+     * Read batches of newline-separated events until the script disconnects, answering
+     * each one. A line over MAX_LINE_BYTES is skipped up to its newline and a batch over
+     * MAX_BATCH_BYTES is refused, so one bad client cannot grow the heap. A batch cut off
+     * by a disconnect was never answered, so it is dropped and the script sends it again.
+     */
+    private void read(SocketChannel client) {
+        byte[] buffer = new byte[8192];
+        ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        List<String> batch = new ArrayList<>();
+        long batchBytes = 0;
+        boolean skipping = false;
+        try (InputStream in = Channels.newInputStream(client)) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                int start = 0;
+                for (int i = 0; i < n; i++) {
+                    if (buffer[i] != '\n') continue;
+                    if (!skipping) {
+                        line.write(buffer, start, i - start);
+                        if (line.size() > MAX_LINE_BYTES) {
+                            dropLongLine();
+                        } else if (line.size() == 0) {
+                            boolean ok = batchBytes <= MAX_BATCH_BYTES && accept(batch);
+                            client.write(ByteBuffer.wrap(ok ? ACK : NACK));
+                            batch.clear();
+                            batchBytes = 0;
+                        } else {
+                            batchBytes += line.size();
+                            if (batchBytes <= MAX_BATCH_BYTES) {
+                                batch.add(line.toString(StandardCharsets.UTF_8));
+                            }
+                        }
+                    }
+                    line.reset();
+                    skipping = false;
+                    start = i + 1;
+                }
+                if (!skipping) {
+                    line.write(buffer, start, n - start);
+                    if (line.size() > MAX_LINE_BYTES) {
+                        line.reset();
+                        skipping = true;
+                        dropLongLine();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Script stopped or crashed; its answered batches are already merged
+        }
+    }
+
+    private void dropLongLine() {
+        synchronized (this) {
+            dropped++;
+        }
+        log("Dropped an event over " + MAX_LINE_BYTES + " bytes");
+    }
+
+    /**
+     * Journal a batch from a script, then merge it.
+     *
+     * @return false if the batch could not be journaled, in which case nothing was merged
+     */
+    synchronized boolean accept(List<String> batch) {
+        try {
+            appendToJournal(batch);
+        } catch (IOException e) {
+            log("Failed to journal " + batch.size() + " events: " + e.getMessage());
+            return false;
+        }
+        for (String event : batch) {
+            merge(event);
+        }
+        return true;
+    }
+
+    /**
+     * Merge one counter aggregate, or queue any other event to pass through.
+     */
+    private void merge(String event) {
+        Map<String, String> fields = new HashMap<>();
+        Matcher matcher = FIELD.matcher(event);
+        while (matcher.find()) {
+            fields.put(matcher.group(1), matcher.group(2));
+        }
+
+        String script = fields.remove("script");
+        String version = fields.remove("version");
+        String stat = fields.remove("stat");
+        String session = fields.remove("sessionId");
+        String value = fields.remove("value");
+        String count = fields.remove("count");
+        String min = fields.remove("min");
+        String max = fields.remove("max");
+        // Our own merged events come back through the journal after a failed flush
+        if (session != null && !session.startsWith("\"host-")) {
+            sessions.add(session);
+        }
+
+        double sum;
+        try {
+            sum = Double.parseDouble(value);
+        } catch (NullPointerException | NumberFormatException e) {
+            sum = Double.NaN;
+        }
+        // Only counter aggregates carry a count; gauges and durations must keep their own values
+        if (script == null || version == null || stat == null || count == null || Double.isNaN(sum) || !fields.isEmpty()) {
+            enqueuePassthrough(event);
+            return;
+        }
+
+        long n;
+        double lo;
+        double hi;
+        try {
+            n = Long.parseLong(count);
+            lo = min != null ? Double.parseDouble(min) : sum;
+            hi = max != null ? Double.parseDouble(max) : sum;
+        } catch (NumberFormatException e) {
+            enqueuePassthrough(event);
+            return;
+        }
+
+        windows.computeIfAbsent(script + '\0' + version + '\0' + stat, k -> new Window(script, version, stat))
+            .aggregate.merge(sum, n, lo, hi);
+        totals.computeIfAbsent(unquote(script) + "." + unquote(stat), k -> new StatAggregate())
+            .merge(sum, n, lo, hi);
+    }
+
+    /**
+     * Send everything merged so far upstream and write the fleet totals.
+     * Events that could not be delivered are kept for the next flush.
+     *
+     * The journal is set aside with the events taken from it and deleted once they are
+     * upstream; events that are kept are written to the new journal first.
+     */
+    void flush() {
+        synchronized (flushLock) {
+            List<String> events = new ArrayList<>();
+            synchronized (this) {
+                if (!rotateJournal()) return;
+                StatJsonWriter writer = new StatJsonWriter();
+                byte[] suffix = (",\"sessionId\":\"" + sessionId + "\"}").getBytes(StandardCharsets.UTF_8);
+                for (Window window : windows.values()) {
+                    if (window.aggregate.isEmpty()) continue;
+                    writer.reset().write(window.prefix);
+                    window.aggregate.writeTo(writer);
+                    events.add(writer.write(suffix).toString());
+                }
+                events.addAll(passthrough);
+                passthrough.clear();
+                writeTotals();
+            }
+
+            for (int start = 0; start < events.size(); start += MAX_BATCH) {
+                List<String> batch = events.subList(start, Math.min(events.size(), start + MAX_BATCH));
+                int status = post(batch);
+                if (status < 200 || status >= 500) {
+                    List<String> kept = events.subList(start, events.size());
+                    synchronized (this) {
+                        try {
+                            appendToJournal(kept);
+                        } catch (IOException e) {
+                            // The set-aside journal still has them and is replayed on start
+                            log("Failed to journal " + kept.size() + " unsent events: " + e.getMessage());
+                            for (String event : kept) {
+                                enqueuePassthrough(event);
+                            }
+                            return;
+                        }
+                        for (String event : kept) {
+                            enqueuePassthrough(event);
+                        }
+                    }
+                    log("Upstream unavailable (" + (status < 0 ? "no response" : status) + "), keeping " +
+                        kept.size() + " events");
+                    deleteSending();
+                    return;
+                }
+                synchronized (this) {
+                    if (status < 300) {
+                        forwarded += batch.size();
+                    } else {
+                        // Retrying a batch the server refuses would block everything behind it
+                        rejected += batch.size();
+                        log("Upstream returned " + status + ", discarding " + batch.size() + " events");
+                    }
+                }
+            }
+            deleteSending();
+            if (!events.isEmpty()) {
+                synchronized (this) {
+                    log("Sent " + events.size() + " events from " + sessions.size() + " sessions (" +
+                        forwarded + " delivered, " + rejected + " rejected, " + dropped + " dropped)");
+                }
+            }
+        }
+    }
+
+    /**
+     * Move the journal aside for the events about to be sent and start a new one.
+     *
+     * @return false if that failed, in which case nothing should be taken from memory
+     */
+    private boolean rotateJournal() {
+        try {
+            if (journal != null) {
+                journal.close();
+                journal = null;
+            }
+            if (Files.exists(sendingPath) && Files.exists(journalPath)) {
+                // Left by a flush whose unsent events could not be journaled again
+                try (FileChannel sending = FileChannel.open(sendingPath, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(journalPath));
+                    while (buffer.hasRemaining()) {
+                        sending.write(buffer);
+                    }
+                    sending.force(false);
+                }
+                Files.delete(journalPath);
+            } else if (Files.exists(journalPath)) {
+                Files.move(journalPath, sendingPath, StandardCopyOption.ATOMIC_MOVE);
+            }
+            journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+            return true;
+        } catch (IOException e) {
+            // Batches are refused until a later flush gets a journal open again
+            log("Failed to rotate the journal: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void deleteSending() {
+        try {
+            Files.deleteIfExists(sendingPath);
+        } catch (IOException e) {
+            log("Failed to delete " + sendingPath + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Append events to the journal, one per line, and sync it to disk.
+     */
+    private void appendToJournal(List<String> events) throws IOException {
+        if (journal == null) {
+            throw new IOException("journal is not open");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(events.size() * 160);
+        for (String event : events) {
+            bytes.write(event.getBytes(StandardCharsets.UTF_8));
+            bytes.write('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+        journal.force(false);
+    }
+
+    /**
+     * @return the response status, or -1 if the request failed
+     */
+    private int post(List<String> batch) {
+        StringBuilder json = new StringBuilder(batch.size() * 160).append('[');
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) json.append(',');
+            json.append(batch.get(i));
+        }
+        json.append(']');
+        try {
+            HttpResponse<String> response = transport.postJson(batchEndpoint, json.toString()).get();
+            return response.statusCode();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private void enqueuePassthrough(String event) {
+        if (passthrough.size() >= MAX_PASSTHROUGH) {
+            passthrough.pollFirst();
+            dropped++;
+        }
+        passthrough.addLast(event);
+    }
+
+    private void writeTotals() {
+        Properties properties = new Properties();
+        properties.setProperty("instances", Integer.toString(sessions.size()));
+        for (Map.Entry<String, StatAggregate> entry : totals.entrySet()) {
+            properties.setProperty(entry.getKey() + ".sum", format(entry.getValue().getSum()));
+            properties.setProperty(entry.getKey() + ".count", Long.toString(entry.getValue().getCount()));
+        }
+        try {
+            Path temp = Files.createTempFile(totalsPath.getParent(), TOTALS_FILE, ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    properties.store(out, "druscripts fleet totals since sidecar start");
+                }
+                Files.move(temp, totalsPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            log("Failed to write totals: " + e.getMessage());
+        }
+    }
+
+    private static String format(double value) {
+        return value == (long) value ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    private static String unquote(String json) {
+        return json.length() >= 2 && json.charAt(0) == '"' ? json.substring(1, json.length() - 1) : json;
+    }
+
+    private void log(String message) {
+        if (logger != null) {
+            logger.accept("[StatsSidecar] " + message);
+        }
+    }
+}
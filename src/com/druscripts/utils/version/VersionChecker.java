@@ -1,10 +1,12 @@
 package com.druscripts.utils.version;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.concurrent.CompletableFuture;
+import com.druscripts.utils.concurrent.ScriptExecutor;
+import com.druscripts.utils.http.HttpTransport;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -12,19 +14,22 @@ import java.util.regex.Pattern;
 /**
  * Utility class for checking script version updates from the druscripts.com API.
  * Performs async version check on startup and provides methods for paint overlay display.
+ *
+ * Versions come from the host-wide VersionManifest, so most starts make no request
+ * at all; the manifest is read on the executor, never on the caller's thread.
  */
 public class VersionChecker {
 
-    private static final String API_BASE = "https://druscripts.com/api/scripts/";
-    private static final int TIMEOUT_MS = 5000;
+    private static final String API_BASE = HttpTransport.getApiBase() + "/scripts/";
 
     private final String scriptSlug;
     private final String currentVersion;
     private final Consumer<String> logger;
+    private final Executor executor;
 
-    private String latestVersion = null;
-    private boolean checkComplete = false;
-    private boolean updateAvailable = false;
+    private volatile String latestVersion = null;
+    private volatile boolean checkComplete = false;
+    private volatile boolean updateAvailable = false;
 
     /**
      * Create a new VersionChecker without logging.
@@ -44,9 +49,22 @@ public class VersionChecker {
      * @param logger         Optional logger for debug messages (can be null)
      */
     public VersionChecker(String scriptSlug, String currentVersion, Consumer<String> logger) {
+        this(scriptSlug, currentVersion, logger, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new VersionChecker that runs its request on the given executor.
+     *
+     * @param scriptSlug     Script identifier (e.g., "piemaker", "roguesden")
+     * @param currentVersion Current script version in major.minor format (e.g., "0.1", "1.0")
+     * @param logger         Optional logger for debug messages (can be null)
+     * @param executor       Executor the response is handled on
+     */
+    public VersionChecker(String scriptSlug, String currentVersion, Consumer<String> logger, Executor executor) {
         this.scriptSlug = scriptSlug;
         this.currentVersion = currentVersion;
         this.logger = logger;
+        this.executor = executor;
     }
 
     /**
@@ -54,48 +72,88 @@ public class VersionChecker {
      * Results can be checked via isCheckComplete(), isUpdateAvailable(), etc.
      */
     public void checkVersionAsync() {
-        CompletableFuture.runAsync(() -> {
-            try {
-                URL url = new URL(API_BASE + scriptSlug + "/version");
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("GET");
-                conn.setRequestProperty("Accept", "application/json");
-                conn.setConnectTimeout(TIMEOUT_MS);
-                conn.setReadTimeout(TIMEOUT_MS);
-
-                int responseCode = conn.getResponseCode();
-                if (responseCode == 200) {
-                    BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(conn.getInputStream())
-                    );
-                    StringBuilder response = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        response.append(line);
-                    }
-                    reader.close();
-
-                    // Simple JSON parsing (avoid external dependencies)
-                    String json = response.toString();
-                    latestVersion = extractJsonValue(json, "version");
-
-                    if (latestVersion != null) {
-                        updateAvailable = compareVersions(currentVersion, latestVersion) < 0;
-                        log("Version check complete. Current: " + currentVersion +
-                            ", Latest: " + latestVersion +
-                            ", Update available: " + updateAvailable);
-                    }
-                } else {
-                    log("Version check failed with status: " + responseCode);
-                }
+        ScriptExecutor.runAsync(this::checkManifest, executor).exceptionally(this::onRejected);
+    }
 
-                conn.disconnect();
-            } catch (Exception e) {
-                log("Version check error: " + e.getMessage());
-            } finally {
+    /**
+     * Use the cached version if there is one, then refresh the manifest if it needs it.
+     */
+    private void checkManifest() {
+        VersionManifest manifest;
+        try {
+            manifest = VersionManifest.open();
+        } catch (IOException e) {
+            log("Version manifest unavailable: " + e.getMessage());
+            checkDirectAsync();
+            return;
+        }
+
+        try {
+            manifest.load();
+            String cached = manifest.getVersion(scriptSlug);
+            if (cached != null) {
+                setLatestVersion(cached);
                 checkComplete = true;
             }
-        });
+            if (!manifest.needsRefresh(scriptSlug)) return;
+
+            if (manifest.refresh(scriptSlug)) {
+                log("Version manifest refreshed");
+            }
+            String latest = manifest.getVersion(scriptSlug);
+            if (latest != null && !latest.equals(cached)) {
+                setLatestVersion(latest);
+            }
+        } catch (Exception e) {
+            log("Version check error: " + e.getMessage());
+        } finally {
+            checkComplete = true;
+        }
+    }
+
+    /**
+     * Ask the API for this script's version only, without the host cache.
+     */
+    private void checkDirectAsync() {
+        HttpTransport.getShared().getJson(API_BASE + scriptSlug + "/version").whenComplete((response, error) ->
+            ScriptExecutor.runAsync(() -> onDirectResponse(response, error), executor).exceptionally(this::onRejected));
+    }
+
+    private void onDirectResponse(HttpResponse<String> response, Throwable error) {
+        try {
+            if (error != null) {
+                log("Version check error: " + error.getMessage());
+            } else if (response.statusCode() == 200) {
+                // Simple JSON parsing (avoid external dependencies)
+                String latest = extractJsonValue(response.body(), "version");
+                if (latest != null) {
+                    setLatestVersion(latest);
+                }
+            } else {
+                log("Version check failed with status: " + response.statusCode());
+            }
+        } catch (Exception e) {
+            log("Version check error: " + e.getMessage());
+        } finally {
+            checkComplete = true;
+        }
+    }
+
+    /**
+     * The executor refused the check, so it will not run; report it as complete.
+     */
+    private Void onRejected(Throwable e) {
+        log("Version check not scheduled: " + e.getMessage());
+        checkComplete = true;
+        return null;
+    }
+
+    private void setLatestVersion(String latest) {
+        latestVersion = latest;
+        updateAvailable = compareVersions(currentVersion, latest) < 0;
+        log("Version check complete. Current: " + currentVersion +
+            ", Latest: " + latest +
+            ", Update available: " + updateAvailable);
     }
 
     /**
@@ -0,0 +1,284 @@
+package com.druscripts.utils.version;
+
+import com.druscripts.utils.http.HttpTransport;
+import com.druscripts.utils.io.ScriptFiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Latest script versions, cached on disk for every script and JVM on this host.
+ *
+ * Lives at ~/.druscripts/version-manifest.properties. One request to
+ * /api/scripts/versions?slugs=a,b,c fetches every script seen on this host, and
+ * it is only made once the cache is older than TTL_MS, using If-None-Match so an
+ * unchanged manifest costs a 304. A lock file makes sure only one JVM refreshes
+ * at a time; the others wait and then read what it wrote.
+ *
+ * Failed requests, and scripts the server does not list, are remembered for
+ * RETRY_TTL_MS so a down API or an unpublished script is not asked again on every start.
+ */
+public class VersionManifest {
+
+    private static final String FILE_NAME = "version-manifest.properties";
+    private static final String LOCK_NAME = "version-manifest.lock";
+    private static final String API_BASE = HttpTransport.getApiBase() + "/scripts/";
+
+    private static final long TTL_MS = 60 * 60 * 1000;
+    private static final long RETRY_TTL_MS = 5 * 60 * 1000;
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private static final String KEY_ETAG = "etag";
+    private static final String KEY_SLUGS = "slugs";
+    private static final String KEY_FETCHED_AT = "fetchedAt";
+    private static final String KEY_FAILED_AT = "failedAt";
+    private static final String VERSION_PREFIX = "version.";
+    private static final String MISSING_PREFIX = "missing.";
+
+    // Flat JSON object: {"dyemaker":"1.1","piemaker":"0.4"}
+    private static final Pattern ENTRY = Pattern.compile("\"([A-Za-z0-9_.-]+)\"\\s*:\\s*\"([^\"]*)\"");
+    private static final Pattern VERSION = Pattern.compile("\"version\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final Path file;
+    private final Path lockFile;
+    private final String apiBase;
+    private volatile Properties entries = new Properties();
+
+    /**
+     * Opens the host-wide manifest. Nothing is read until load() or refresh().
+     *
+     * @throws IOException if ~/.druscripts cannot be created
+     */
+    public static VersionManifest open() throws IOException {
+        Path root = ScriptFiles.getRootDirectory();
+        return new VersionManifest(root.resolve(FILE_NAME), root.resolve(LOCK_NAME), API_BASE);
+    }
+
+    VersionManifest(Path file, Path lockFile, String apiBase) {
+        this.file = file;
+        this.lockFile = lockFile;
+        this.apiBase = apiBase;
+    }
+
+    /**
+     * @return the cached latest version of a script, or null if it has never been fetched
+     */
+    public String getVersion(String scriptSlug) {
+        return entries.getProperty(VERSION_PREFIX + scriptSlug);
+    }
+
+    /**
+     * @return true if the cache was fetched or revalidated within the TTL
+     */
+    public boolean isFresh() {
+        return System.currentTimeMillis() - getFetchedAt() < TTL_MS;
+    }
+
+    public long getFetchedAt() {
+        return getTime(KEY_FETCHED_AT);
+    }
+
+    /**
+     * @return false while a recent request failed, or while the cache is fresh and
+     *         either has the script or recently found the server does not list it
+     */
+    public boolean needsRefresh(String scriptSlug) {
+        long now = System.currentTimeMillis();
+        if (now - getTime(KEY_FAILED_AT) < RETRY_TTL_MS) {
+            return false;
+        }
+        if (!isFresh()) {
+            return true;
+        }
+        return getVersion(scriptSlug) == null && now - getTime(MISSING_PREFIX + scriptSlug) >= RETRY_TTL_MS;
+    }
+
+    private long getTime(String key) {
+        try {
+            return Long.parseLong(entries.getProperty(key, "0"));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Fetch the manifest if needsRefresh() says so. Blocks on the lock and the
+     * request, so call it off the game thread.
+     *
+     * @param scriptSlug Script that needs a version
+     * @return true if this JVM made a request; false if the cache was fresh,
+     *         a recent request failed, another JVM refreshed it, or another script
+     *         in this JVM is refreshing
+     * @throws IOException if the request fails; the failure is cached for RETRY_TTL_MS
+     */
+    public boolean refresh(String scriptSlug) throws IOException, InterruptedException {
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock;
+            try {
+                lock = channel.lock();
+            } catch (OverlappingFileLockException e) {
+                return false;
+            }
+            try {
+                // Another JVM may have refreshed while we waited for the lock
+                load();
+                if (!needsRefresh(scriptSlug)) {
+                    return false;
+                }
+                try {
+                    fetch(scriptSlug);
+                } catch (IOException e) {
+                    saveFailure();
+                    throw e;
+                }
+                return true;
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    private void fetch(String scriptSlug) throws IOException, InterruptedException {
+        Properties updated = new Properties();
+        updated.putAll(entries);
+
+        // Keep asking for the same list while it covers this script, so the ETag stays valid
+        String slugList = entries.getProperty(KEY_SLUGS);
+        if (slugList == null || !Arrays.asList(slugList.split(",")).contains(scriptSlug)) {
+            TreeSet<String> slugs = new TreeSet<>();
+            for (String key : entries.stringPropertyNames()) {
+                if (key.startsWith(VERSION_PREFIX)) {
+                    slugs.add(key.substring(VERSION_PREFIX.length()));
+                }
+            }
+            slugs.add(scriptSlug);
+            slugList = String.join(",", slugs);
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(apiBase + "versions?slugs=" + slugList))
+            .timeout(TIMEOUT)
+            .header("Accept", "application/json")
+            .GET();
+        String etag = entries.getProperty(KEY_ETAG);
+        if (etag != null && slugList.equals(entries.getProperty(KEY_SLUGS))) {
+            request.header("If-None-Match", etag);
+        }
+
+        HttpResponse<String> response = send(request.build());
+        int status = response.statusCode();
+        if (status == 200) {
+            Matcher matcher = ENTRY.matcher(response.body());
+            while (matcher.find()) {
+                updated.setProperty(VERSION_PREFIX + matcher.group(1), matcher.group(2));
+            }
+            updated.setProperty(KEY_SLUGS, slugList);
+            String newEtag = response.headers().firstValue("ETag").orElse(null);
+            if (newEtag != null) {
+                updated.setProperty(KEY_ETAG, newEtag);
+            } else {
+                updated.remove(KEY_ETAG);
+            }
+        } else if (status == 404) {
+            // Server without the manifest endpoint; fall back to this script's version only
+            HttpResponse<String> single = send(HttpRequest.newBuilder(URI.create(apiBase + scriptSlug + "/version"))
+                .timeout(TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build());
+            if (single.statusCode() != 200) {
+                throw new IOException("Version request returned " + single.statusCode());
+            }
+            Matcher matcher = VERSION.matcher(single.body());
+            if (matcher.find()) {
+                updated.setProperty(VERSION_PREFIX + scriptSlug, matcher.group(1));
+            }
+            updated.remove(KEY_ETAG);
+        } else if (status != 304) {
+            throw new IOException("Version manifest request returned " + status);
+        }
+
+        String now = Long.toString(System.currentTimeMillis());
+        if (updated.getProperty(VERSION_PREFIX + scriptSlug) == null) {
+            updated.setProperty(MISSING_PREFIX + scriptSlug, now);
+        } else {
+            updated.remove(MISSING_PREFIX + scriptSlug);
+        }
+        updated.remove(KEY_FAILED_AT);
+        updated.setProperty(KEY_FETCHED_AT, now);
+        save(updated);
+        entries = updated;
+    }
+
+    /**
+     * Record a failed request so no JVM on this host retries it before RETRY_TTL_MS.
+     */
+    private void saveFailure() {
+        Properties updated = new Properties();
+        updated.putAll(entries);
+        updated.setProperty(KEY_FAILED_AT, Long.toString(System.currentTimeMillis()));
+        try {
+            save(updated);
+        } catch (IOException e) {
+            // Still backs off in this JVM
+        }
+        entries = updated;
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        try {
+            return HttpTransport.getShared().send(request).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    /**
+     * Read the cached versions from disk. Blocks on file IO, so call it off the game thread.
+     */
+    public void load() {
+        Properties loaded = new Properties();
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                loaded.load(in);
+            } catch (IOException | IllegalArgumentException e) {
+                // Unreadable cache; treated as empty and rewritten on the next refresh
+                loaded = new Properties();
+            }
+        }
+        entries = loaded;
+    }
+
+    /**
+     * Write to a temp file and rename it over the manifest, so readers never see a partial file.
+     */
+    private void save(Properties updated) throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                updated.store(out, "druscripts version manifest");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.druscripts.utils.widget;
+
+import com.osmb.api.item.ItemGroupResult;
+import com.osmb.api.script.Script;
+import com.druscripts.utils.script.FreeScript;
+import com.druscripts.utils.widget.exception.CannotOpenWidgetException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Frame-scoped inventory snapshot shared by every InventoryUtils query.
+ *
+ * One search is made for the union of the item IDs queried recently, and all
+ * queries within the same frame are answered from that result. FreeScript calls
+ * nextFrame() at the start of each poll and before each pollFrames condition
+ * check, so a snapshot never outlives the frame it was taken in. invalidate()
+ * drops it earlier, after a bank or inventory interaction.
+ */
+public class InventoryCache {
+
+    /** Most item IDs searched at once; the least recently queried are dropped first */
+    private static final int MAX_TRACKED = 16;
+
+    private final Script script;
+    private final Map<Integer, Boolean> trackedIds = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Boolean> eldest) {
+            return size() > MAX_TRACKED;
+        }
+    };
+
+    private ItemGroupResult snapshot;
+    private long frame;
+
+    private long hits = 0;
+    private long misses = 0;
+
+    public InventoryCache(Script script) {
+        this.script = script;
+    }
+
+    /**
+     * Adds item IDs to the set searched each frame, or marks them as recently used.
+     * Drops the current snapshot if any ID was not tracked yet.
+     */
+    public void track(int... itemIds) {
+        boolean added = false;
+        for (int id : itemIds) {
+            added |= trackedIds.put(id, Boolean.TRUE) == null;
+        }
+        if (added) {
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Returns the snapshot for the current frame, opening the inventory tab and
+     * searching if there is none yet.
+     *
+     * @throws CannotOpenWidgetException if the inventory cannot be opened
+     */
+    public ItemGroupResult getSnapshot() {
+        if (snapshot != null) {
+            hits++;
+            return snapshot;
+        }
+
+        misses++;
+        InventoryUtils.ensureInventoryTabOpen(script);
+        ItemGroupResult result = search();
+        if (result == null) {
+            throw new CannotOpenWidgetException("Inventory");
+        }
+        return result;
+    }
+
+    /**
+     * Returns the snapshot for the current frame, searching if there is none yet,
+     * but never opens the inventory tab. Use this in pollFrames conditions.
+     *
+     * @return the snapshot, or null if the inventory is not visible
+     */
+    public ItemGroupResult getSnapshotIfVisible() {
+        if (snapshot != null) {
+            hits++;
+            return snapshot;
+        }
+
+        // Checked first, since search() may switch to the tab itself
+        if (!script.getWidgetManager().getInventory().isOpen()) {
+            return null;
+        }
+        misses++;
+        return search();
+    }
+
+    /**
+     * Tracks the given IDs and returns the current snapshot.
+     */
+    public ItemGroupResult getSnapshot(int... itemIds) {
+        track(itemIds);
+        return getSnapshot();
+    }
+
+    /**
+     * @return true if a snapshot for the current frame is held
+     */
+    public boolean isFresh() {
+        return snapshot != null;
+    }
+
+    /**
+     * Hash of the free slot count and the amount of every tracked item in the current snapshot.
+     * Changes whenever an inventory query could return a different answer.
+     *
+     * @throws CannotOpenWidgetException if the inventory cannot be opened
+     */
+    public long getFingerprint() {
+        ItemGroupResult inv = getSnapshot();
+        long hash = inv.getFreeSlots();
+        for (int id : getTrackedIds()) {
+            int amount = inv.contains(id) ? inv.getAmount(id) : 0;
+            hash = hash * 31 + ((long) id << 20 | amount);
+        }
+        return hash;
+    }
+
+    /**
+     * Starts a new frame: the next query searches again.
+     */
+    public void nextFrame() {
+        frame++;
+        snapshot = null;
+    }
+
+    /**
+     * @return number of frames started so far
+     */
+    public long getFrame() {
+        return frame;
+    }
+
+    /**
+     * Drops the current snapshot. Call after depositing, withdrawing or
+     * interacting with inventory items.
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    /**
+     * Drops the snapshot and every tracked ID.
+     */
+    public void reset() {
+        trackedIds.clear();
+        snapshot = null;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return share of queries answered without a search, 0.0 - 1.0
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    private ItemGroupResult search() {
+        FreeScript.countSearch(script);
+        snapshot = script.getWidgetManager().getInventory().search(getTrackedIds());
+        return snapshot;
+    }
+
+    private Set<Integer> getTrackedIds() {
+        return trackedIds.keySet();
+    }
+}
@@ -3,6 +3,7 @@ package com.druscripts.utils.widget;
 import com.osmb.api.script.Script;
 import com.osmb.api.item.ItemGroupResult;
 import com.osmb.api.ui.tabs.Tab;
+import com.druscripts.utils.script.FreeScript;
 import com.druscripts.utils.widget.exception.CannotOpenWidgetException;
 
 import java.util.Arrays;
@@ -12,6 +13,7 @@ import java.util.stream.Collectors;
 
 /**
  * Utility class for common inventory operations.
+ * For FreeScripts, queries are answered from the script's frame-scoped InventoryCache.
  */
 public class InventoryUtils {
 
@@ -20,7 +22,7 @@ public class InventoryUtils {
      * @param script The script instance
      * @throws CannotOpenWidgetException if inventory cannot be opened
      */
-    private static void ensureInventoryTabOpen(Script script) {
+    static void ensureInventoryTabOpen(Script script) {
         if (script.getWidgetManager().getInventory().isOpen()) return;
 
         script.getWidgetManager().getInventory().open();
@@ -29,6 +31,51 @@ public class InventoryUtils {
         }
     }
 
+    /**
+     * Searches the inventory for the given items, using the script's InventoryCache when available.
+     * @param script The script instance
+     * @param itemIds The item IDs the result must cover
+     * @throws CannotOpenWidgetException if inventory cannot be opened
+     */
+    private static ItemGroupResult search(Script script, int... itemIds) {
+        InventoryCache cache = getCache(script);
+        if (cache != null) {
+            // Opens the tab itself whenever it has to search
+            return cache.getSnapshot(itemIds);
+        }
+
+        ensureInventoryTabOpen(script);
+        Set<Integer> ids = itemIds.length == 0
+            ? Collections.emptySet()
+            : Arrays.stream(itemIds).boxed().collect(Collectors.toSet());
+        FreeScript.countSearch(script);
+        ItemGroupResult inv = script.getWidgetManager().getInventory().search(ids);
+        if (inv == null) {
+            throw new CannotOpenWidgetException("Inventory");
+        }
+        return inv;
+    }
+
+    /**
+     * Gets the inventory cache for a script, or null if the script does not have one.
+     */
+    public static InventoryCache getCache(Script script) {
+        return script instanceof FreeScript ? ((FreeScript) script).getInventoryCache() : null;
+    }
+
+    /**
+     * Drops the cached inventory snapshot.
+     * Call after any bank or inventory interaction that changes the inventory.
+     *
+     * @param script The script instance
+     */
+    public static void invalidate(Script script) {
+        InventoryCache cache = getCache(script);
+        if (cache != null) {
+            cache.invalidate();
+        }
+    }
+
     /**
      * Checks if the inventory is empty.
      *
@@ -36,8 +83,7 @@ public class InventoryUtils {
      * @return true if the inventory is empty (0 items), false otherwise
      */
     public static boolean isEmpty(Script script) {
-        ensureInventoryTabOpen(script);
-        ItemGroupResult inv = script.getWidgetManager().getInventory().search(Collections.emptySet());
+        ItemGroupResult inv = search(script);
         boolean empty = inv.getFreeSlots() == getTotalSlots(script);
         script.log(InventoryUtils.class, empty ? "Inv Empty" : "Inv Not Empty");
         return empty;
@@ -51,8 +97,7 @@ public class InventoryUtils {
      * @throws CannotOpenWidgetException if inventory cannot be opened
      */
     public static int getFreeSlots(Script script) {
-        ensureInventoryTabOpen(script);
-        ItemGroupResult inv = script.getWidgetManager().getInventory().search(Collections.emptySet());
+        ItemGroupResult inv = search(script);
         return inv.getFreeSlots();
     }
 
@@ -74,8 +119,7 @@ public class InventoryUtils {
      * @throws CannotOpenWidgetException if inventory cannot be opened
      */
     public static boolean isFull(Script script) {
-        ensureInventoryTabOpen(script);
-        ItemGroupResult inv = script.getWidgetManager().getInventory().search(Collections.emptySet());
+        ItemGroupResult inv = search(script);
         return inv.isFull();
     }
 
@@ -88,8 +132,7 @@ public class InventoryUtils {
      * @throws CannotOpenWidgetException if inventory cannot be opened
      */
     public static boolean hasItem(Script script, int itemId) {
-        ensureInventoryTabOpen(script);
-        ItemGroupResult inv = script.getWidgetManager().getInventory().search(Set.of(itemId));
+        ItemGroupResult inv = search(script, itemId);
         return inv.contains(itemId);
     }
 
@@ -102,8 +145,7 @@ public class InventoryUtils {
      * @throws CannotOpenWidgetException if inventory cannot be opened
      */
     public static int getItemCount(Script script, int itemId) {
-        ensureInventoryTabOpen(script);
-        ItemGroupResult inv = script.getWidgetManager().getInventory().search(Set.of(itemId));
+        ItemGroupResult inv = search(script, itemId);
         return inv.contains(itemId) ? inv.getAmount(itemId) : 0;
     }
 
@@ -116,9 +158,7 @@ public class InventoryUtils {
      * @throws CannotOpenWidgetException if inventory cannot be opened
      */
     public static boolean hasAllItems(Script script, int... itemIds) {
-        ensureInventoryTabOpen(script);
-        Set<Integer> ids = Arrays.stream(itemIds).boxed().collect(Collectors.toSet());
-        ItemGroupResult inv = script.getWidgetManager().getInventory().search(ids);
+        ItemGroupResult inv = search(script, itemIds);
         for (int id : itemIds) {
             if (!inv.contains(id)) return false;
         }
@@ -134,9 +174,7 @@ public class InventoryUtils {
      * @throws CannotOpenWidgetException if inventory cannot be opened
      */
     public static boolean hasAnyItem(Script script, int... itemIds) {
-        ensureInventoryTabOpen(script);
-        Set<Integer> ids = Arrays.stream(itemIds).boxed().collect(Collectors.toSet());
-        ItemGroupResult inv = script.getWidgetManager().getInventory().search(ids);
+        ItemGroupResult inv = search(script, itemIds);
         for (int id : itemIds) {
             if (inv.contains(id)) return true;
         }
@@ -0,0 +1,196 @@
+package com.druscripts.utils.widget;
+
+import com.osmb.api.item.ItemGroupResult;
+import com.osmb.api.item.ItemSearchResult;
+import com.osmb.api.script.Script;
+import com.druscripts.utils.widget.exception.CannotOpenWidgetException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Watches a fixed set of items and notifies listeners when their amounts or slots change.
+ *
+ * Each update() reads the frame-scoped InventoryCache snapshot, so any number of
+ * watchers, listeners and InventoryUtils queries in the same frame share one search.
+ * Calling update() again within the same frame is a no-op. Outside a FreeScript
+ * the watcher has its own cache, and every update() searches again.
+ *
+ * update() opens the inventory tab if needed; wait conditions use updateIfVisible(),
+ * which does not.
+ */
+public class InventoryWatcher {
+
+    /**
+     * Receives inventory changes. Override only the events you need.
+     */
+    public interface Listener {
+
+        /** Called when the total amount of a watched item goes up. */
+        default void onItemGained(int itemId, int amount) {}
+
+        /** Called when the total amount of a watched item goes down. */
+        default void onItemLost(int itemId, int amount) {}
+
+        /**
+         * Called when the watched item held in a slot changes.
+         * Slots holding no watched item are reported as -1.
+         */
+        default void onSlotChanged(int slot, int oldItemId, int newItemId) {}
+    }
+
+    private static final int EMPTY = -1;
+    private static final int SLOT_COUNT = 28;
+
+    private final InventoryCache cache;
+    private final boolean ownsCache;
+    private final int[] itemIds;
+    private final int[] amounts;
+    private final int[] slots;
+    private final int[] nextSlots;
+    private final List<Listener> listeners = new ArrayList<>();
+
+    private ItemGroupResult lastSnapshot;
+    private boolean hasBaseline = false;
+
+    /**
+     * @param script  The script instance
+     * @param itemIds The item IDs to watch
+     */
+    public InventoryWatcher(Script script, int... itemIds) {
+        InventoryCache shared = InventoryUtils.getCache(script);
+        this.cache = shared != null ? shared : new InventoryCache(script);
+        this.ownsCache = shared == null;
+        this.itemIds = itemIds.clone();
+        this.amounts = new int[itemIds.length];
+        this.slots = new int[SLOT_COUNT];
+        this.nextSlots = new int[SLOT_COUNT];
+        Arrays.fill(slots, EMPTY);
+        cache.track(itemIds);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Takes the current amounts as the baseline without sending events.
+     *
+     * @return false if the inventory is not visible
+     */
+    public boolean reset() {
+        hasBaseline = false;
+        lastSnapshot = null;
+        return update();
+    }
+
+    /**
+     * Reads the current snapshot and sends events for anything that changed since the last update.
+     * The first update after construction or reset() only records the baseline.
+     *
+     * @return false if the inventory is not visible and could not be opened
+     */
+    public boolean update() {
+        return update(true);
+    }
+
+    /**
+     * Like update(), but leaves the inventory tab alone if another tab is open.
+     *
+     * @return false if the inventory is not visible
+     */
+    public boolean updateIfVisible() {
+        return update(false);
+    }
+
+    private boolean update(boolean open) {
+        if (ownsCache) {
+            // No FreeScript to start frames for this cache
+            cache.nextFrame();
+        }
+        // Re-tracked each time, since the cache drops IDs that go unused
+        cache.track(itemIds);
+        ItemGroupResult inv;
+        try {
+            inv = open ? cache.getSnapshot() : cache.getSnapshotIfVisible();
+        } catch (CannotOpenWidgetException e) {
+            return false;
+        }
+        if (inv == null) {
+            return false;
+        }
+        if (inv == lastSnapshot) {
+            return true;
+        }
+        lastSnapshot = inv;
+
+        Arrays.fill(nextSlots, EMPTY);
+        for (int i = 0; i < itemIds.length; i++) {
+            int id = itemIds[i];
+            int amount = 0;
+            if (inv.contains(id)) {
+                amount = inv.getAmount(id);
+                List<ItemSearchResult> items = inv.getAllOfItem(id);
+                if (items != null) {
+                    for (ItemSearchResult item : items) {
+                        int slot = item.getSlot();
+                        if (slot >= 0 && slot < nextSlots.length) {
+                            nextSlots[slot] = id;
+                        }
+                    }
+                }
+            }
+
+            int delta = amount - amounts[i];
+            amounts[i] = amount;
+            if (!hasBaseline || delta == 0) continue;
+            for (Listener l : listeners) {
+                if (delta > 0) {
+                    l.onItemGained(id, delta);
+                } else {
+                    l.onItemLost(id, -delta);
+                }
+            }
+        }
+
+        for (int slot = 0; slot < slots.length; slot++) {
+            int previous = slots[slot];
+            int current = nextSlots[slot];
+            if (previous == current) continue;
+            slots[slot] = current;
+            if (!hasBaseline) continue;
+            for (Listener l : listeners) {
+                l.onSlotChanged(slot, previous, current);
+            }
+        }
+
+        hasBaseline = true;
+        return true;
+    }
+
+    /**
+     * Gets the amount of a watched item as of the last update().
+     *
+     * @return the amount, or 0 if the item is not watched
+     */
+    public int getAmount(int itemId) {
+        for (int i = 0; i < itemIds.length; i++) {
+            if (itemIds[i] == itemId) return amounts[i];
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the watched item in a slot as of the last update().
+     *
+     * @return the item ID, or -1 if the slot holds no watched item
+     */
+    public int getItemInSlot(int slot) {
+        return slot >= 0 && slot < slots.length ? slots[slot] : EMPTY;
+    }
+}